@@ -0,0 +1,64 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interprets small data, as imported by frequent ad-hoc imports and previews, with and without sharing the prepared
+ * formats (maxSize 0 disables the registry, so every import validates and prepares its format).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PreparedFormatsBenchmark {
+  private static final Map<String, FormatConfig> FORMATS = Map.of(
+    "CSV", new FormatConfig(Format.CSV, Map.of("columnSeparator", ";", "lineSeparator", "\n",
+      "skipFirstDataRow", false, "firstRowAsHeader", true)),
+    "XML", new FormatConfig(Format.XML, Map.of("recordPath", "/items/item")),
+    "JSON", new FormatConfig(Format.JSON, Map.of("fields", List.of("id", "name"))));
+  private static final Map<String, String> DATA = Map.of(
+    "CSV", "id;name;value\n1;a;1.5\n2;b;2.5\n3;c;3.5\n",
+    "XML", "<items><item><id>1</id><name>a</name></item><item><id>2</id><name>b</name></item></items>",
+    "JSON", "[{\"id\":1,\"name\":\"a\",\"value\":1.5},{\"id\":2,\"name\":\"b\",\"value\":2.5}]");
+
+  @Param({"0", "256"})
+  int maxSize;
+
+  @Param({"CSV", "XML", "JSON"})
+  String format;
+
+  private Adapter adapter;
+  private FormatConfig config;
+  private byte[] data;
+
+  @Setup
+  public void setup() {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getPreparedFormats().setMaxSize(maxSize);
+    adapter = new Adapter(List.of(), properties);
+    config = FORMATS.get(format);
+    data = DATA.get(format).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void interpret() throws InterpreterParameterException, IOException {
+    adapter.executeFormat(new ByteArrayInputStream(data), config, OutputStream.nullOutputStream());
+  }
+}
@@ -1,22 +1,195 @@
 package org.jvalue.ods.adapterservice.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jvalue.ods.adapterservice.adapter.importer.FetchResult;
 import org.jvalue.ods.adapterservice.adapter.importer.Importer;
+import org.jvalue.ods.adapterservice.adapter.importer.SizeLimitedInputStream;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
+import org.jvalue.ods.adapterservice.adapter.interpreter.FilteringJsonGenerator;
 import org.jvalue.ods.adapterservice.adapter.interpreter.Interpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.LimitingJsonGenerator;
+import org.jvalue.ods.adapterservice.adapter.interpreter.NdjsonInterpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.RecordFilter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.TruncatingJsonGenerator;
 import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
 import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
 import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
 import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.*;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class Adapter {
+  private final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  private final Map<Protocol, Importer> importers = new EnumMap<>(Protocol.class);
+  private final AdapterProperties.Limits limits;
+  private final FetchCache fetchCache;
+  private final PreparedFormats preparedFormats;
+
+  /**
+   * @param importers  the available importers, each registered for the {@link Protocol} named by its type
+   * @param properties the adapter properties, providing the default limits of imports
+   */
+  public Adapter(List<Importer> importers, AdapterProperties properties) {
+    importers.forEach(importer -> this.importers.put(Protocol.valueOf(importer.getType()), importer));
+    this.limits = properties.getLimits();
+    this.fetchCache = new FetchCache(properties.getFetchCache());
+    this.preparedFormats = new PreparedFormats(properties.getPreparedFormats(), properties.getLimits());
+  }
+
+  /**
+   * Executes an adapter configuration and streams the interpreted data to the given output stream.
+   * The data is never held completely in memory by the adapter itself.
+   *
+   * @param config the adapter configuration
+   * @param out    the stream the UTF-8 encoded JSON result is written to, not closed by this method
+   * @throws ImporterParameterException    on errors in the importer config (e.g. missing parameters, ...)
+   * @throws InterpreterParameterException on errors in the interpreter config (e.g. missing parameters, ...)
+   * @throws IOException                   on response errors when importing the data
+   */
+  public void executeJob(AdapterConfig config, OutputStream out) throws ImporterParameterException, InterpreterParameterException, IOException {
+    try (InputStream rawData = this.executeProtocol(config.protocolConfig)) {
+      this.executeFormat(rawData, config.formatConfig, out);
+    }
+  }
+
+  /**
+   * Executes an adapter configuration like {@link #executeJob(AdapterConfig, OutputStream)}, but skips the
+   * interpretation if the source did not change since the given version.
+   *
+   * @param config       the adapter configuration
+   * @param knownVersion the source version of the last import, {@link SourceVersion#UNKNOWN} if there is none
+   * @param out          the stream the UTF-8 encoded JSON result is written to, not closed by this method
+   * @return the source version of the imported data, empty if the source did not change and nothing was written
+   * @throws ImporterParameterException    on errors in the importer config (e.g. missing parameters, ...)
+   * @throws InterpreterParameterException on errors in the interpreter config (e.g. missing parameters, ...)
+   * @throws IOException                   on response errors when importing the data
+   */
+  public Optional<SourceVersion> executeJob(AdapterConfig config, SourceVersion knownVersion, OutputStream out)
+      throws ImporterParameterException, InterpreterParameterException, IOException {
+    return this.executeJob(prepare(config), (String) config.protocolConfig.parameters.get("location"), knownVersion, out);
+  }
+
+  /**
+   * Validates an adapter configuration once and prepares its execution, for repeated imports of the configuration
+   * by {@link #executeJob(PreparedImport, String, SourceVersion, OutputStream)}.
+   *
+   * @param config the adapter configuration
+   * @return the prepared import
+   * @throws ImporterParameterException    on errors in the importer config (e.g. missing parameters, ...)
+   * @throws InterpreterParameterException on errors in the interpreter config (e.g. missing parameters, ...)
+   */
+  public PreparedImport prepare(AdapterConfig config) throws ImporterParameterException, InterpreterParameterException {
+    var importer = getImporter(config.protocolConfig.protocol);
+    importer.validate(config.protocolConfig.parameters);
+    // imported data is validated, published and searched for incremental state as a single JSON value
+    if (config.formatConfig.format == Format.NDJSON
+        && NdjsonInterpreter.OUTPUT_LINES.equals(config.formatConfig.parameters.get(NdjsonInterpreter.OUTPUT))) {
+      throw new InterpreterParameterException("Parameter " + NdjsonInterpreter.OUTPUT + " of the NDJSON format can " +
+        "only be " + NdjsonInterpreter.OUTPUT_LINES + " for previews, not for imports of datasources");
+    }
+    var format = preparedFormats.get(config.formatConfig);
+    return new PreparedImport(importer, config.protocolConfig, format.interpreter, format.passThrough,
+      format.recordFilter, getMaxBodySize(config.protocolConfig), format.maxDepth, format.maxRecords);
+  }
+
+  /**
+   * Executes a prepared import like {@link #executeJob(AdapterConfig, SourceVersion, OutputStream)}, without
+   * validating its configuration again. The source is always fetched, conditionally on the known version, instead of
+   * being served by the fetch cache.
+   *
+   * @param prepared     the prepared import
+   * @param location     the location to import from, which may differ from the prepared one (e.g. by URI parameters)
+   * @param knownVersion the source version of the last import, {@link SourceVersion#UNKNOWN} if there is none
+   * @param out          the stream the UTF-8 encoded JSON result is written to, not closed by this method
+   * @return the source version of the imported data, empty if the source did not change and nothing was written
+   * @throws ImporterParameterException on errors in the location
+   * @throws IOException                on response errors when importing the data
+   */
+  public Optional<SourceVersion> executeJob(PreparedImport prepared, String location, SourceVersion knownVersion,
+                                            OutputStream out) throws ImporterParameterException, IOException {
+    try (FetchResult fetchResult = fetch(prepared, location, knownVersion)) {
+      return executeFormat(prepared, fetchResult, out);
+    }
+  }
+
+  /**
+   * Fetches the source of a prepared import, conditionally on the known version.
+   *
+   * @param prepared     the prepared import
+   * @param location     the location to import from, which may differ from the prepared one (e.g. by URI parameters)
+   * @param knownVersion the source version of the last import, {@link SourceVersion#UNKNOWN} if there is none
+   * @return the fetch result, the caller has to close it
+   * @throws ImporterParameterException on errors in the location
+   * @throws IOException                on response errors when importing the data
+   */
+  public FetchResult fetch(PreparedImport prepared, String location, SourceVersion knownVersion)
+      throws ImporterParameterException, IOException {
+    return prepared.importer.fetchValidatedIfModified(prepared.withLocation(location).parameters, knownVersion);
+  }
+
+  /**
+   * @return whether the source of a prepared import is fetched without holding a thread by
+   * {@link #fetchAsync(PreparedImport, String, SourceVersion)}
+   */
+  public boolean canFetchAsync(PreparedImport prepared) {
+    return prepared.importer.canFetchAsync(prepared.protocolConfig.parameters);
+  }
+
+  /**
+   * Fetches the source of a prepared import like {@link #fetch(PreparedImport, String, SourceVersion)}, but without
+   * holding a thread while waiting for it. Cancelling the returned future aborts the fetch.
+   *
+   * @return the future fetch result, which fails like {@link #fetch(PreparedImport, String, SourceVersion)}
+   */
+  public CompletableFuture<FetchResult> fetchAsync(PreparedImport prepared, String location,
+                                                   SourceVersion knownVersion) {
+    return prepared.importer.fetchValidatedAsync(prepared.withLocation(location).parameters, knownVersion,
+      prepared.maxBodySize, null);
+  }
+
+  /**
+   * Interprets the fetched data of a prepared import and streams the JSON result to the given output stream.
+   *
+   * @param prepared    the prepared import
+   * @param fetchResult the fetched source, not closed by this method
+   * @param out         the stream the UTF-8 encoded JSON result is written to, not closed by this method
+   * @return the source version of the imported data, empty if the source did not change and nothing was written
+   * @throws IOException on errors when reading or interpreting the data
+   */
+  public Optional<SourceVersion> executeFormat(PreparedImport prepared, FetchResult fetchResult, OutputStream out)
+      throws IOException {
+    if (!fetchResult.isModified()) {
+      return Optional.empty();
+    }
+    InputStream data = new SizeLimitedInputStream(fetchResult.getData(), prepared.maxBodySize);
+    if (prepared.passThrough != null) {
+      prepared.passThrough.forward(data, out);
+      return Optional.of(fetchResult.getVersion());
+    }
+    try (JsonGenerator generator = filterRecords(new LimitingJsonGenerator(jsonFactory.createGenerator(out),
+        prepared.maxDepth, prepared.maxRecords), prepared.recordFilter)) {
+      prepared.interpreter.interpret(data, generator);
+    }
+    return Optional.of(fetchResult.getVersion());
+  }
 
   /**
    * Executes an adapter configuration
@@ -28,31 +201,298 @@ public class Adapter {
    * @throws IOException                   on response errors when importing the data
    */
   public DataImportResponse executeJob(AdapterConfig config) throws ImporterParameterException, InterpreterParameterException, IOException {
-    var rawData = this.executeProtocol(config.protocolConfig);
-    var result = this.executeFormat(rawData, config.formatConfig);
-    return new DataImportResponse(result.toString());
+    try (InputStream rawData = this.executeProtocol(config.protocolConfig)) {
+      return this.executeJob(rawData, config.formatConfig);
+    }
+  }
+
+  /**
+   * Interprets data that was already imported, like {@link #executeJob(AdapterConfig)}.
+   *
+   * @param rawData the imported data, not closed by this method
+   * @param config  the format configuration
+   * @return the interpreted data
+   */
+  public DataImportResponse executeJob(InputStream rawData, FormatConfig config)
+      throws InterpreterParameterException, IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    this.executeFormat(rawData, config, result);
+    return new DataImportResponse(result.toString(StandardCharsets.UTF_8));
   }
 
-  public DataImportResponse executeRawImport(ProtocolConfig config) throws ImporterParameterException {
-    var rawData = this.executeProtocol(config);
-    return new DataImportResponse(rawData);
+  /**
+   * Executes an adapter configuration for a preview, which stops importing and interpreting once the given limits are
+   * reached. Cut-off raw data ends at its last line break within the byte limit, records the interpreter did not
+   * complete before the end of the cut-off data are dropped.
+   *
+   * @param config     the adapter configuration
+   * @param maxRecords the maximum number of records of the interpreted data, null for no limit
+   * @param maxBytes   the maximum number of raw bytes to interpret, null for no limit
+   * @return the imported and interpreted data, truncated if it exceeded the limits
+   * @throws ImporterParameterException    on errors in the importer config (e.g. missing parameters, ...)
+   * @throws InterpreterParameterException on errors in the interpreter config (e.g. missing parameters, ...)
+   * @throws IOException                   on response errors when importing the data
+   */
+  public DataImportResponse executePreview(AdapterConfig config, Long maxRecords, Long maxBytes)
+      throws ImporterParameterException, InterpreterParameterException, IOException {
+    checkPreviewLimits(maxRecords, maxBytes);
+    try (InputStream rawData = this.executeProtocol(config.protocolConfig)) {
+      return this.executePreview(rawData, config, maxRecords, maxBytes);
+    }
   }
 
-  public String executeProtocol(ProtocolConfig config) throws ImporterParameterException {
-    var importer = config.protocol.getImporter();
-    return importer.fetch(config.parameters);
+  /**
+   * Interprets data that was already imported for a preview, like
+   * {@link #executePreview(AdapterConfig, Long, Long)}.
+   *
+   * @param rawData the imported data, not closed by this method
+   */
+  public DataImportResponse executePreview(InputStream rawData, AdapterConfig config, Long maxRecords, Long maxBytes)
+      throws ImporterParameterException, InterpreterParameterException, IOException {
+    checkPreviewLimits(maxRecords, maxBytes);
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    InputStream data = rawData;
+    boolean sourceTruncated = false;
+    if (maxBytes != null) {
+      byte[] head = readHead(rawData, maxBytes);
+      sourceTruncated = head.length > maxBytes;
+      // keeps the body limit, which also limits the data interpreters unpack (e.g. the parts of a workbook)
+      data = new SizeLimitedInputStream(new ByteArrayInputStream(head, 0,
+        sourceTruncated ? lastLineEnd(head, maxBytes.intValue()) : head.length), getMaxBodySize(config.protocolConfig));
+    }
+    boolean truncated = this.executePreviewFormat(data, config.formatConfig, result,
+      maxRecords == null ? Long.MAX_VALUE : maxRecords, sourceTruncated) || sourceTruncated;
+    return new DataImportResponse(result.toString(StandardCharsets.UTF_8), truncated);
   }
 
-  public JsonNode executeFormat(String rawData, FormatConfig config) throws InterpreterParameterException, IOException {
-    var interpreter = config.format.getInterpreter();
-    return interpreter.interpret(rawData, config.parameters);
+  public DataImportResponse executeRawImport(ProtocolConfig config) throws ImporterParameterException, IOException {
+    try (InputStream rawData = this.executeProtocol(config)) {
+      return new DataImportResponse(new String(rawData.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Imports the raw data of a protocol configuration for a preview, which stops importing once the byte limit is
+   * reached.
+   *
+   * @param config   the protocol configuration
+   * @param maxBytes the maximum number of bytes to import, null for no limit
+   * @return the raw data, truncated if it exceeded the limit
+   */
+  public DataImportResponse executeRawPreview(ProtocolConfig config, Long maxBytes)
+      throws ImporterParameterException, IOException {
+    checkByteLimit(maxBytes);
+    if (maxBytes == null) {
+      return executeRawImport(config);
+    }
+    try (InputStream rawData = this.executeProtocol(config)) {
+      return this.executeRawPreview(rawData, maxBytes);
+    }
+  }
+
+  /**
+   * Previews raw data that was already imported, like {@link #executeRawPreview(ProtocolConfig, Long)}.
+   *
+   * @param rawData the imported data, not closed by this method
+   */
+  public DataImportResponse executeRawPreview(InputStream rawData, Long maxBytes)
+      throws ImporterParameterException, IOException {
+    checkByteLimit(maxBytes);
+    if (maxBytes == null) {
+      return new DataImportResponse(new String(rawData.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    byte[] head = readHead(rawData, maxBytes);
+    boolean truncated = head.length > maxBytes;
+    String data = new String(head, 0, truncated ? charBoundary(head, maxBytes.intValue()) : head.length,
+      StandardCharsets.UTF_8);
+    return new DataImportResponse(data, truncated);
+  }
+
+  /**
+   * Opens the data source of a protocol configuration. Concurrent and repeated fetches of the same configuration are
+   * served by a single fetch for a short time. The returned stream fails once the data exceeds the maximum body size.
+   */
+  public InputStream executeProtocol(ProtocolConfig config) throws ImporterParameterException, IOException {
+    var importer = getImporter(config.protocol);
+    long maxBodySize = getMaxBodySize(config);
+    InputStream data = fetchCache.fetchIfModified(config, SourceVersion.UNKNOWN,
+      () -> importer.fetchIfModified(config.parameters, SourceVersion.UNKNOWN)).getData();
+    return new SizeLimitedInputStream(data, maxBodySize);
+  }
+
+  /**
+   * @return whether the source of a protocol configuration is fetched without holding a thread by
+   * {@link #executeProtocolAsync(ProtocolConfig, Long)}
+   */
+  public boolean canFetchAsync(ProtocolConfig config) {
+    Importer importer = importers.get(config.protocol);
+    return importer != null && importer.canFetchAsync(config.parameters);
+  }
+
+  /**
+   * Opens the data source of a protocol configuration like {@link #executeProtocol(ProtocolConfig)}, but fetches it
+   * without holding a thread while waiting for it. Concurrent and repeated fetches of the same configuration are
+   * served by a single fetch for a short time, like by {@link #executeProtocol(ProtocolConfig)}. Cancelling the returned
+   * future aborts the fetch.
+   *
+   * @param config   the protocol configuration
+   * @param maxBytes the maximum number of bytes a preview reads, null to fetch the whole data
+   * @return the future data, which fails like {@link #executeProtocol(ProtocolConfig)}
+   */
+  public CompletableFuture<InputStream> executeProtocolAsync(ProtocolConfig config, Long maxBytes) {
+    var importer = getImporter(config.protocol);
+    long maxBodySize;
+    try {
+      checkByteLimit(maxBytes);
+      importer.validate(config.parameters);
+      maxBodySize = getMaxBodySize(config);
+    } catch (ImporterParameterException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    // previews read one byte more than their limit, to tell whether the data was truncated
+    Long stopAfter = maxBytes == null ? null : maxBytes + 1;
+    CompletableFuture<FetchResult> fetched = fetchCache.fetchAsync(config, SourceVersion.UNKNOWN, stopAfter != null,
+      () -> importer.fetchValidatedAsync(config.parameters, SourceVersion.UNKNOWN, maxBodySize, stopAfter));
+    CompletableFuture<InputStream> data = fetched.thenApply(result ->
+      new SizeLimitedInputStream(result.getData(), maxBodySize));
+    data.whenComplete((result, error) -> {
+      if (error != null) {
+        fetched.cancel(true);
+      }
+    });
+    return data;
+  }
+
+  /**
+   * Interprets the given data and streams the JSON result to the given output stream. The interpretation fails once
+   * the result exceeds the maximum nesting depth or number of records, which are counted after filtering. The format
+   * is prepared once for equal configurations.
+   */
+  public void executeFormat(InputStream rawData, FormatConfig config, OutputStream out) throws InterpreterParameterException, IOException {
+    var format = preparedFormats.get(config);
+    if (format.passThrough != null) {
+      format.passThrough.forward(rawData, out);
+      return;
+    }
+    try (JsonGenerator generator = filterRecords(createLimitingGenerator(format, out), format.recordFilter)) {
+      format.interpreter.interpret(rawData, generator);
+    }
+  }
+
+  /**
+   * Interprets the data of a preview, stopping after the given number of records.
+   *
+   * @param sourceTruncated whether the raw data was cut off, so a failing interpretation still has a valid prefix
+   * @return true, if the interpreted data was truncated
+   */
+  private boolean executePreviewFormat(InputStream rawData, FormatConfig config, OutputStream out, long maxRecords,
+                                       boolean sourceTruncated) throws InterpreterParameterException, IOException {
+    var format = preparedFormats.get(config);
+    TruncatingJsonGenerator generator = new TruncatingJsonGenerator(createLimitingGenerator(format, out), maxRecords);
+    try (JsonGenerator filtered = filterRecords(generator, format.recordFilter)) {
+      format.interpreter.interpret(rawData, filtered);
+    } catch (IOException e) {
+      if (generator.isTruncated()) {
+        return true;
+      }
+      if (!sourceTruncated || e instanceof ImportLimitExceededException) {
+        throw e;
+      }
+      if (!generator.hasTopLevelArray()) {
+        throw new ImportLimitExceededException("The previewed data could not be interpreted within the byte limit, " +
+          "only data with a top-level array can be truncated");
+      }
+    }
+    return generator.isTruncated();
+  }
+
+  private JsonGenerator createLimitingGenerator(PreparedFormats.PreparedFormat format, OutputStream out)
+      throws IOException {
+    return new LimitingJsonGenerator(jsonFactory.createGenerator(out), format.maxDepth, format.maxRecords);
+  }
+
+  /**
+   * @return the generator that projects and filters the records before writing them to the given one, the given one
+   * if there is no record filter
+   */
+  private static JsonGenerator filterRecords(JsonGenerator generator, RecordFilter recordFilter) {
+    return recordFilter == null ? generator : new FilteringJsonGenerator(generator, recordFilter);
+  }
+
+  /**
+   * Checks the limits of a preview before importing its data.
+   */
+  static void checkPreviewLimits(Long maxRecords, Long maxBytes)
+      throws ImporterParameterException, InterpreterParameterException {
+    if (!isPreviewLimit(maxRecords)) {
+      throw new InterpreterParameterException(previewLimitMessage("maxRecords", maxRecords));
+    }
+    checkByteLimit(maxBytes);
+  }
+
+  private static void checkByteLimit(Long maxBytes) throws ImporterParameterException {
+    if (!isPreviewLimit(maxBytes)) {
+      throw new ImporterParameterException(previewLimitMessage("maxBytes", maxBytes));
+    }
+  }
+
+  private static boolean isPreviewLimit(Long limit) {
+    return limit == null || limit >= 1;
+  }
+
+  private static String previewLimitMessage(String name, Long limit) {
+    return "Preview limit " + name + " has to be a positive integer. Your given value " + limit + " is invalid!";
+  }
+
+  /**
+   * Reads up to one byte more than the given limit, so the caller can tell whether the data exceeds it.
+   */
+  private static byte[] readHead(InputStream data, long limit) throws IOException {
+    return data.readNBytes((int) Math.min(limit + 1, Integer.MAX_VALUE - 8));
+  }
+
+  /**
+   * @return the length of the data up to and including its last line break before the limit, or the limit if there
+   * is none
+   */
+  private static int lastLineEnd(byte[] data, int limit) {
+    for (int i = limit - 1; i >= 0; i--) {
+      if (data[i] == '\n') {
+        return i + 1;
+      }
+    }
+    return charBoundary(data, limit);
+  }
+
+  /**
+   * @return the largest length up to the limit that does not cut a UTF-8 encoded character in two
+   */
+  private static int charBoundary(byte[] data, int limit) {
+    int end = limit;
+    // continuation bytes have the form 10xxxxxx
+    while (end > 0 && end < data.length && (data[end] & 0xC0) == 0x80) {
+      end--;
+    }
+    return end;
+  }
+
+  private long getMaxBodySize(ProtocolConfig config) throws ImporterParameterException {
+    return Importer.getMaxBodySize(config.parameters, limits.getMaxBodySize());
   }
 
   public Collection<Importer> getAllProtocols() {
-    return Arrays.stream(Protocol.values()).map(Protocol::getImporter).collect(Collectors.toList());
+    return importers.values();
   }
 
   public Collection<Interpreter> getAllFormats() {
     return Arrays.stream(Format.values()).map(Format::getInterpreter).collect(Collectors.toList());
   }
+
+  private Importer getImporter(Protocol protocol) {
+    Importer importer = importers.get(protocol);
+    if (importer == null) {
+      throw new IllegalArgumentException("No importer available for protocol " + protocol);
+    }
+    return importer;
+  }
 }
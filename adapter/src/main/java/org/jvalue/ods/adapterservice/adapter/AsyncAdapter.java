@@ -0,0 +1,106 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import lombok.AllArgsConstructor;
+import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
+import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
+import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.AdapterException;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportTimeoutException;
+import org.jvalue.ods.adapterservice.common.ImportExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous variant of the {@link Adapter}. Sources that can be fetched asynchronously (see
+ * {@link Adapter#canFetchAsync(ProtocolConfig)}) are fetched without holding a thread, only their interpretation runs
+ * on the bounded {@link ImportExecutor}. Other sources (e.g. paginated ones) are imported on the executor as a whole.
+ * Imports that exceed the timeout of imports fail with an {@link ImportTimeoutException} and are aborted. The futures
+ * fail with the exceptions of the corresponding {@link Adapter} methods, unwrapped.
+ */
+@Service
+@AllArgsConstructor
+public class AsyncAdapter {
+  private final Adapter adapter;
+  private final ImportExecutor executor;
+
+  /**
+   * @see Adapter#executeJob(AdapterConfig)
+   */
+  public CompletableFuture<DataImportResponse> executeJob(AdapterConfig config) {
+    return execute(config.protocolConfig, null, () -> adapter.executeJob(config),
+      data -> adapter.executeJob(data, config.formatConfig));
+  }
+
+  /**
+   * @see Adapter#executePreview(AdapterConfig, Long, Long)
+   */
+  public CompletableFuture<DataImportResponse> executePreview(AdapterConfig config, Long maxRecords, Long maxBytes) {
+    try {
+      Adapter.checkPreviewLimits(maxRecords, maxBytes);
+    } catch (AdapterException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return execute(config.protocolConfig, maxBytes, () -> adapter.executePreview(config, maxRecords, maxBytes),
+      data -> adapter.executePreview(data, config, maxRecords, maxBytes));
+  }
+
+  /**
+   * @see Adapter#executeRawPreview(ProtocolConfig, Long)
+   */
+  public CompletableFuture<DataImportResponse> executeRawPreview(ProtocolConfig config, Long maxBytes) {
+    return execute(config, maxBytes, () -> adapter.executeRawPreview(config, maxBytes),
+      data -> adapter.executeRawPreview(data, maxBytes));
+  }
+
+  /**
+   * @param config         the protocol configuration of the import
+   * @param maxBytes       the maximum number of bytes a preview reads, null to import the whole data
+   * @param blockingImport imports the source on the executor, if it can not be fetched asynchronously
+   * @param interpretation interprets the asynchronously fetched data on the executor
+   */
+  private <T> CompletableFuture<T> execute(ProtocolConfig config, Long maxBytes, ImportExecutor.Task<T> blockingImport,
+                                           Interpretation<T> interpretation) {
+    ImportExecutor.TimedImport<T> timedImport = executor.startImport();
+    if (!adapter.canFetchAsync(config)) {
+      return timedImport.completeWith(timedImport.abortOnFailure(executor.submit(blockingImport)));
+    }
+    CompletableFuture<InputStream> fetched = timedImport.abortOnFailure(adapter.executeProtocolAsync(config, maxBytes));
+    return timedImport.completeWith(fetched.thenCompose(data -> {
+      // the data is closed by its interpretation, or here if the interpretation never started, so concurrent fetches
+      // of the same source that joined this one do not wait for it in vain
+      AtomicBoolean claimed = new AtomicBoolean();
+      CompletableFuture<T> interpreted = timedImport.abortOnFailure(executor.submit(() -> {
+        if (!claimed.compareAndSet(false, true)) {
+          throw new CancellationException();
+        }
+        try (data) {
+          return interpretation.interpret(data);
+        }
+      }));
+      interpreted.whenComplete((result, error) -> {
+        if (claimed.compareAndSet(false, true)) {
+          closeQuietly(data);
+        }
+      });
+      return interpreted;
+    }));
+  }
+
+  private static void closeQuietly(InputStream data) {
+    try {
+      data.close();
+    } catch (IOException e) {
+      // the data was not read at all
+    }
+  }
+
+  @FunctionalInterface
+  private interface Interpretation<T> {
+    T interpret(InputStream data) throws Exception;
+  }
+}
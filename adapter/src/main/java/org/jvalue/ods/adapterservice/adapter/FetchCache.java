@@ -0,0 +1,354 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.jvalue.ods.adapterservice.adapter.importer.FetchResult;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
+import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shared fetch layer in front of the importers. Concurrent fetches of the same protocol configuration (i.e. the same
+ * resolved location and parameters) are collapsed into a single fetch, and small results are kept for a short time in
+ * a size-bounded LRU cache. The data is copied into the cache while the fetching caller reads it, so it is shared only
+ * once the caller read it completely. Results larger than the maximum entry size, or closed before their end (e.g. by
+ * a preview), are not shared and the concurrent callers fetch them on their own.
+ */
+class FetchCache {
+
+  private final long ttl;
+  private final long maxSize;
+  private final int maxEntrySize;
+  private final Map<ProtocolConfig, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+  // guarded by itself, iterates from the least to the most recently used entry
+  private final LinkedHashMap<ProtocolConfig, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+
+  FetchCache(AdapterProperties.FetchCache properties) {
+    this.ttl = properties.getTtl().toNanos();
+    this.maxSize = properties.getMaxSize().toBytes();
+    this.maxEntrySize = (int) Math.min(properties.getMaxEntrySize().toBytes(), Integer.MAX_VALUE - 8);
+  }
+
+  /**
+   * Fetches the source of the given configuration, unless it is cached or currently fetched by another caller.
+   *
+   * @param config       the protocol configuration
+   * @param knownVersion the version of the last import, {@link SourceVersion#UNKNOWN} to fetch unconditionally
+   * @param fetch        fetches the source of the configuration with the known version
+   * @return the fetch result, the caller has to close it
+   */
+  FetchResult fetchIfModified(ProtocolConfig config, SourceVersion knownVersion, Fetch fetch)
+      throws ImporterParameterException, IOException {
+    if (ttl <= 0) {
+      return fetch.fetch();
+    }
+
+    Entry cached = get(config);
+    if (cached != null) {
+      return cached.toResult(knownVersion);
+    }
+
+    CompletableFuture<Entry> flight = new CompletableFuture<>();
+    CompletableFuture<Entry> leader = inFlight.putIfAbsent(config, flight);
+    if (leader == null) {
+      flight.whenComplete((entry, error) -> inFlight.remove(config, flight));
+    } else {
+      Entry shared = await(leader);
+      if (shared != null) {
+        return shared.toResult(knownVersion);
+      }
+      // the result of the other fetch could not be shared, e.g. because it was too large
+      return fetch.fetch();
+    }
+
+    try {
+      FetchResult result = fetch.fetch();
+      if (!result.isModified()) {
+        flight.complete(null);
+        return result;
+      }
+      return FetchResult.modified(new SharingInputStream(result.getData(), config, result.getVersion(), flight),
+        result.getVersion());
+    } catch (ImporterParameterException | IOException | RuntimeException e) {
+      flight.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Fetches the source of the given configuration like {@link #fetchIfModified(ProtocolConfig, SourceVersion, Fetch)},
+   * but without holding a thread: concurrent callers join the future of the leading fetch instead of waiting for it.
+   * Cancelling the returned future aborts the own fetch of the caller, but not a fetch it joined.
+   *
+   * @param config       the protocol configuration
+   * @param knownVersion the version of the last import, {@link SourceVersion#UNKNOWN} to fetch unconditionally
+   * @param partial      whether the fetch only returns a prefix of the data (e.g. for a preview). Such a fetch joins
+   *                     concurrent fetches, but is neither joined nor cached itself.
+   * @param fetch        fetches the source of the configuration with the known version
+   * @return the future fetch result, the caller has to close it
+   */
+  CompletableFuture<FetchResult> fetchAsync(ProtocolConfig config, SourceVersion knownVersion, boolean partial,
+                                            AsyncFetch fetch) {
+    if (ttl <= 0) {
+      return fetch.fetch();
+    }
+
+    Entry cached = get(config);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached.toResult(knownVersion));
+    }
+
+    CompletableFuture<FetchResult> result = new CompletableFuture<>();
+    CompletableFuture<Entry> leader = inFlight.get(config);
+    CompletableFuture<Entry> flight = new CompletableFuture<>();
+    if (leader == null && !partial) {
+      leader = inFlight.putIfAbsent(config, flight);
+    }
+    if (leader != null) {
+      leader.whenComplete((shared, error) -> {
+        if (error != null) {
+          result.completeExceptionally(error);
+        } else if (shared != null) {
+          result.complete(shared.toResult(knownVersion));
+        } else {
+          // the result of the other fetch could not be shared, e.g. because it was too large
+          forward(fetch.fetch(), result);
+        }
+      });
+      return result;
+    }
+    if (partial) {
+      return fetch.fetch();
+    }
+
+    flight.whenComplete((entry, error) -> inFlight.remove(config, flight));
+    CompletableFuture<FetchResult> fetched = fetch.fetch();
+    fetched.whenComplete((fetchResult, error) -> {
+      if (result.isCancelled()) {
+        // the caller aborted the fetch, the joined callers fetch on their own
+        flight.complete(null);
+      } else if (error != null) {
+        flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+          ? error.getCause() : error);
+        result.completeExceptionally(error);
+      } else if (!fetchResult.isModified()) {
+        flight.complete(null);
+        result.complete(fetchResult);
+      } else if (!result.complete(FetchResult.modified(new SharingInputStream(fetchResult.getData(), config,
+          fetchResult.getVersion(), flight), fetchResult.getVersion()))) {
+        flight.complete(null);
+      }
+    });
+    result.whenComplete((fetchResult, error) -> fetched.cancel(true));
+    return result;
+  }
+
+  private static void forward(CompletableFuture<FetchResult> fetched, CompletableFuture<FetchResult> result) {
+    fetched.whenComplete((fetchResult, error) -> {
+      if (error != null) {
+        result.completeExceptionally(error);
+      } else {
+        result.complete(fetchResult);
+      }
+    });
+    result.whenComplete((fetchResult, error) -> fetched.cancel(true));
+  }
+
+  private Entry get(ProtocolConfig config) {
+    synchronized (entries) {
+      Entry entry = entries.get(config);
+      if (entry == null) {
+        return null;
+      }
+      if (System.nanoTime() - entry.expiresAt > 0) {
+        entries.remove(config);
+        size -= entry.data.length;
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  private void put(ProtocolConfig config, Entry entry) {
+    synchronized (entries) {
+      Entry replaced = entries.put(config, entry);
+      size += entry.data.length - (replaced == null ? 0 : replaced.data.length);
+      Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+      while (size > maxSize && leastRecentlyUsed.hasNext()) {
+        size -= leastRecentlyUsed.next().data.length;
+        leastRecentlyUsed.remove();
+      }
+    }
+  }
+
+  private static Entry await(CompletableFuture<Entry> flight) throws ImporterParameterException, IOException {
+    try {
+      return flight.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a concurrent fetch of the same source");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ImporterParameterException) {
+        throw (ImporterParameterException) cause;
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Passes the fetched data through to the caller and copies it on the way. Once the caller read the data completely,
+   * the copy is cached and shared with the concurrent callers of the same configuration.
+   */
+  private class SharingInputStream extends FilterInputStream {
+    private final ProtocolConfig config;
+    private final SourceVersion version;
+    private final CompletableFuture<Entry> flight;
+    // null once the data turned out not to be shareable or was shared
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    SharingInputStream(InputStream data, ProtocolConfig config, SourceVersion version,
+                       CompletableFuture<Entry> flight) {
+      super(data);
+      this.config = config;
+      this.version = version;
+      this.flight = flight;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b;
+      try {
+        b = super.read();
+      } catch (IOException | RuntimeException e) {
+        discard();
+        throw e;
+      }
+      if (b < 0) {
+        share();
+      } else if (copy != null && reserve(1)) {
+        copy.write(b);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n;
+      try {
+        n = super.read(b, off, len);
+      } catch (IOException | RuntimeException e) {
+        discard();
+        throw e;
+      }
+      if (n < 0) {
+        share();
+      } else if (copy != null && reserve(n)) {
+        copy.write(b, off, n);
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      // skipped data is not copied
+      discard();
+      return super.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      // parsers stop at the end of the document without reading the end of the data
+      if (copy != null && isAtEnd()) {
+        share();
+      }
+      discard();
+      super.close();
+    }
+
+    private boolean isAtEnd() {
+      try {
+        return super.read() < 0;
+      } catch (IOException | RuntimeException e) {
+        return false;
+      }
+    }
+
+    private boolean reserve(int n) {
+      if (copy.size() + (long) n > maxEntrySize) {
+        discard();
+        return false;
+      }
+      return true;
+    }
+
+    private void share() {
+      if (copy == null) {
+        return;
+      }
+      Entry entry = new Entry(copy.toByteArray(), version, System.nanoTime() + ttl);
+      copy = null;
+      put(config, entry);
+      flight.complete(entry);
+    }
+
+    private void discard() {
+      copy = null;
+      flight.complete(null);
+    }
+  }
+
+  @FunctionalInterface
+  interface Fetch {
+    FetchResult fetch() throws ImporterParameterException, IOException;
+  }
+
+  @FunctionalInterface
+  interface AsyncFetch {
+    CompletableFuture<FetchResult> fetch();
+  }
+
+  private static class Entry {
+    private final byte[] data;
+    private final SourceVersion version;
+    private final long expiresAt;
+
+    Entry(byte[] data, SourceVersion version, long expiresAt) {
+      this.data = data;
+      this.version = version;
+      this.expiresAt = expiresAt;
+    }
+
+    FetchResult toResult(SourceVersion knownVersion) {
+      if (version.isKnown() && version.equals(knownVersion)) {
+        return FetchResult.notModified(knownVersion);
+      }
+      return FetchResult.modified(new ByteArrayInputStream(data), version);
+    }
+  }
+}
@@ -5,7 +5,11 @@ import org.jvalue.ods.adapterservice.adapter.interpreter.*;
 public enum Format {
   JSON(new JsonInterpreter()),
   XML(new XmlInterpreter()),
-  CSV(new CsvInterpreter());
+  CSV(new CsvInterpreter()),
+  NDJSON(new NdjsonInterpreter()),
+  XLSX(new XlsxInterpreter()),
+  PARQUET(new ParquetInterpreter()),
+  ARROW(new ArrowInterpreter());
 
   private final Interpreter interpreter;
 
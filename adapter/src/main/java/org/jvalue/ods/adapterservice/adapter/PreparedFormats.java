@@ -0,0 +1,126 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.jvalue.ods.adapterservice.adapter.interpreter.Interpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.JsonInterpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.JsonPassThrough;
+import org.jvalue.ods.adapterservice.adapter.interpreter.PreparedInterpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.RecordFilter;
+import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared registry of prepared format configurations, so the readers of an interpreter (e.g. its CSV schema or XML
+ * record path), the record filter and the limits are set up once per effective format parameters instead of for every
+ * import.
+ * The prepared formats are immutable and used concurrently, the registry keeps the most recently used ones in an LRU
+ * cache.
+ */
+class PreparedFormats {
+
+  private final int maxSize;
+  // default limits of formats that do not configure their own
+  private final AdapterProperties.Limits limits;
+  // guarded by itself, iterates from the least to the most recently used format
+  private final LinkedHashMap<FormatConfig, PreparedFormat> formats = new LinkedHashMap<>(16, 0.75f, true);
+
+  PreparedFormats(AdapterProperties.PreparedFormats properties, AdapterProperties.Limits limits) {
+    this.maxSize = properties.getMaxSize();
+    this.limits = limits;
+  }
+
+  /**
+   * @param config the format configuration
+   * @return the prepared format, shared with all imports of an equal configuration
+   * @throws InterpreterParameterException on errors in the interpreter config, which are not cached
+   */
+  PreparedFormat get(FormatConfig config) throws InterpreterParameterException {
+    if (maxSize <= 0) {
+      return prepare(config);
+    }
+    synchronized (formats) {
+      PreparedFormat cached = formats.get(config);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    // prepared outside of the lock, so concurrent imports of equal configs may both prepare it, the first one wins
+    PreparedFormat prepared = prepare(config);
+    // the key is copied, as the parameters of the given config may still be changed by the caller
+    FormatConfig key = new FormatConfig(config.format, new HashMap<>(config.parameters));
+    synchronized (formats) {
+      PreparedFormat raced = formats.putIfAbsent(key, prepared);
+      if (raced != null) {
+        return raced;
+      }
+      Iterator<PreparedFormat> leastRecentlyUsed = formats.values().iterator();
+      while (formats.size() > maxSize && leastRecentlyUsed.hasNext()) {
+        leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+      }
+    }
+    return prepared;
+  }
+
+  private PreparedFormat prepare(FormatConfig config) throws InterpreterParameterException {
+    PreparedInterpreter interpreter = config.format.getInterpreter().prepare(config.parameters);
+    RecordFilter recordFilter = RecordFilter.of(config.parameters);
+    int maxDepth = (int) Math.min(getLimit(config.parameters, Interpreter.MAX_DEPTH, limits.getMaxDepth()),
+      Integer.MAX_VALUE);
+    long maxRecords = getLimit(config.parameters, Interpreter.MAX_RECORDS, limits.getMaxRecords());
+    return new PreparedFormat(interpreter, recordFilter, getPassThrough(config, recordFilter, maxDepth, maxRecords),
+      maxDepth, maxRecords);
+  }
+
+  /**
+   * @return the pass-through of JSON data that is imported as is, null if the data has to be interpreted (e.g. to
+   * filter its records)
+   */
+  private static JsonPassThrough getPassThrough(FormatConfig config, RecordFilter recordFilter, int maxDepth,
+                                                long maxRecords) {
+    if (config.format != Format.JSON || !Boolean.TRUE.equals(config.parameters.get(JsonInterpreter.PASS_THROUGH))
+        || recordFilter != null) {
+      return null;
+    }
+    return new JsonPassThrough((String) config.parameters.getOrDefault(JsonInterpreter.POINTER, ""), maxDepth,
+      maxRecords);
+  }
+
+  private static long getLimit(Map<String, Object> parameters, String name, long defaultLimit)
+      throws InterpreterParameterException {
+    Object limit = parameters.get(name);
+    if (limit == null) {
+      return defaultLimit;
+    }
+    if (!(limit instanceof Integer || limit instanceof Long) || ((Number) limit).longValue() < 1) {
+      throw new InterpreterParameterException("Parameter " + name + " has to be a positive integer. " +
+        "Your given value " + limit + " is invalid!");
+    }
+    return ((Number) limit).longValue();
+  }
+
+  static class PreparedFormat {
+    final PreparedInterpreter interpreter;
+    // null if the format does not configure it
+    final RecordFilter recordFilter;
+    // forwards the raw data instead of the interpreter, null if the format does not pass through its data
+    final JsonPassThrough passThrough;
+    final int maxDepth;
+    final long maxRecords;
+
+    PreparedFormat(PreparedInterpreter interpreter, RecordFilter recordFilter, JsonPassThrough passThrough,
+                   int maxDepth, long maxRecords) {
+      this.interpreter = interpreter;
+      this.recordFilter = recordFilter;
+      this.passThrough = passThrough;
+      this.maxDepth = maxDepth;
+      this.maxRecords = maxRecords;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.jvalue.ods.adapterservice.adapter.importer.Importer;
+import org.jvalue.ods.adapterservice.adapter.interpreter.JsonPassThrough;
+import org.jvalue.ods.adapterservice.adapter.interpreter.PreparedInterpreter;
+import org.jvalue.ods.adapterservice.adapter.interpreter.RecordFilter;
+import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adapter configuration whose parameters were validated once and whose interpreter is set up, for the repeated
+ * imports of a datasource. Created by {@link Adapter#prepare(org.jvalue.ods.adapterservice.adapter.model.AdapterConfig)}.
+ */
+public class PreparedImport {
+  final Importer importer;
+  final ProtocolConfig protocolConfig;
+  final PreparedInterpreter interpreter;
+  // forwards the raw data instead of the interpreter, null if the format does not pass through its data
+  final JsonPassThrough passThrough;
+  // projects and filters the interpreted records, null if the format does not configure it
+  final RecordFilter recordFilter;
+  final long maxBodySize;
+  final int maxDepth;
+  final long maxRecords;
+
+  PreparedImport(Importer importer, ProtocolConfig protocolConfig, PreparedInterpreter interpreter,
+                 JsonPassThrough passThrough, RecordFilter recordFilter, long maxBodySize, int maxDepth,
+                 long maxRecords) {
+    this.importer = importer;
+    this.protocolConfig = protocolConfig;
+    this.interpreter = interpreter;
+    this.passThrough = passThrough;
+    this.recordFilter = recordFilter;
+    this.maxBodySize = maxBodySize;
+    this.maxDepth = maxDepth;
+    this.maxRecords = maxRecords;
+  }
+
+  /**
+   * @return the prepared protocol configuration with the given location (e.g. with filled in URI parameters)
+   */
+  ProtocolConfig withLocation(String location) {
+    if (location.equals(protocolConfig.parameters.get("location"))) {
+      return protocolConfig;
+    }
+    Map<String, Object> parameters = new HashMap<>(protocolConfig.parameters);
+    parameters.put("location", location);
+    return new ProtocolConfig(protocolConfig.protocol, parameters);
+  }
+}
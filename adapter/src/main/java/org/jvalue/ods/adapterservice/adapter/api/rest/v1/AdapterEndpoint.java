@@ -1,29 +1,35 @@
 package org.jvalue.ods.adapterservice.adapter.api.rest.v1;
 
 import lombok.AllArgsConstructor;
-import org.jvalue.ods.adapterservice.adapter.Adapter;
+import org.jvalue.ods.adapterservice.adapter.AsyncAdapter;
 import org.jvalue.ods.adapterservice.adapter.model.*;
-import org.jvalue.ods.adapterservice.adapter.model.exceptions.*;
+import org.jvalue.ods.adapterservice.common.rest.DeferredResults;
 import org.springframework.web.bind.annotation.*;
-
-import java.io.IOException;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 
+/**
+ * Imports run asynchronously, the request threads are released while waiting for the sources. Imports that time out
+ * fail with 504.
+ */
 @RestController
 @AllArgsConstructor
 public class AdapterEndpoint {
-  private final Adapter adapter;
+  private final AsyncAdapter adapter;
 
   @PostMapping(Mappings.IMPORT_PATH)
-  public DataImportResponse executeDataImport(@Valid @RequestBody AdapterConfig config)
-      throws ImporterParameterException, InterpreterParameterException, IOException {
-    return adapter.executeJob(config);
+  public DeferredResult<DataImportResponse> executeDataImport(@Valid @RequestBody AdapterConfig config,
+      @RequestParam(required = false) Long maxRecords, @RequestParam(required = false) Long maxBytes) {
+    if (maxRecords == null && maxBytes == null) {
+      return DeferredResults.of(adapter.executeJob(config));
+    }
+    return DeferredResults.of(adapter.executePreview(config, maxRecords, maxBytes));
   }
 
   @PostMapping(Mappings.RAW_IMPORT_PATH)
-  public DataImportResponse executeRawPreview(@Valid @RequestBody ProtocolConfig config)
-      throws ImporterParameterException {
-    return adapter.executeRawImport(config);
+  public DeferredResult<DataImportResponse> executeRawPreview(@Valid @RequestBody ProtocolConfig config,
+      @RequestParam(required = false) Long maxBytes) {
+    return DeferredResults.of(adapter.executeRawPreview(config, maxBytes));
   }
 }
@@ -0,0 +1,57 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Response of an asynchronous request, whose body was buffered in memory. Its body may be cut off, if the request
+ * stopped early (see {@link BufferingResponseConsumer}).
+ */
+class BufferedResponse implements ClientHttpResponse {
+  private final int status;
+  private final String statusText;
+  private final HttpHeaders headers;
+  private final byte[] body;
+  private final int length;
+
+  BufferedResponse(int status, String statusText, HttpHeaders headers, byte[] body, int length) {
+    this.status = status;
+    this.statusText = statusText;
+    this.headers = headers;
+    this.body = body;
+    this.length = length;
+  }
+
+  @Override
+  public HttpStatus getStatusCode() {
+    return HttpStatus.valueOf(status);
+  }
+
+  @Override
+  public int getRawStatusCode() {
+    return status;
+  }
+
+  @Override
+  public String getStatusText() {
+    return statusText;
+  }
+
+  @Override
+  public HttpHeaders getHeaders() {
+    return headers;
+  }
+
+  @Override
+  public InputStream getBody() {
+    return new ByteArrayInputStream(body, 0, length);
+  }
+
+  @Override
+  public void close() {
+  }
+}
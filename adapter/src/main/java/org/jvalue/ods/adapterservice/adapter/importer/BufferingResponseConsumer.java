@@ -0,0 +1,109 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Buffers the body of a response in memory as it arrives, on the I/O thread of the non-blocking HTTP client. The
+ * response fails once its body exceeds the maximum body size. A consumer that only needs the first bytes of the body
+ * (e.g. for a preview) completes as soon as it has them and the rest of the body is discarded with the connection.
+ * Bodies with a content coding are always buffered completely, as they can only be decoded as a whole.
+ */
+class BufferingResponseConsumer extends AbstractAsyncResponseConsumer<BufferedResponse> {
+  private final CompletableFuture<BufferedResponse> result = new CompletableFuture<>();
+  private final ByteBuffer chunk = ByteBuffer.allocate(8192);
+  private final Body body = new Body();
+  private final long maxBodySize;
+  private Long stopAfter;
+  private HttpResponse response;
+
+  /**
+   * @param maxBodySize the maximum size of the body
+   * @param stopAfter   the number of bytes after which the consumer may stop, null to buffer the whole body
+   */
+  BufferingResponseConsumer(long maxBodySize, Long stopAfter) {
+    this.maxBodySize = maxBodySize;
+    this.stopAfter = stopAfter;
+  }
+
+  /**
+   * @return the future response, which completes early once the consumer stopped, otherwise it has to be completed by
+   * the callback of the request
+   */
+  CompletableFuture<BufferedResponse> getResponse() {
+    return result;
+  }
+
+  @Override
+  protected void onResponseReceived(HttpResponse response) {
+    this.response = response;
+    Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+    if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.getValue().trim())) {
+      stopAfter = null;
+    }
+  }
+
+  @Override
+  protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws ImportLimitExceededException {
+    if (entity.getContentLength() > maxBodySize) {
+      throw exceeded();
+    }
+  }
+
+  @Override
+  protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+    while (decoder.read(chunk) > 0) {
+      if (body.size() + (long) chunk.position() > maxBodySize) {
+        throw exceeded();
+      }
+      body.write(chunk.array(), 0, chunk.position());
+      chunk.clear();
+      if (stopAfter != null && body.size() >= stopAfter) {
+        result.complete(buildResult(null));
+        // marks the consumer as done, so the client discards the connection instead of reading the rest of the body
+        cancel();
+        return;
+      }
+    }
+  }
+
+  @Override
+  protected BufferedResponse buildResult(HttpContext context) {
+    HttpHeaders headers = new HttpHeaders();
+    for (Header header : response.getAllHeaders()) {
+      headers.add(header.getName(), header.getValue());
+    }
+    return new BufferedResponse(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(),
+      headers, body.buffer(), body.size());
+  }
+
+  @Override
+  protected void releaseResources() {
+  }
+
+  private ImportLimitExceededException exceeded() {
+    return new ImportLimitExceededException("Imported data exceeds the maximum size of " + maxBodySize + " bytes");
+  }
+
+  /**
+   * Buffer whose content is passed on without copying it.
+   */
+  private static class Body extends ByteArrayOutputStream {
+    byte[] buffer() {
+      return buf;
+    }
+  }
+}
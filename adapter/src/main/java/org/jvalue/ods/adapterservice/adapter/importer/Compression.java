@@ -0,0 +1,55 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression formats of fetched files. The data is decompressed while it is read, it is never held in memory as a whole.
+ */
+public enum Compression {
+  NONE {
+    @Override
+    public InputStream decompress(InputStream compressed) {
+      return compressed;
+    }
+  },
+  GZIP {
+    @Override
+    public InputStream decompress(InputStream compressed) throws IOException {
+      return new GZIPInputStream(compressed, BUFFER_SIZE);
+    }
+  },
+  BZIP2 {
+    @Override
+    public InputStream decompress(InputStream compressed) throws IOException {
+      return new BZip2CompressorInputStream(compressed, true);
+    }
+  },
+  /**
+   * Zip archive, of which the first file is imported.
+   */
+  ZIP {
+    @Override
+    public InputStream decompress(InputStream compressed) throws IOException {
+      ZipInputStream archive = new ZipInputStream(compressed);
+      ZipEntry entry = archive.getNextEntry();
+      while (entry != null && entry.isDirectory()) {
+        entry = archive.getNextEntry();
+      }
+      if (entry == null) {
+        archive.close();
+        throw new IOException("Zip archive does not contain a file");
+      }
+      return archive;
+    }
+  };
+
+  private static final int BUFFER_SIZE = 8192;
+
+  public abstract InputStream decompress(InputStream compressed) throws IOException;
+}
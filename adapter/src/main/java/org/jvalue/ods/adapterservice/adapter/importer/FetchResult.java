@@ -0,0 +1,38 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Result of a conditional fetch: either the data of a changed source or only the information that it did not change.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FetchResult implements Closeable {
+  private final InputStream data;
+  private final SourceVersion version;
+
+  public static FetchResult modified(InputStream data, SourceVersion version) {
+    return new FetchResult(data, version);
+  }
+
+  public static FetchResult notModified(SourceVersion version) {
+    return new FetchResult(null, version);
+  }
+
+  public boolean isModified() {
+    return data != null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (data != null) {
+      data.close();
+    }
+  }
+}
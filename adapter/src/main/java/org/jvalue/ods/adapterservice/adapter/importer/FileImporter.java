@@ -0,0 +1,116 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports files from a local directory, e.g. a shared volume other jobs drop their exports onto.
+ * Only files within the configured base directory can be imported, FILE imports are disabled without one.
+ */
+@Component
+public class FileImporter extends Importer {
+
+  private final List<ImporterParameterDescription> parameters = List.of(
+      new ImporterParameterDescription("location", "Path of the file, relative to the base directory of the adapter",
+          String.class),
+      new ImporterParameterDescription("encoding",
+          "Encoding of the source. Available encodings: ISO-8859-1, US-ASCII, UTF-8", String.class),
+      new ImporterParameterDescription("compression",
+          "Compression of the file. Available compressions: NONE, GZIP, BZIP2, ZIP (first file of the archive)",
+          false, String.class),
+      MAX_BODY_SIZE);
+  private final String baseDirectory;
+
+  public FileImporter(AdapterProperties properties) {
+    this.baseDirectory = properties.getFile().getBaseDirectory();
+  }
+
+  @Override
+  public String getType() {
+    return "FILE";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Local file";
+  }
+
+  @Override
+  public List<ImporterParameterDescription> getAvailableParameters() {
+    return parameters;
+  }
+
+  @Override
+  protected void validateParameters(Map<String, Object> inputParameters) throws ImporterParameterException {
+    super.validateParameters(inputParameters);
+
+    String encoding = (String) inputParameters.get("encoding");
+    if (!encoding.equals(StandardCharsets.ISO_8859_1.name()) && !encoding.equals(StandardCharsets.US_ASCII.name()) && !encoding.equals(StandardCharsets.UTF_8.name())) {
+      throw new ImporterParameterException(getType() + " importer requires parameter encoding to have value " +
+        StandardCharsets.ISO_8859_1 + ", " +
+        StandardCharsets.US_ASCII + ", " +
+        StandardCharsets.UTF_8
+        + ". Your given value " + encoding + " is invalid!");
+    }
+
+    Object compression = inputParameters.get("compression");
+    if (compression != null) {
+      try {
+        Compression.valueOf(compression.toString());
+      } catch (IllegalArgumentException e) {
+        throw new ImporterParameterException(getType() + " importer requires parameter compression to have one of the values " +
+          Arrays.toString(Compression.values()) + ". Your given value " + compression + " is invalid!");
+      }
+    }
+  }
+
+  @Override
+  protected InputStream doFetch(Map<String, Object> parameters) throws ImporterParameterException, IOException {
+    Path file = resolve(parameters.get("location").toString());
+
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    InputStream data = new MappedFileInputStream(channel);
+    try {
+      Object compression = parameters.get("compression");
+      if (compression != null) {
+        data = Compression.valueOf(compression.toString()).decompress(data);
+      }
+    } catch (IOException | RuntimeException e) {
+      data.close();
+      throw e;
+    }
+    Charset encoding = Charset.forName((String) parameters.get("encoding"));
+    return encoding.equals(StandardCharsets.UTF_8) ? data : new Utf8TranscodingInputStream(data, encoding);
+  }
+
+  private Path resolve(String location) throws ImporterParameterException, IOException {
+    if (baseDirectory == null) {
+      throw new ImporterParameterException(getType() + " imports are disabled, adapter.file.base_directory is not set");
+    }
+    Path base = Path.of(baseDirectory).toRealPath();
+    Path file;
+    try {
+      // the real path resolves symbolic links, so they can not point out of the base directory either
+      file = base.resolve(location).toRealPath();
+    } catch (InvalidPathException e) {
+      throw new ImporterParameterException(e.getMessage());
+    }
+    if (!file.startsWith(base)) {
+      throw new ImporterParameterException(location + " is outside of the base directory of the " + getType() + " importer");
+    }
+    return file;
+  }
+}
@@ -0,0 +1,99 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stops requests to a host after a number of consecutive failures, so imports from a host that is down fail fast
+ * instead of waiting for timeouts. After the open duration a single trial request is let through, which closes the
+ * circuit again on success. A trial whose outcome is not reported within the open duration is given up, so the next
+ * request becomes the trial.
+ */
+@Component
+public class HostCircuitBreaker {
+
+  private final int failureThreshold;
+  private final long openDuration;
+  private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  public HostCircuitBreaker(AdapterProperties properties) {
+    this.failureThreshold = properties.getHttp().getCircuitFailureThreshold();
+    this.openDuration = properties.getHttp().getCircuitOpenDuration().toNanos();
+  }
+
+  /**
+   * @return true, if a request to the host of the given URI may be sent. The outcome of such a request has to be
+   * reported by {@link #recordSuccess(URI)} or {@link #recordFailure(URI)}.
+   */
+  public boolean tryPass(URI uri) {
+    return circuit(uri).tryPass(System.nanoTime());
+  }
+
+  public void recordSuccess(URI uri) {
+    circuit(uri).recordSuccess();
+  }
+
+  public void recordFailure(URI uri) {
+    circuit(uri).recordFailure(System.nanoTime());
+  }
+
+  /**
+   * Gives up the trial request to the host of the given URI without an outcome (e.g. because the request was aborted),
+   * so the next request becomes the trial.
+   */
+  public void releaseTrial(URI uri) {
+    circuit(uri).releaseTrial();
+  }
+
+  public Duration getOpenDuration() {
+    return Duration.ofNanos(openDuration);
+  }
+
+  private Circuit circuit(URI uri) {
+    return circuits.computeIfAbsent(uri.getHost() == null ? "" : uri.getHost(), host -> new Circuit());
+  }
+
+  private class Circuit {
+    private int consecutiveFailures;
+    private boolean open;
+    private long openUntil;
+    private boolean trialInFlight;
+    private long trialStartedAt;
+
+    synchronized boolean tryPass(long now) {
+      if (!open) {
+        return true;
+      }
+      if (now - openUntil < 0 || (trialInFlight && now - trialStartedAt - openDuration < 0)) {
+        return false;
+      }
+      trialInFlight = true;
+      trialStartedAt = now;
+      return true;
+    }
+
+    synchronized void recordSuccess() {
+      consecutiveFailures = 0;
+      open = false;
+      trialInFlight = false;
+    }
+
+    synchronized void releaseTrial() {
+      trialInFlight = false;
+    }
+
+    synchronized void recordFailure(long now) {
+      consecutiveFailures++;
+      if (trialInFlight || consecutiveFailures >= failureThreshold) {
+        open = true;
+        openUntil = now + openDuration;
+        trialInFlight = false;
+      }
+    }
+  }
+}
@@ -0,0 +1,325 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the requests the importers send to a single host, by a token bucket for the request rate and a bulkhead for
+ * the number of concurrent requests. Requests over the limits wait for their turn instead of failing, at most until
+ * the deadline of their import.
+ * The default limits apply to all requests to a host. Datasources that override the limits additionally share a
+ * separate budget per host and combination of limits, so overrides can only restrict their own requests further.
+ * Budgets that have been idle for a while are removed.
+ */
+@Component
+public class HostLimiter {
+  // idle budgets are removed once their token bucket is full again, so removing them does not reset any limit
+  private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(5);
+  // asynchronous requests poll for a free request slot instead of blocking a thread in the queue of the host
+  private static final long SLOT_POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final Limits defaultLimits;
+  private final MeterRegistry meterRegistry;
+  private final Map<HostKey, HostBudget> budgets = new ConcurrentHashMap<>();
+  private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+  public HostLimiter(AdapterProperties properties, MeterRegistry meterRegistry) {
+    this.defaultLimits = new Limits(properties.getHttp().getRateLimit(),
+      properties.getHttp().getMaxConcurrentRequestsPerHost());
+    this.meterRegistry = meterRegistry;
+  }
+
+  public Limits getDefaultLimits() {
+    return defaultLimits;
+  }
+
+  /**
+   * Waits until a request to the host of the given URI is allowed. A request that does not get its turn before the
+   * deadline does not use up any of the budgets of the host.
+   *
+   * @param uri      the URI of the request
+   * @param limits   the limits of the request, in addition to the default limits of the host
+   * @param deadline the {@link System#nanoTime()} until which the request may wait
+   * @return the permit of the request, which has to be closed once the request (including its response) is done
+   * @throws SocketTimeoutException if the request would have to wait past the deadline
+   * @throws InterruptedIOException if the thread is interrupted while waiting
+   */
+  public Permit acquire(URI uri, Limits limits, long deadline) throws SocketTimeoutException, InterruptedIOException {
+    String host = uri.getHost() == null ? "" : uri.getHost();
+    long start = System.nanoTime();
+    evictIdleBudgets(start);
+
+    HostBudget hostBudget = use(new HostKey(host, defaultLimits));
+    List<HostBudget> used = limits.equals(defaultLimits)
+      ? List.of(hostBudget) : List.of(hostBudget, use(new HostKey(host, limits)));
+    Permit permit = new Permit(used);
+    int tokens = 0;
+    try {
+      long wait = 0;
+      for (; tokens < used.size(); tokens++) {
+        wait = Math.max(wait, used.get(tokens).reserveToken(start));
+      }
+      if (start + wait - deadline > 0) {
+        throw new SocketTimeoutException("Rate limit of host " + host + " does not allow a request before the deadline");
+      }
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+      for (HostBudget budget : used) {
+        if (!budget.concurrentRequests.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+          throw new SocketTimeoutException("No request slot of host " + host + " became free before the deadline");
+        }
+        permit.slots++;
+      }
+      return permit;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(permit, tokens);
+      throw new InterruptedIOException("Interrupted while waiting for a request slot of host " + host);
+    } catch (SocketTimeoutException | RuntimeException e) {
+      fail(permit, tokens);
+      throw e;
+    } finally {
+      hostBudget.queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Waits like {@link #acquire(URI, Limits, long)}, but without holding a thread. Asynchronous requests do not queue
+   * for a request slot, they take the next free one they find.
+   *
+   * @param uri      the URI of the request
+   * @param limits   the limits of the request, in addition to the default limits of the host
+   * @param deadline the {@link System#nanoTime()} until which the request may wait
+   * @return the future permit of the request, which fails with a {@link SocketTimeoutException} if the request would
+   * have to wait past the deadline. Cancelling the future gives up waiting.
+   */
+  public CompletableFuture<Permit> acquireAsync(URI uri, Limits limits, long deadline) {
+    String host = uri.getHost() == null ? "" : uri.getHost();
+    long start = System.nanoTime();
+    evictIdleBudgets(start);
+
+    HostBudget hostBudget = use(new HostKey(host, defaultLimits));
+    List<HostBudget> used = limits.equals(defaultLimits)
+      ? List.of(hostBudget) : List.of(hostBudget, use(new HostKey(host, limits)));
+    Permit permit = new Permit(used);
+    long wait = 0;
+    for (HostBudget budget : used) {
+      wait = Math.max(wait, budget.reserveToken(start));
+    }
+
+    CompletableFuture<Permit> result = new CompletableFuture<>();
+    result.whenComplete((acquired, error) -> {
+      hostBudget.queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      if (error != null) {
+        synchronized (permit) {
+          fail(permit, used.size());
+        }
+      }
+    });
+    if (start + wait - deadline > 0) {
+      result.completeExceptionally(new SocketTimeoutException("Rate limit of host " + host +
+        " does not allow a request before the deadline"));
+      return result;
+    }
+    CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+      .execute(() -> acquireSlots(permit, host, deadline, result));
+    return result;
+  }
+
+  /**
+   * Takes the free request slots of the budgets of a permit and polls for the others until the deadline.
+   */
+  private static void acquireSlots(Permit permit, String host, long deadline, CompletableFuture<Permit> result) {
+    // a cancelled request must not take any further slots, they would not be released
+    synchronized (permit) {
+      if (result.isDone()) {
+        return;
+      }
+      while (permit.slots < permit.budgets.size()
+          && permit.budgets.get(permit.slots).concurrentRequests.tryAcquire()) {
+        permit.slots++;
+      }
+      if (permit.slots == permit.budgets.size()) {
+        result.complete(permit);
+        return;
+      }
+    }
+    if (System.nanoTime() + SLOT_POLL_INTERVAL - deadline > 0) {
+      result.completeExceptionally(new SocketTimeoutException("No request slot of host " + host +
+        " became free before the deadline"));
+      return;
+    }
+    CompletableFuture.delayedExecutor(SLOT_POLL_INTERVAL, TimeUnit.NANOSECONDS)
+      .execute(() -> acquireSlots(permit, host, deadline, result));
+  }
+
+  /**
+   * Refunds the reserved tokens of a request that was not sent and releases its budgets.
+   */
+  private static void fail(Permit permit, int reservedTokens) {
+    for (int i = 0; i < reservedTokens; i++) {
+      permit.budgets.get(i).refundToken();
+    }
+    permit.close();
+  }
+
+  /**
+   * @return the budget of the given key, which is not removed until it is released
+   */
+  private HostBudget use(HostKey key) {
+    return budgets.compute(key, (ignored, budget) -> {
+      if (budget == null) {
+        // the wait of a request is recorded once per host, by the budget of the default limits
+        Timer queueWait = key.limits.equals(defaultLimits) ? Timer.builder("adapter.http.host.queue.wait")
+          .description("Time requests waited for the rate limit and the concurrency limit of their host")
+          .tag("host", key.host)
+          .register(meterRegistry) : null;
+        budget = new HostBudget(key.limits, queueWait);
+      }
+      budget.users.incrementAndGet();
+      return budget;
+    });
+  }
+
+  /**
+   * Removes the budgets that have not been used since the idle timeout, at most once per timeout.
+   */
+  void evictIdleBudgets(long now) {
+    long last = lastEviction.get();
+    if (now - last < IDLE_TIMEOUT || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    for (HostKey key : budgets.keySet()) {
+      budgets.computeIfPresent(key, (ignored, budget) -> {
+        if (!budget.isIdle(now)) {
+          return budget;
+        }
+        if (budget.queueWait != null) {
+          meterRegistry.remove(budget.queueWait);
+        }
+        return null;
+      });
+    }
+  }
+
+  @Value
+  public static class Limits {
+    // requests per second, unlimited if not positive
+    double rateLimit;
+    int maxConcurrentRequests;
+  }
+
+  public static class Permit implements Closeable {
+    private final List<HostBudget> budgets;
+    private final AtomicBoolean released = new AtomicBoolean();
+    // the number of budgets whose request slot was acquired
+    private int slots;
+
+    private Permit(List<HostBudget> budgets) {
+      this.budgets = budgets;
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        for (int i = 0; i < budgets.size(); i++) {
+          budgets.get(i).release(i < slots);
+        }
+      }
+    }
+  }
+
+  @Value
+  private static class HostKey {
+    String host;
+    Limits limits;
+  }
+
+  private static class HostBudget {
+    private final Semaphore concurrentRequests;
+    // null for the budgets of overridden limits
+    private final Timer queueWait;
+    private final double tokensPerNano;
+    private final double capacity;
+    // requests that currently wait for or hold the budget
+    private final AtomicInteger users = new AtomicInteger();
+    private volatile long lastUsed = System.nanoTime();
+    private double tokens;
+    private long lastRefill;
+
+    HostBudget(Limits limits, Timer queueWait) {
+      this.concurrentRequests = new Semaphore(limits.maxConcurrentRequests, true);
+      this.queueWait = queueWait;
+      this.tokensPerNano = limits.rateLimit / TimeUnit.SECONDS.toNanos(1);
+      // allows bursts of up to one second worth of requests
+      this.capacity = Math.max(1, limits.rateLimit);
+      this.tokens = capacity;
+      this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from the bucket, possibly ahead of time.
+     *
+     * @return the nanoseconds to wait until the token is available
+     */
+    synchronized long reserveToken(long now) {
+      if (tokensPerNano <= 0) {
+        return 0;
+      }
+      refill(now);
+      tokens -= 1;
+      return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /**
+     * Returns the token of a request that was not sent.
+     */
+    synchronized void refundToken() {
+      if (tokensPerNano > 0) {
+        refill(System.nanoTime());
+        tokens = Math.min(capacity, tokens + 1);
+      }
+    }
+
+    private void refill(long now) {
+      if (now > lastRefill) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+      }
+    }
+
+    void release(boolean slotAcquired) {
+      if (slotAcquired) {
+        concurrentRequests.release();
+      }
+      lastUsed = System.nanoTime();
+      users.decrementAndGet();
+    }
+
+    synchronized boolean isIdle(long now) {
+      if (users.get() > 0 || now - lastUsed < IDLE_TIMEOUT) {
+        return false;
+      }
+      refill(now);
+      return tokensPerNano <= 0 || tokens >= capacity;
+    }
+  }
+}
@@ -1,18 +1,58 @@
 package org.jvalue.ods.adapterservice.adapter.importer;
 
-import lombok.AllArgsConstructor;
-
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionReleaseTrigger;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.jvalue.ods.adapterservice.datasource.model.IncrementalConfig;
 import org.jvalue.ods.adapterservice.datasource.model.RuntimeParameters;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
-@AllArgsConstructor
+@Component
 public class HttpImporter extends Importer {
 
   private final List<ImporterParameterDescription> parameters = List.of(
@@ -20,8 +60,60 @@ public class HttpImporter extends Importer {
       new ImporterParameterDescription("encoding",
           "Encoding of the source. Available encodings: ISO-8859-1, US-ASCII, UTF-8", String.class),
       new ImporterParameterDescription("defaultParameters", "Default values for open parameters in the URI", false,
-          RuntimeParameters.class));
-  private final RestTemplate restTemplate;
+          RuntimeParameters.class),
+      new ImporterParameterDescription("compression",
+          "Compression of the fetched file. Available compressions: NONE, GZIP, BZIP2, ZIP (first file of the archive)",
+          false, String.class),
+      new ImporterParameterDescription("pagination",
+          "Follows the pages of a paginated JSON source (type LINK, OFFSET or CURSOR) and merges their records into one array",
+          false, Pagination.class),
+      new ImporterParameterDescription("parallelRanges",
+          "Number of byte ranges of a large source fetched in parallel, if the server supports range requests",
+          false, Integer.class),
+      new ImporterParameterDescription("rateLimit",
+          "Maximum requests per second to the host of the source, overrides the default of the adapter",
+          false, Double.class),
+      new ImporterParameterDescription("maxConcurrentRequests",
+          "Maximum concurrent requests to the host of the source, overrides the default of the adapter",
+          false, Integer.class),
+      new ImporterParameterDescription("incremental",
+          "Where the built-in URI parameters {maxId} (idPointer, within each record) and {cursor} (cursorPointer) of the next import of a datasource are found in the interpreted data",
+          false, IncrementalConfig.class),
+      MAX_BODY_SIZE);
+  private final ResponseErrorHandler errorHandler = new DefaultResponseErrorHandler();
+  private final ObjectMapper mapper = new ObjectMapper();
+  // fetches pages and ranges ahead of the reader, the per-import parallelism is bounded by the importer parameters
+  private final ExecutorService executor = Executors.newCachedThreadPool(threadFactory());
+  private final ClientHttpRequestFactory requestFactory;
+  private final HttpAsyncClient asyncClient;
+  private final HostLimiter hostLimiter;
+  private final HostCircuitBreaker circuitBreaker;
+  private final Duration totalTimeout;
+  private final DataSize defaultMaxBodySize;
+  private final long rangeSize;
+  private final int rangeRetries;
+  private final int retryAttempts;
+  private final long retryInitialBackoff;
+  private final long retryMaxBackoff;
+
+  public HttpImporter(ClientHttpRequestFactory requestFactory, HttpAsyncClient asyncClient, HostLimiter hostLimiter,
+                      HostCircuitBreaker circuitBreaker, AdapterProperties properties) {
+    this.requestFactory = requestFactory;
+    this.asyncClient = asyncClient;
+    this.hostLimiter = hostLimiter;
+    this.circuitBreaker = circuitBreaker;
+    this.totalTimeout = properties.getHttp().getTotalTimeout();
+    this.defaultMaxBodySize = properties.getLimits().getMaxBodySize();
+    this.rangeSize = properties.getHttp().getRangeSize().toBytes();
+    if (rangeSize < 1 || rangeSize > RangedInputStream.MAX_RANGE_SIZE) {
+      throw new IllegalArgumentException("adapter.http.range_size has to be between 1B and " +
+        RangedInputStream.MAX_RANGE_SIZE + "B. Your given value " + properties.getHttp().getRangeSize() + " is invalid!");
+    }
+    this.rangeRetries = properties.getHttp().getRangeRetries();
+    this.retryAttempts = properties.getHttp().getRetryAttempts();
+    this.retryInitialBackoff = properties.getHttp().getRetryInitialBackoff().toNanos();
+    this.retryMaxBackoff = properties.getHttp().getRetryMaxBackoff().toNanos();
+  }
 
   @Override
   public String getType() {
@@ -45,6 +137,58 @@ public class HttpImporter extends Importer {
         StandardCharsets.UTF_8
         + ". Your given value " + encoding + " is invalid!");
     }
+
+    Object compression = inputParameters.get("compression");
+    if (compression != null) {
+      try {
+        Compression.valueOf(compression.toString());
+      } catch (IllegalArgumentException e) {
+        throw new ImporterParameterException(getType() + " importer requires parameter compression to have one of the values " +
+          Arrays.toString(Compression.values()) + ". Your given value " + compression + " is invalid!");
+      }
+    }
+
+    if (inputParameters.get("pagination") != null) {
+      validatePagination(getPagination(inputParameters));
+    }
+
+    if (inputParameters.get("incremental") != null) {
+      validateIncremental(inputParameters.get("incremental"));
+    }
+
+    Object parallelRanges = inputParameters.get("parallelRanges");
+    if (parallelRanges != null && (!(parallelRanges instanceof Integer) || (Integer) parallelRanges < 1)) {
+      throw new ImporterParameterException(getType() + " importer requires parameter parallelRanges to be a positive " +
+        "integer. Your given value " + parallelRanges + " is invalid!");
+    }
+
+    Object rateLimit = inputParameters.get("rateLimit");
+    if (rateLimit != null && (!(rateLimit instanceof Number) || ((Number) rateLimit).doubleValue() <= 0)) {
+      throw new ImporterParameterException(getType() + " importer requires parameter rateLimit to be a positive " +
+        "number. Your given value " + rateLimit + " is invalid!");
+    }
+    Object maxConcurrentRequests = inputParameters.get("maxConcurrentRequests");
+    if (maxConcurrentRequests != null && (!(maxConcurrentRequests instanceof Integer) || (Integer) maxConcurrentRequests < 1)) {
+      throw new ImporterParameterException(getType() + " importer requires parameter maxConcurrentRequests to be a " +
+        "positive integer. Your given value " + maxConcurrentRequests + " is invalid!");
+    }
+  }
+
+  private void validatePagination(Pagination pagination) throws ImporterParameterException {
+    if (pagination.getType() == null) {
+      throw new ImporterParameterException(getType() + " importer requires the pagination type to be one of " +
+        Arrays.toString(Pagination.Type.values()));
+    }
+    if (pagination.getMaxPages() < 1 || pagination.getLimit() < 1 || pagination.getParallelism() < 1) {
+      throw new ImporterParameterException(getType() + " importer requires maxPages, limit and parallelism of the " +
+        "pagination to be positive");
+    }
+    try {
+      JsonPointer.compile(pagination.getRecordsPointer());
+      JsonPointer.compile(pagination.getCursorPointer());
+    } catch (IllegalArgumentException e) {
+      throw new ImporterParameterException("Invalid JSON pointer in pagination: " + e.getMessage());
+    }
   }
 
   @Override
@@ -53,14 +197,583 @@ public class HttpImporter extends Importer {
   }
 
   @Override
-  protected String doFetch(Map<String, Object> parameters) throws ImporterParameterException {
+  protected InputStream doFetch(Map<String, Object> parameters) throws ImporterParameterException, IOException {
+    return doFetchIfModified(parameters, SourceVersion.UNKNOWN).getData();
+  }
+
+  @Override
+  protected FetchResult doFetchIfModified(Map<String, Object> parameters, SourceVersion knownVersion)
+      throws ImporterParameterException, IOException {
     String location = parameters.get("location").toString();
+    URI uri;
     try {
-      URI uri = URI.create(location);
-      byte[] rawResponse = restTemplate.getForEntity(uri, byte[].class).getBody();
-      return new String(rawResponse, Charset.forName((String) parameters.get("encoding")));
+      uri = URI.create(location);
     } catch (IllegalArgumentException e) {
       throw new ImporterParameterException(e.getMessage());
     }
+
+    long deadline = System.nanoTime() + totalTimeout.toNanos();
+    if (parameters.get("pagination") != null) {
+      // pages are not versioned as a whole, so paginated sources are always fetched
+      Pagination pagination = getPagination(parameters);
+      // bounds every single page as well, as pages are buffered before the size of the whole data is checked
+      long maxBodySize = getMaxBodySize(parameters, defaultMaxBodySize);
+      PaginatedInputStream.PageFetcher fetcher = pageUri -> fetchPage(pageUri, parameters, maxBodySize, deadline);
+      return FetchResult.modified(new PaginatedInputStream(uri, pagination, fetcher, executor), SourceVersion.UNKNOWN);
+    }
+    if (parameters.get("parallelRanges") != null) {
+      FetchResult ranged = fetchRanges(uri, parameters, knownVersion, deadline);
+      if (ranged != null) {
+        return ranged;
+      }
+    }
+
+    ClientHttpResponse response = execute(uri, HttpMethod.GET,
+      headers -> setConditionalHeaders(headers, location, knownVersion), parameters, deadline);
+    try {
+      if (response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+        response.close();
+        return FetchResult.notModified(knownVersion);
+      }
+      if (errorHandler.hasError(response)) {
+        errorHandler.handleError(uri, HttpMethod.GET, response);
+      }
+      SourceVersion version = new SourceVersion(location,
+        response.getHeaders().getETag(), response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+      return FetchResult.modified(decode(new ResponseBodyInputStream(response, deadline),
+        response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), parameters), version);
+    } catch (IOException | RuntimeException e) {
+      response.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean canFetchAsync(Map<String, Object> parameters) {
+    // pages and ranges are fetched ahead of a blocking reader
+    return parameters.get("pagination") == null && parameters.get("parallelRanges") == null;
+  }
+
+  @Override
+  protected CompletableFuture<FetchResult> doFetchAsync(Map<String, Object> parameters, SourceVersion knownVersion,
+                                                        long maxBodySize, Long stopAfter) {
+    String location = parameters.get("location").toString();
+    URI uri;
+    try {
+      uri = URI.create(location);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(new ImporterParameterException(e.getMessage()));
+    }
+
+    // a compressed body can only be decompressed as a whole
+    Long stopAfterBody = getCompression(parameters) == Compression.NONE ? stopAfter : null;
+    CompletableFuture<BufferedResponse> response = executeAsync(uri,
+      headers -> setConditionalHeaders(headers, location, knownVersion), parameters, maxBodySize, stopAfterBody);
+    CompletableFuture<FetchResult> result = response.handle((fetched, error) -> {
+      if (error != null) {
+        throw new CompletionException(unwrap(error));
+      }
+      try {
+        if (fetched.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+          return FetchResult.notModified(knownVersion);
+        }
+        if (errorHandler.hasError(fetched)) {
+          errorHandler.handleError(uri, HttpMethod.GET, fetched);
+        }
+        SourceVersion version = new SourceVersion(location,
+          fetched.getHeaders().getETag(), fetched.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+        return FetchResult.modified(decode(fetched.getBody(),
+          fetched.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), parameters), version);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    });
+    // aborts the request once the caller is no longer interested in it, e.g. because its import timed out
+    result.whenComplete((fetched, error) -> {
+      if (error != null) {
+        response.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  private void setConditionalHeaders(HttpHeaders headers, String location, SourceVersion knownVersion) {
+    // the validators are only meaningful for the location they were sent for (e.g. not after a runtime parameter changed)
+    if (knownVersion.isKnown() && location.equals(knownVersion.getLocation())) {
+      if (knownVersion.getEtag() != null) {
+        headers.setIfNoneMatch(knownVersion.getEtag());
+      }
+      if (knownVersion.getLastModified() != null) {
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, knownVersion.getLastModified());
+      }
+    }
+  }
+
+  /**
+   * Downloads the source in parallel byte ranges, if the server supports range requests and the source is larger
+   * than a single range.
+   *
+   * @return the fetch result or null, if the source should be fetched in a single request
+   */
+  private FetchResult fetchRanges(URI uri, Map<String, Object> parameters, SourceVersion knownVersion, long deadline)
+      throws IOException {
+    String location = parameters.get("location").toString();
+    HttpHeaders headers;
+    try (ClientHttpResponse response = execute(uri, HttpMethod.HEAD, requestHeaders -> {
+      // byte offsets have to refer to the unencoded representation
+      requestHeaders.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+      setConditionalHeaders(requestHeaders, location, knownVersion);
+    }, parameters, deadline)) {
+      if (response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+        return FetchResult.notModified(knownVersion);
+      }
+      if (errorHandler.hasError(response)) {
+        errorHandler.handleError(uri, HttpMethod.HEAD, response);
+      }
+      headers = response.getHeaders();
+    }
+
+    long length = headers.getContentLength();
+    if (!"bytes".equalsIgnoreCase(headers.getFirst(HttpHeaders.ACCEPT_RANGES)) || length <= rangeSize) {
+      return null;
+    }
+
+    SourceVersion version = new SourceVersion(location, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+    // If-Range requires a strong validator, it makes sure that all ranges belong to the same version of the source
+    String ifRange = version.getEtag() != null && !version.getEtag().startsWith("W/")
+      ? version.getEtag() : version.getLastModified();
+    RangedInputStream.RangeFetcher fetcher = (first, last) -> openRange(uri, first, last, ifRange, parameters, deadline);
+    InputStream ranges = new RangedInputStream(fetcher, executor, length, rangeSize,
+      (Integer) parameters.get("parallelRanges"), rangeRetries);
+    return FetchResult.modified(decode(ranges, null, parameters), version);
+  }
+
+  private InputStream openRange(URI uri, long first, long last, String ifRange, Map<String, Object> parameters,
+                                long deadline) throws IOException {
+    ClientHttpResponse response = execute(uri, HttpMethod.GET, headers -> {
+      headers.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+      headers.setRange(List.of(HttpRange.createByteRange(first, last)));
+      if (ifRange != null) {
+        headers.set(HttpHeaders.IF_RANGE, ifRange);
+      }
+    }, parameters, deadline);
+    try {
+      if (errorHandler.hasError(response)) {
+        errorHandler.handleError(uri, HttpMethod.GET, response);
+      }
+      if (response.getRawStatusCode() != HttpStatus.PARTIAL_CONTENT.value()) {
+        throw new RestClientException("Source " + uri + " changed or stopped supporting range requests during the import");
+      }
+      return new ResponseBodyInputStream(response, deadline);
+    } catch (IOException | RuntimeException e) {
+      response.close();
+      throw e;
+    }
+  }
+
+  private PaginatedInputStream.FetchedPage fetchPage(URI uri, Map<String, Object> parameters, long maxBodySize,
+                                                     long deadline) throws IOException {
+    try (ClientHttpResponse response = execute(uri, HttpMethod.GET, headers -> { }, parameters, deadline)) {
+      if (errorHandler.hasError(response)) {
+        errorHandler.handleError(uri, HttpMethod.GET, response);
+      }
+      String link = String.join(", ", response.getHeaders().getOrEmpty(HttpHeaders.LINK));
+      try (InputStream body = new SizeLimitedInputStream(decode(new ResponseBodyInputStream(response, deadline),
+          response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), parameters), maxBodySize)) {
+        return new PaginatedInputStream.FetchedPage(body.readAllBytes(), link);
+      }
+    }
+  }
+
+  /**
+   * Executes a request within the limits of its host, retrying it with exponential backoff on I/O errors and transient
+   * error responses (429 and 5xx). The last response is returned even if it is an error, so the caller can handle it.
+   * Requests to a host whose circuit breaker is open fail immediately. A request counts against the concurrency limit
+   * of its host until its response is closed.
+   */
+  private ClientHttpResponse execute(URI uri, HttpMethod method, Consumer<HttpHeaders> headers,
+                                     Map<String, Object> parameters, long deadline) throws IOException {
+    for (int attempt = 1; ; attempt++) {
+      ClientHttpRequest request = requestFactory.createRequest(uri, method);
+      headers.accept(request.getHeaders());
+      HostLimiter.Permit permit = hostLimiter.acquire(uri, getLimits(parameters), deadline);
+      if (!circuitBreaker.tryPass(uri)) {
+        permit.close();
+        throw new ConnectException("Requests to host " + uri.getHost() + " are suspended for " +
+          circuitBreaker.getOpenDuration() + " after repeated failures");
+      }
+
+      ClientHttpResponse response = null;
+      IOException failure = null;
+      try {
+        response = new LimitedResponse(request.execute(), permit);
+      } catch (IOException e) {
+        permit.close();
+        failure = e;
+      } catch (RuntimeException e) {
+        permit.close();
+        circuitBreaker.recordFailure(uri);
+        throw e;
+      }
+
+      if (response != null && !isTransientError(response)) {
+        circuitBreaker.recordSuccess(uri);
+        return response;
+      }
+      circuitBreaker.recordFailure(uri);
+
+      long backoff = backoff(attempt, response);
+      if (attempt >= retryAttempts || System.nanoTime() + backoff - deadline > 0) {
+        if (failure != null) {
+          throw failure;
+        }
+        return response;
+      }
+      if (response != null) {
+        response.close();
+      }
+      try {
+        TimeUnit.NANOSECONDS.sleep(backoff);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting to retry a request to " + uri);
+      }
+    }
+  }
+
+  /**
+   * Executes a request like {@link #execute(URI, HttpMethod, Consumer, Map, long)}, but without holding a thread while
+   * waiting for the limits of its host, the response or the next attempt. The body of the response is buffered, its
+   * request slot of the host is released once the body arrived. Cancelling the future aborts the request.
+   *
+   * @param maxBodySize the maximum size of the body, larger bodies fail without retrying
+   * @param stopAfter   the number of bytes of the body the caller needs, null for the whole body
+   */
+  private CompletableFuture<BufferedResponse> executeAsync(URI uri, Consumer<HttpHeaders> headers,
+                                                           Map<String, Object> parameters, long maxBodySize,
+                                                           Long stopAfter) {
+    CompletableFuture<BufferedResponse> result = new CompletableFuture<>();
+    long deadline = System.nanoTime() + totalTimeout.toNanos();
+    attemptAsync(1, uri, headers, parameters, maxBodySize, stopAfter, deadline, result);
+    // fails with a TimeoutException, see unwrap
+    return result.orTimeout(totalTimeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  private void attemptAsync(int attempt, URI uri, Consumer<HttpHeaders> headers, Map<String, Object> parameters,
+                            long maxBodySize, Long stopAfter, long deadline,
+                            CompletableFuture<BufferedResponse> result) {
+    CompletableFuture<HostLimiter.Permit> acquired = hostLimiter.acquireAsync(uri, getLimits(parameters), deadline);
+    result.whenComplete((response, error) -> acquired.cancel(false));
+    acquired.whenComplete((permit, limited) -> {
+      if (limited != null) {
+        result.completeExceptionally(limited);
+        return;
+      }
+      if (!circuitBreaker.tryPass(uri)) {
+        permit.close();
+        result.completeExceptionally(new ConnectException("Requests to host " + uri.getHost() +
+          " are suspended for " + circuitBreaker.getOpenDuration() + " after repeated failures"));
+        return;
+      }
+
+      CompletableFuture<BufferedResponse> sent = send(uri, headers, maxBodySize, stopAfter);
+      result.whenComplete((response, error) -> sent.cancel(true));
+      sent.whenComplete((response, error) -> {
+        permit.close();
+        Throwable failure = error == null ? null : unwrap(error);
+        if (result.isDone()) {
+          // the import timed out or was aborted, the request is still accounted so a trial does not stay in flight
+          if (response != null && !isTransientError(response.getRawStatusCode())) {
+            circuitBreaker.recordSuccess(uri);
+          } else {
+            circuitBreaker.releaseTrial(uri);
+          }
+          return;
+        }
+        if (failure instanceof ImportLimitExceededException) {
+          // the host answered, the body is just too large
+          circuitBreaker.recordSuccess(uri);
+          result.completeExceptionally(failure);
+          return;
+        }
+        if (failure != null && !(failure instanceof IOException)) {
+          circuitBreaker.recordFailure(uri);
+          result.completeExceptionally(failure);
+          return;
+        }
+        if (response != null && !isTransientError(response.getRawStatusCode())) {
+          circuitBreaker.recordSuccess(uri);
+          result.complete(response);
+          return;
+        }
+        circuitBreaker.recordFailure(uri);
+
+        long backoff = backoff(attempt, response);
+        if (attempt >= retryAttempts || System.nanoTime() + backoff - deadline > 0) {
+          if (failure != null) {
+            result.completeExceptionally(failure);
+          } else {
+            result.complete(response);
+          }
+          return;
+        }
+        CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS).execute(() -> {
+          if (!result.isDone()) {
+            attemptAsync(attempt + 1, uri, headers, parameters, maxBodySize, stopAfter, deadline, result);
+          }
+        });
+      });
+    });
+  }
+
+  /**
+   * Sends a GET request with the non-blocking client. Cancelling the future aborts the request and discards its
+   * connection.
+   */
+  private CompletableFuture<BufferedResponse> send(URI uri, Consumer<HttpHeaders> headers, long maxBodySize,
+                                                   Long stopAfter) {
+    HttpGet request = new HttpGet(uri);
+    HttpHeaders requestHeaders = new HttpHeaders();
+    headers.accept(requestHeaders);
+    requestHeaders.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+
+    BufferingResponseConsumer consumer = new BufferingResponseConsumer(maxBodySize, stopAfter);
+    CompletableFuture<BufferedResponse> result = consumer.getResponse();
+    Future<BufferedResponse> exchange = asyncClient.execute(HttpAsyncMethods.create(request), consumer,
+      new FutureCallback<>() {
+        @Override
+        public void completed(BufferedResponse response) {
+          result.complete(response);
+        }
+
+        @Override
+        public void failed(Exception e) {
+          result.completeExceptionally(e);
+        }
+
+        @Override
+        public void cancelled() {
+          result.cancel(false);
+        }
+      });
+    result.whenComplete((response, error) -> {
+      if (error != null) {
+        exchange.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @return the cause of a failed step of an asynchronous request, a {@link SocketTimeoutException} if the request
+   * exceeded the total timeout
+   */
+  private Throwable unwrap(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    if (cause instanceof TimeoutException) {
+      return new SocketTimeoutException("HTTP import exceeded the total timeout of " + totalTimeout);
+    }
+    return cause;
+  }
+
+  private boolean isTransientError(ClientHttpResponse response) throws IOException {
+    return isTransientError(response.getRawStatusCode());
+  }
+
+  private static boolean isTransientError(int status) {
+    return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+  }
+
+  /**
+   * @return the nanoseconds to wait before the next attempt, growing exponentially with equal jitter, or as requested
+   * by the Retry-After header of the response
+   */
+  private long backoff(int attempt, ClientHttpResponse response) {
+    String retryAfter = response == null ? null : response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+    if (retryAfter != null && retryAfter.matches("\\d+")) {
+      return Math.min(TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter)), retryMaxBackoff);
+    }
+    long exponential = Math.min(retryInitialBackoff << Math.min(attempt - 1, 30), retryMaxBackoff);
+    return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+  }
+
+  private HostLimiter.Limits getLimits(Map<String, Object> parameters) {
+    HostLimiter.Limits defaults = hostLimiter.getDefaultLimits();
+    Object rateLimit = parameters.get("rateLimit");
+    Object maxConcurrentRequests = parameters.get("maxConcurrentRequests");
+    return new HostLimiter.Limits(
+      rateLimit == null ? defaults.getRateLimit() : ((Number) rateLimit).doubleValue(),
+      maxConcurrentRequests == null ? defaults.getMaxConcurrentRequests() : (Integer) maxConcurrentRequests);
+  }
+
+  /**
+   * @param raw             the body of the response
+   * @param contentEncoding the content coding of the response, null if there is none
+   */
+  private InputStream decode(InputStream raw, String contentEncoding, Map<String, Object> parameters)
+      throws IOException {
+    InputStream body = getCompression(parameters).decompress(decodeContent(raw, contentEncoding));
+    Charset encoding = Charset.forName((String) parameters.get("encoding"));
+    return encoding.equals(StandardCharsets.UTF_8) ? body : new Utf8TranscodingInputStream(body, encoding);
+  }
+
+  /**
+   * Decodes the content coding negotiated with the server (gzip, deflate). The HTTP client does not decode it
+   * transparently, so the body can still abort its connection when it gets closed early.
+   */
+  private static InputStream decodeContent(InputStream body, String contentEncoding) throws IOException {
+    String coding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+    switch (coding) {
+      case "":
+      case "identity":
+        return body;
+      case "gzip":
+      case "x-gzip":
+        return Compression.GZIP.decompress(body);
+      case "deflate":
+        return new DeflateInputStream(body);
+      default:
+        throw new IOException("Unsupported content encoding " + contentEncoding);
+    }
+  }
+
+  private void validateIncremental(Object incremental) throws ImporterParameterException {
+    try {
+      IncrementalConfig config = mapper.convertValue(incremental, IncrementalConfig.class);
+      if (config.getIdPointer() != null) {
+        JsonPointer.compile(config.getIdPointer());
+      }
+      if (config.getCursorPointer() != null) {
+        JsonPointer.compile(config.getCursorPointer());
+      }
+    } catch (IllegalArgumentException e) {
+      throw new ImporterParameterException("Invalid incremental: " + e.getMessage());
+    }
+  }
+
+  private Pagination getPagination(Map<String, Object> parameters) throws ImporterParameterException {
+    try {
+      return mapper.convertValue(parameters.get("pagination"), Pagination.class);
+    } catch (IllegalArgumentException e) {
+      throw new ImporterParameterException("Invalid pagination: " + e.getMessage());
+    }
+  }
+
+  private static ThreadFactory threadFactory() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("http-importer-");
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+
+  private Compression getCompression(Map<String, Object> parameters) {
+    Object compression = parameters.get("compression");
+    return compression == null ? Compression.NONE : Compression.valueOf(compression.toString());
+  }
+
+  /**
+   * Response that returns the permit of its request to the host limiter when it gets closed.
+   */
+  private static class LimitedResponse implements ClientHttpResponse {
+    private final ClientHttpResponse response;
+    private final HostLimiter.Permit permit;
+
+    LimitedResponse(ClientHttpResponse response, HostLimiter.Permit permit) {
+      this.response = response;
+      this.permit = permit;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+      return response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return response.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return response.getBody();
+    }
+
+    @Override
+    public void close() {
+      try {
+        response.close();
+      } finally {
+        permit.close();
+      }
+    }
+  }
+
+  /**
+   * Body stream of a response that releases the underlying connection when it gets closed and fails once the
+   * total timeout of the import is exceeded. If it gets closed before the end of the body (e.g. by a preview), the
+   * connection is discarded instead of reading the rest of the body to reuse it. Decoders of compressed bodies stop at
+   * the end of the compressed data without reading the end of the body, so it is checked once more on close.
+   */
+  private class ResponseBodyInputStream extends FilterInputStream {
+    private final ClientHttpResponse response;
+    private final long deadline;
+    private boolean eof;
+
+    ResponseBodyInputStream(ClientHttpResponse response, long deadline) throws IOException {
+      super(response.getBody());
+      this.response = response;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public int read() throws IOException {
+      checkDeadline();
+      int read = super.read();
+      eof = read < 0;
+      return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      checkDeadline();
+      int read = super.read(b, off, len);
+      eof = read < 0;
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        if (!eof && in instanceof ConnectionReleaseTrigger && !isAtEnd()) {
+          ((ConnectionReleaseTrigger) in).abortConnection();
+        }
+        super.close();
+      } finally {
+        response.close();
+      }
+    }
+
+    private boolean isAtEnd() {
+      try {
+        return super.read() < 0;
+      } catch (IOException | RuntimeException e) {
+        return false;
+      }
+    }
+
+    private void checkDeadline() throws SocketTimeoutException {
+      if (System.nanoTime() - deadline > 0) {
+        throw new SocketTimeoutException("HTTP import exceeded the total timeout of " + totalTimeout);
+      }
+    }
   }
 }
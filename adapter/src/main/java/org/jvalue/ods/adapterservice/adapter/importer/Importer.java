@@ -1,15 +1,45 @@
 package org.jvalue.ods.adapterservice.adapter.importer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.springframework.util.unit.DataSize;
 
 public abstract class Importer {
 
+  /**
+   * Parameter of all importers, enforced by the {@link org.jvalue.ods.adapterservice.adapter.Adapter}.
+   */
+  protected static final ImporterParameterDescription MAX_BODY_SIZE = new ImporterParameterDescription("maxBodySize",
+    "Maximum size of the imported data (e.g. 100MB), overrides the default of the adapter", false, String.class);
+
+  /**
+   * @param parameters  the parameters of an import
+   * @param defaultSize the default maximum size of the adapter
+   * @return the maximum size of the imported data, given by the maxBodySize parameter or the default size
+   * @throws ImporterParameterException if the maxBodySize parameter is not a data size
+   */
+  public static long getMaxBodySize(Map<String, Object> parameters, DataSize defaultSize)
+      throws ImporterParameterException {
+    Object maxBodySize = parameters.get(MAX_BODY_SIZE.getName());
+    if (maxBodySize == null) {
+      return defaultSize.toBytes();
+    }
+    try {
+      return DataSize.parse(maxBodySize.toString()).toBytes();
+    } catch (IllegalArgumentException e) {
+      throw new ImporterParameterException("Parameter maxBodySize has to be a data size like 100MB. " +
+        "Your given value " + maxBodySize + " is invalid!");
+    }
+  }
+
   public abstract String getType();
 
   public abstract String getDescription();
@@ -22,12 +52,95 @@ public abstract class Importer {
       .filter(ImporterParameterDescription::isRequired).collect(Collectors.toList());
   }
 
-  public final String fetch(Map<String, Object> parameters) throws ImporterParameterException {
+  /**
+   * Opens the data source described by the given parameters. The returned stream delivers text data UTF-8 encoded
+   * and must be closed by the caller.
+   *
+   * @param parameters the importer parameters
+   * @return a stream of the raw data
+   * @throws ImporterParameterException on errors in the importer parameters
+   * @throws IOException                on errors when opening the data source
+   */
+  public final InputStream fetch(Map<String, Object> parameters) throws ImporterParameterException, IOException {
     validateParameters(parameters);
     return doFetch(parameters);
   }
 
-  protected abstract String doFetch(Map<String, Object> parameters) throws ImporterParameterException;
+  protected abstract InputStream doFetch(Map<String, Object> parameters) throws ImporterParameterException, IOException;
+
+  /**
+   * Opens the data source only if it changed since the given version.
+   * Importers that can not tell whether a source changed always return its data.
+   *
+   * @param parameters   the importer parameters
+   * @param knownVersion the version of the last import, {@link SourceVersion#UNKNOWN} if there is none
+   * @return the data and version of the source, without data if it did not change
+   * @throws ImporterParameterException on errors in the importer parameters
+   * @throws IOException                on errors when opening the data source
+   */
+  public final FetchResult fetchIfModified(Map<String, Object> parameters, SourceVersion knownVersion)
+      throws ImporterParameterException, IOException {
+    validateParameters(parameters);
+    return doFetchIfModified(parameters, knownVersion);
+  }
+
+  /**
+   * Validates the parameters of a prepared import once, see {@link #fetchValidatedIfModified(Map, SourceVersion)}.
+   *
+   * @param parameters the importer parameters
+   * @throws ImporterParameterException on errors in the importer parameters
+   */
+  public final void validate(Map<String, Object> parameters) throws ImporterParameterException {
+    validateParameters(parameters);
+  }
+
+  /**
+   * Opens the data source like {@link #fetchIfModified(Map, SourceVersion)}, but without validating the parameters
+   * again. The parameters have to be validated by {@link #validate(Map)} before, only their location may differ.
+   */
+  public final FetchResult fetchValidatedIfModified(Map<String, Object> parameters, SourceVersion knownVersion)
+      throws ImporterParameterException, IOException {
+    return doFetchIfModified(parameters, knownVersion);
+  }
+
+  /**
+   * @param parameters the importer parameters
+   * @return whether the data source can be fetched by {@link #fetchValidatedAsync(Map, SourceVersion, long, Long)},
+   * without holding a thread while waiting for it
+   */
+  public boolean canFetchAsync(Map<String, Object> parameters) {
+    return false;
+  }
+
+  /**
+   * Fetches the data source like {@link #fetchValidatedIfModified(Map, SourceVersion)}, but without holding a thread
+   * while waiting for it. The data is buffered in memory, so the result does not depend on the source once the future
+   * completed. Cancelling the future aborts the fetch.
+   *
+   * @param parameters   the importer parameters, validated by {@link #validate(Map)} before
+   * @param knownVersion the version of the last import, {@link SourceVersion#UNKNOWN} if there is none
+   * @param maxBodySize  the maximum size of the fetched data, larger data fails with an
+   *                     {@link org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException}
+   * @param stopAfter    the number of bytes the caller reads (e.g. for a preview), null to fetch the whole data
+   * @return the future data and version of the source
+   * @throws UnsupportedOperationException if the importer can not fetch the source asynchronously, see
+   *                                       {@link #canFetchAsync(Map)}
+   */
+  public final CompletableFuture<FetchResult> fetchValidatedAsync(Map<String, Object> parameters,
+                                                                  SourceVersion knownVersion, long maxBodySize,
+                                                                  Long stopAfter) {
+    return doFetchAsync(parameters, knownVersion, maxBodySize, stopAfter);
+  }
+
+  protected CompletableFuture<FetchResult> doFetchAsync(Map<String, Object> parameters, SourceVersion knownVersion,
+                                                        long maxBodySize, Long stopAfter) {
+    throw new UnsupportedOperationException(getType() + " importer can not fetch data sources asynchronously");
+  }
+
+  protected FetchResult doFetchIfModified(Map<String, Object> parameters, SourceVersion knownVersion)
+      throws ImporterParameterException, IOException {
+    return FetchResult.modified(doFetch(parameters), SourceVersion.UNKNOWN);
+  }
 
   protected void validateParameters(Map<String, Object> inputParameters) throws ImporterParameterException {
     boolean illegalArguments = false;
@@ -0,0 +1,83 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file through memory mappings of the file channel, so the file content is paged in by the operating system
+ * instead of being copied into heap buffers first. Large files are mapped in consecutive segments.
+ */
+class MappedFileInputStream extends InputStream {
+
+  private static final long SEGMENT_SIZE = 1L << 30;
+
+  private final FileChannel channel;
+  private final long size;
+  private long segmentStart;
+  private MappedByteBuffer segment;
+
+  MappedFileInputStream(FileChannel channel) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextSegmentIfExhausted()) {
+      return -1;
+    }
+    return segment.get() & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextSegmentIfExhausted()) {
+      return -1;
+    }
+    int count = Math.min(len, segment.remaining());
+    segment.get(b, off, count);
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && nextSegmentIfExhausted()) {
+      int count = (int) Math.min(n - skipped, segment.remaining());
+      segment.position(segment.position() + count);
+      skipped += count;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return segment == null ? (int) Math.min(size, Integer.MAX_VALUE) : segment.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    // the mappings stay valid until they are garbage collected, closing the channel does not unmap them
+    segment = null;
+    channel.close();
+  }
+
+  private boolean nextSegmentIfExhausted() throws IOException {
+    if (segment != null && segment.hasRemaining()) {
+      return true;
+    }
+    if (segment != null) {
+      segmentStart += segment.capacity();
+    }
+    if (segmentStart >= size) {
+      return false;
+    }
+    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(SEGMENT_SIZE, size - segmentStart));
+    return true;
+  }
+}
@@ -0,0 +1,268 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Merges the records of all pages of a paginated JSON source into one JSON array. Pages are fetched on demand while
+ * the stream is read, so only the pages in flight are held in memory. OFFSET pages are fetched ahead concurrently
+ * but delivered in order.
+ */
+class PaginatedInputStream extends InputStream {
+
+  private static final Pattern LINK = Pattern.compile("<([^>]*)>([^<]*)");
+  private static final Pattern REL = Pattern.compile(";\\s*rel\\s*=\\s*\"?([^\";,]*)\"?", Pattern.CASE_INSENSITIVE);
+  private static final byte[] EMPTY = new byte[0];
+
+  interface PageFetcher {
+    /**
+     * Fetches a single page.
+     *
+     * @param uri the location of the page
+     * @return the UTF-8 encoded body and the {@code Link} header of the page
+     */
+    FetchedPage fetch(URI uri) throws IOException;
+  }
+
+  static class FetchedPage {
+    private final byte[] body;
+    private final String link;
+
+    FetchedPage(byte[] body, String link) {
+      this.body = body;
+      this.link = link;
+    }
+  }
+
+  private static class Page {
+    private final byte[] records;
+    private final int recordCount;
+    private final URI next;
+
+    private Page(byte[] records, int recordCount, URI next) {
+      this.records = records;
+      this.recordCount = recordCount;
+      this.next = next;
+    }
+  }
+
+  // immutable and shared by all paginated imports, instead of being set up for each of them
+  private static final ObjectReader PAGE_READER = new ObjectMapper().reader();
+  private static final ObjectWriter RECORD_WRITER = new ObjectMapper().writer();
+
+  private final Pagination pagination;
+  private final PageFetcher fetcher;
+  private final Executor executor;
+  private final Deque<CompletableFuture<Page>> pending = new ArrayDeque<>();
+
+  private URI next;
+  private long nextOffset;
+  private int requestedPages;
+  private boolean lastPageReached;
+  private boolean recordWritten;
+  private boolean finished;
+
+  private byte[] chunk = "[".getBytes(StandardCharsets.UTF_8);
+  private int position;
+
+  PaginatedInputStream(URI first, Pagination pagination, PageFetcher fetcher, Executor executor) {
+    this.next = first;
+    this.pagination = pagination;
+    this.fetcher = fetcher;
+    this.executor = executor;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return chunk[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int count = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk, position, b, off, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {
+    finished = true;
+    chunk = EMPTY;
+    position = 0;
+    pending.forEach(page -> page.cancel(false));
+    pending.clear();
+  }
+
+  private boolean fill() throws IOException {
+    while (position == chunk.length) {
+      if (finished) {
+        return false;
+      }
+      position = 0;
+      Page page = nextPage();
+      if (page == null) {
+        finished = true;
+        chunk = "]".getBytes(StandardCharsets.UTF_8);
+      } else if (page.recordCount == 0) {
+        chunk = EMPTY;
+      } else if (recordWritten) {
+        chunk = new byte[page.records.length + 1];
+        chunk[0] = ',';
+        System.arraycopy(page.records, 0, chunk, 1, page.records.length);
+      } else {
+        recordWritten = true;
+        chunk = page.records;
+      }
+    }
+    return true;
+  }
+
+  private Page nextPage() throws IOException {
+    if (pagination.getType() == Pagination.Type.OFFSET) {
+      return nextOffsetPage();
+    }
+    if (next == null || requestedPages >= pagination.getMaxPages()) {
+      return null;
+    }
+    URI uri = next;
+    requestedPages++;
+    Page page = readPage(uri);
+    next = page.next;
+    return page;
+  }
+
+  private Page nextOffsetPage() throws IOException {
+    while (!lastPageReached && pending.size() < pagination.getParallelism()
+      && requestedPages < pagination.getMaxPages()) {
+      URI uri = withQueryParameter(withQueryParameter(next, pagination.getOffsetParameter(), nextOffset),
+        pagination.getLimitParameter(), pagination.getLimit());
+      pending.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return readPage(uri);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, executor));
+      nextOffset += pagination.getLimit();
+      requestedPages++;
+    }
+    if (pending.isEmpty()) {
+      return null;
+    }
+
+    Page page = await(pending.poll());
+    if (page.recordCount < pagination.getLimit()) {
+      // a short page is the last one, pages fetched ahead of it are not needed
+      lastPageReached = true;
+      pending.forEach(ahead -> ahead.cancel(false));
+      pending.clear();
+    }
+    return page;
+  }
+
+  private Page readPage(URI uri) throws IOException {
+    FetchedPage fetched = fetcher.fetch(uri);
+    JsonNode body = PAGE_READER.readTree(fetched.body);
+    if (body == null) {
+      return new Page(EMPTY, 0, null);
+    }
+
+    JsonNode records = body.at(pagination.getRecordsPointer());
+    // a missing array is an error as well, otherwise a wrong pointer would import nothing without notice
+    if (!records.isArray()) {
+      throw new IOException("Page " + uri + " does not contain a record array at " + pagination.getRecordsPointer());
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < records.size(); i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      RECORD_WRITER.writeValue(out, records.get(i));
+    }
+
+    return new Page(out.toByteArray(), records.size(), nextUri(uri, fetched, body, records.size()));
+  }
+
+  private URI nextUri(URI uri, FetchedPage fetched, JsonNode body, int recordCount) {
+    switch (pagination.getType()) {
+      case LINK:
+        String link = findNextLink(fetched.link);
+        return link == null ? null : uri.resolve(link);
+      case CURSOR:
+        JsonNode cursor = body.at(pagination.getCursorPointer());
+        if (recordCount == 0 || !cursor.isValueNode() || cursor.isNull() || cursor.asText().isEmpty()) {
+          return null;
+        }
+        return withQueryParameter(uri, pagination.getCursorParameter(), cursor.asText());
+      default:
+        return null;
+    }
+  }
+
+  static String findNextLink(String linkHeader) {
+    if (linkHeader == null) {
+      return null;
+    }
+    Matcher link = LINK.matcher(linkHeader);
+    while (link.find()) {
+      Matcher rel = REL.matcher(link.group(2));
+      while (rel.find()) {
+        for (String relation : rel.group(1).trim().split("\\s+")) {
+          if (relation.equalsIgnoreCase("next")) {
+            return link.group(1);
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private static URI withQueryParameter(URI uri, String name, Object value) {
+    return UriComponentsBuilder.fromUri(uri)
+      .replaceQueryParam(name, UriUtils.encodeQueryParam(value.toString(), StandardCharsets.UTF_8))
+      .build(true)
+      .toUri();
+  }
+
+  private static Page await(CompletableFuture<Page> page) throws IOException {
+    try {
+      return page.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
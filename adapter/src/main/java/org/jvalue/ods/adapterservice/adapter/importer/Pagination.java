@@ -0,0 +1,56 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Describes how the pages of a paginated JSON source are followed. The records of all pages are merged into one array.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+public class Pagination {
+
+  public enum Type {
+    /**
+     * Follows the {@code Link: <...>; rel="next"} response header.
+     */
+    LINK,
+    /**
+     * Sets offset and limit query parameters, pages are fetched concurrently.
+     */
+    OFFSET,
+    /**
+     * Passes the cursor token found in each page as query parameter for the next page.
+     */
+    CURSOR
+  }
+
+  private Type type;
+
+  // JSON pointer to the record array within a page, the page itself by default
+  private String recordsPointer = "";
+
+  // upper bound of fetched pages, protects against sources that never stop paging
+  private int maxPages = 1000;
+
+  private String offsetParameter = "offset";
+
+  private String limitParameter = "limit";
+
+  // page size of OFFSET pagination, a shorter page marks the end of the source
+  private int limit = 100;
+
+  // number of OFFSET pages fetched concurrently
+  private int parallelism = 4;
+
+  private String cursorParameter = "cursor";
+
+  // JSON pointer to the cursor of the next page within a page
+  private String cursorPointer = "/next";
+}
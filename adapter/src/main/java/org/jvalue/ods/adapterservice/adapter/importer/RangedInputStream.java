@@ -0,0 +1,167 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Downloads a source of known length as consecutive byte ranges, of which up to {@code parallelism} are fetched
+ * concurrently. The ranges are delivered in order. A range that fails transiently (an I/O error, 408, 429 or 5xx) is
+ * resumed from its last received byte instead of starting the download over.
+ */
+class RangedInputStream extends InputStream {
+  // each range is buffered in a byte array, larger range sizes are rejected by the importer
+  static final long MAX_RANGE_SIZE = Integer.MAX_VALUE - 8;
+
+  private static final byte[] EMPTY = new byte[0];
+
+  interface RangeFetcher {
+    /**
+     * Opens the given byte range of the source.
+     *
+     * @param first offset of the first byte, inclusive
+     * @param last  offset of the last byte, inclusive
+     * @return a stream of exactly the requested bytes
+     */
+    InputStream open(long first, long last) throws IOException;
+  }
+
+  private final RangeFetcher fetcher;
+  private final Executor executor;
+  private final long length;
+  private final long rangeSize;
+  private final int parallelism;
+  private final int retries;
+  private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+  private long nextRange;
+  private boolean closed;
+  private byte[] chunk = EMPTY;
+  private int position;
+
+  RangedInputStream(RangeFetcher fetcher, Executor executor, long length, long rangeSize, int parallelism,
+                    int retries) {
+    this.fetcher = fetcher;
+    this.executor = executor;
+    this.length = length;
+    this.rangeSize = rangeSize;
+    this.parallelism = parallelism;
+    this.retries = retries;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return chunk[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int count = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk, position, b, off, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    chunk = EMPTY;
+    position = 0;
+    pending.forEach(range -> range.cancel(false));
+    pending.clear();
+  }
+
+  private boolean fill() throws IOException {
+    while (position == chunk.length) {
+      if (closed) {
+        return false;
+      }
+      while (pending.size() < parallelism && nextRange < length) {
+        long first = nextRange;
+        long last = Math.min(first + rangeSize, length) - 1;
+        pending.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            return fetchRange(first, last);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, executor));
+        nextRange = last + 1;
+      }
+      if (pending.isEmpty()) {
+        return false;
+      }
+      chunk = await(pending.poll());
+      position = 0;
+    }
+    return true;
+  }
+
+  private byte[] fetchRange(long first, long last) throws IOException {
+    long size = last - first + 1;
+    ByteArrayOutputStream received = new ByteArrayOutputStream((int) size);
+    for (int attempt = 0; ; attempt++) {
+      try (InputStream range = fetcher.open(first + received.size(), last)) {
+        range.transferTo(received);
+        break;
+      } catch (IOException | RuntimeException e) {
+        if (attempt >= retries || closed || !isTransient(e)) {
+          throw e;
+        }
+      }
+    }
+    if (received.size() != size) {
+      throw new IOException("Range " + first + "-" + last + " returned " + received.size() + " instead of " + size
+        + " bytes");
+    }
+    return received.toByteArray();
+  }
+
+  /**
+   * @return true, if the failure may not occur again when the range is resumed. Other error responses (e.g. a source
+   * that changed during the download) fail the download.
+   */
+  private static boolean isTransient(Exception failure) {
+    if (failure instanceof IOException) {
+      return true;
+    }
+    if (failure instanceof RestClientResponseException) {
+      int status = ((RestClientResponseException) failure).getRawStatusCode();
+      return status == HttpStatus.REQUEST_TIMEOUT.value() || status == HttpStatus.TOO_MANY_REQUESTS.value()
+        || status >= 500;
+    }
+    return false;
+  }
+
+  private static byte[] await(CompletableFuture<byte[]> range) throws IOException {
+    try {
+      return range.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
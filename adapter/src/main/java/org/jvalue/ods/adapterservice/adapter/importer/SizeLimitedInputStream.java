@@ -0,0 +1,67 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails as soon as more than the given number of bytes are read from the underlying stream.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+  private final long maxSize;
+  private long size;
+
+  public SizeLimitedInputStream(InputStream in, long maxSize) {
+    super(in);
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return the maximum number of bytes that can be read
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b != -1) {
+      count(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    // reading one byte more than allowed is enough to detect an oversized source
+    long remaining = maxSize - size;
+    int count = super.read(b, off, remaining >= len ? len : (int) remaining + 1);
+    if (count > 0) {
+      count(count);
+    }
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long remaining = maxSize - size;
+    long skipped = super.skip(remaining >= n ? n : remaining + 1);
+    count(skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  private void count(long bytes) throws ImportLimitExceededException {
+    size += bytes;
+    if (size > maxSize) {
+      throw new ImportLimitExceededException("Imported data exceeds the maximum size of " + maxSize + " bytes");
+    }
+  }
+}
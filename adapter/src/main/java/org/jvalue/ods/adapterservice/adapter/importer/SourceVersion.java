@@ -0,0 +1,20 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import lombok.Value;
+
+/**
+ * Version of the data a source delivered, e.g. the HTTP entity tag and modification date of the fetched location.
+ * Importers use it to skip sources that did not change since the last import.
+ */
+@Value
+public class SourceVersion {
+  public static final SourceVersion UNKNOWN = new SourceVersion(null, null, null);
+
+  String location;
+  String etag;
+  String lastModified;
+
+  public boolean isKnown() {
+    return location != null && (etag != null || lastModified != null);
+  }
+}
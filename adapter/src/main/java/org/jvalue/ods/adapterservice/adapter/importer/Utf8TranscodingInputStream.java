@@ -0,0 +1,82 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Re-encodes a stream of the given charset to UTF-8 chunk by chunk, so that interpreters only have to deal with UTF-8.
+ */
+class Utf8TranscodingInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+    .onMalformedInput(CodingErrorAction.REPLACE)
+    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+  private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE * 3);
+  private boolean endOfInput = false;
+
+  Utf8TranscodingInputStream(InputStream source, Charset sourceCharset) {
+    this.reader = new InputStreamReader(source, sourceCharset);
+    this.chars.flip();
+    this.bytes.flip();
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] single = new byte[1];
+    int read = read(single, 0, 1);
+    return read == -1 ? -1 : single[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (!bytes.hasRemaining()) {
+      if (endOfInput && !chars.hasRemaining()) {
+        return -1;
+      }
+      fill();
+    }
+    int count = Math.min(len, bytes.remaining());
+    bytes.get(b, off, count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return bytes.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void fill() throws IOException {
+    chars.compact();
+    int read = reader.read(chars);
+    chars.flip();
+    if (read == -1) {
+      endOfInput = true;
+    }
+
+    bytes.clear();
+    encoder.encode(chars, bytes, endOfInput);
+    if (endOfInput && !chars.hasRemaining()) {
+      encoder.flush(bytes);
+    }
+    bytes.flip();
+  }
+}
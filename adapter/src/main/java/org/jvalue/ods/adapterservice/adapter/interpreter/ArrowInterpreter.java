@@ -0,0 +1,149 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.util.Text;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interprets Arrow IPC data, in the streaming or the file format, as an array of records, one object per row. The
+ * data is read one record batch at a time, of which only the selected columns are converted. Dictionary-encoded
+ * columns are written with their dictionary values.
+ */
+public class ArrowInterpreter extends Interpreter {
+  private static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    ColumnProjection.DESCRIPTION
+  );
+  private final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+  // writes the values of nested and temporal vectors
+  private final ObjectMapper jsonMapper = new ObjectMapper()
+    .registerModule(new JavaTimeModule())
+    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+    .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+  @Override
+  public String getType() {
+    return "ARROW";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Interpret data as Arrow IPC stream or file";
+  }
+
+  @Override
+  public List<InterpreterParameterDescription> getAvailableParameters() {
+    return parameters;
+  }
+
+  @Override
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+    ColumnProjection.validate(getType(), inputParameters);
+  }
+
+  @Override
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    List<String> columns = ColumnProjection.get(parameters);
+    return (data, out) -> {
+      BufferedInputStream in = new BufferedInputStream(data);
+      try (BufferAllocator batchAllocator = allocator.newChildAllocator("import", 0, Long.MAX_VALUE)) {
+        out.writeStartArray();
+        if (isFile(in)) {
+          // the file format starts with the schema, but its record batches are found by the footer
+          try (SpooledData spooled = SpooledData.of(in);
+               ArrowFileReader reader = new ArrowFileReader(FileChannel.open(spooled.getPath()), batchAllocator)) {
+            for (ArrowBlock batch : reader.getRecordBlocks()) {
+              reader.loadRecordBatch(batch);
+              writeBatch(reader, columns, out);
+            }
+          }
+        } else {
+          try (ArrowStreamReader reader = new ArrowStreamReader(in, batchAllocator)) {
+            while (reader.loadNextBatch()) {
+              writeBatch(reader, columns, out);
+            }
+          }
+        }
+        out.writeEndArray();
+      } catch (RuntimeException e) {
+        // Arrow signals invalid data (e.g. a truncated footer or corrupt messages) with unchecked exceptions
+        throw new IOException("Failed to read Arrow data: " + e.getMessage(), e);
+      }
+    };
+  }
+
+  private static boolean isFile(BufferedInputStream data) throws IOException {
+    data.mark(FILE_MAGIC.length);
+    byte[] head = data.readNBytes(FILE_MAGIC.length);
+    data.reset();
+    return Arrays.equals(head, FILE_MAGIC);
+  }
+
+  private void writeBatch(ArrowReader reader, List<String> columns, JsonGenerator out) throws IOException {
+    VectorSchemaRoot batch = reader.getVectorSchemaRoot();
+    List<FieldVector> vectors;
+    if (columns == null) {
+      vectors = batch.getFieldVectors();
+    } else {
+      vectors = new ArrayList<>();
+      for (String column : columns) {
+        FieldVector vector = batch.getVector(column);
+        if (vector == null) {
+          throw new IOException("Arrow data has no column " + column);
+        }
+        vectors.add(vector);
+      }
+    }
+
+    for (int row = 0; row < batch.getRowCount(); row++) {
+      out.writeStartObject();
+      for (FieldVector vector : vectors) {
+        out.writeFieldName(vector.getName());
+        Object value = vector.getObject(row);
+        DictionaryEncoding dictionary = vector.getField().getDictionary();
+        if (value != null && dictionary != null) {
+          value = reader.getDictionaryVectors().get(dictionary.getId()).getVector()
+            .getObject(((Number) value).intValue());
+        }
+        if (value == null) {
+          out.writeNull();
+        } else if (value instanceof Text) {
+          out.writeString(value.toString());
+        } else {
+          jsonMapper.writeValue(out, value);
+        }
+      }
+      out.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits UTF-8 encoded data into chunks of whole lines, which can be parsed independently of each other. Subclasses
+ * refine where a record ends by overriding {@link #scan(byte[], int, int)}.
+ */
+class ChunkReader {
+  static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private final InputStream data;
+  private final int chunkSize;
+  private byte[] buffer;
+  private int length;
+  private int scanned;
+  // end of the last complete record in the buffer
+  private int recordEnd;
+
+  /**
+   * @param data      the data
+   * @param chunkSize the minimum size of a chunk, chunks are larger if a record ends behind this size
+   */
+  ChunkReader(InputStream data, int chunkSize) {
+    this.data = data;
+    this.chunkSize = chunkSize;
+    this.buffer = new byte[chunkSize];
+  }
+
+  /**
+   * @return the next chunk of records, null at the end of the data
+   */
+  byte[] next() throws IOException {
+    while (true) {
+      if (length >= chunkSize && recordEnd > 0) {
+        return take(recordEnd);
+      }
+      if (length == buffer.length) {
+        // a single record is larger than the buffer
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      int read = data.read(buffer, length, buffer.length - length);
+      if (read < 0) {
+        return length == 0 ? null : take(length);
+      }
+      length += read;
+      int end = scan(buffer, scanned, length);
+      if (end >= 0) {
+        recordEnd = end;
+      }
+      scanned = length;
+    }
+  }
+
+  /**
+   * Scans the newly read bytes of the buffer, each byte is scanned exactly once.
+   *
+   * @return the end of the last record that ends in the scanned bytes, -1 if none does
+   */
+  int scan(byte[] buffer, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buffer[i] == '\n') {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  private byte[] take(int end) {
+    byte[] chunk = Arrays.copyOf(buffer, end);
+    System.arraycopy(buffer, end, buffer, 0, length - end);
+    length -= end;
+    scanned -= end;
+    recordEnd = 0;
+    return chunk;
+  }
+}
@@ -0,0 +1,36 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The optional parameter of columnar formats that selects the columns to read, all columns by default. As the values
+ * of a column are stored together, the other columns are not read at all.
+ */
+final class ColumnProjection {
+  static final String COLUMNS = "columns";
+  static final InterpreterParameterDescription DESCRIPTION = new InterpreterParameterDescription(COLUMNS,
+    "Names of the columns to read, all columns by default", false, List.class);
+
+  private ColumnProjection() {
+  }
+
+  static void validate(String type, Map<String, Object> parameters) throws InterpreterParameterException {
+    Object columns = parameters.get(COLUMNS);
+    if (columns != null && (!(columns instanceof List) || ((List<?>) columns).isEmpty()
+        || !((List<?>) columns).stream().allMatch(column -> column instanceof String))) {
+      throw new InterpreterParameterException(type + " interpreter requires parameter " + COLUMNS +
+        " to be a non-empty list of column names. Your given value " + columns + " is invalid!");
+    }
+  }
+
+  /**
+   * @return the names of the selected columns, null for all columns
+   */
+  @SuppressWarnings("unchecked")
+  static List<String> get(Map<String, Object> parameters) {
+    return (List<String>) parameters.get(COLUMNS);
+  }
+}
@@ -0,0 +1,63 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import java.io.InputStream;
+
+/**
+ * Splits UTF-8 encoded CSV data into chunks of whole records, which can be parsed independently of each other.
+ * The split is quote-aware: line breaks inside quoted values do not end a record. Like the CSV parser, a quote only
+ * starts a quoted value at the beginning of a value, and \n, \r and \r\n all end a record.
+ */
+class CsvChunkReader extends ChunkReader {
+  private static final byte QUOTE = '"';
+
+  private static final int VALUE_START = 0;
+  private static final int UNQUOTED = 1;
+  private static final int QUOTED = 2;
+  // a quote inside a quoted value, which either closes the value or escapes a following quote
+  private static final int QUOTED_QUOTE = 3;
+
+  private final byte columnSeparator;
+  private int state = VALUE_START;
+  private boolean carriageReturn;
+
+  /**
+   * @param data            the CSV data
+   * @param chunkSize       the minimum size of a chunk, chunks are larger if a record ends behind this size
+   * @param columnSeparator the column separator, has to be an ASCII character
+   */
+  CsvChunkReader(InputStream data, int chunkSize, char columnSeparator) {
+    super(data, chunkSize);
+    this.columnSeparator = (byte) columnSeparator;
+  }
+
+  @Override
+  int scan(byte[] buffer, int from, int to) {
+    int recordEnd = -1;
+    for (int i = from; i < to; i++) {
+      byte b = buffer[i];
+      if (carriageReturn) {
+        carriageReturn = false;
+        if (b == '\n') {
+          recordEnd = i + 1;
+          continue;
+        }
+        recordEnd = i;
+      }
+      if (b == '\r' && state != QUOTED) {
+        // the record ends behind a following \n, which is not read yet
+        carriageReturn = true;
+        state = VALUE_START;
+      } else if (b == '\n' && state != QUOTED) {
+        recordEnd = i + 1;
+        state = VALUE_START;
+      } else if (b == columnSeparator && state != QUOTED) {
+        state = VALUE_START;
+      } else if (b == QUOTE && state != UNQUOTED) {
+        state = state == QUOTED ? QUOTED_QUOTE : QUOTED;
+      } else if (state != QUOTED) {
+        state = UNQUOTED;
+      }
+    }
+    return recordEnd;
+  }
+}
@@ -1,29 +1,40 @@
 package org.jvalue.ods.adapterservice.adapter.interpreter;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MappingIterator;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
 import com.fasterxml.jackson.dataformat.csv.CsvParser;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 public class CsvInterpreter extends Interpreter {
-
-  private final List<InterpreterParameterDescription> parameters = List.of(
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
     new InterpreterParameterDescription("columnSeparator", "Column delimiter character, only one character supported", String.class),
     new InterpreterParameterDescription("lineSeparator", "Line delimiter character, only \\r, \\r\\n, and \\n supported", String.class),
     new InterpreterParameterDescription("skipFirstDataRow", "Skip first data row (after header)", Boolean.class),
-    new InterpreterParameterDescription("firstRowAsHeader", "Interpret first row as header for columns", Boolean.class)
+    new InterpreterParameterDescription("firstRowAsHeader", "Interpret first row as header for columns", Boolean.class),
+    ParallelChunks.DESCRIPTION
   );
-  private final CsvMapper mapper = new CsvMapper().enable(CsvParser.Feature.WRAP_AS_ARRAY);
-  private final ObjectMapper jsonMapper = new ObjectMapper();
+  private final CsvFactory csvFactory = new CsvFactory();
+  private final int chunkSize;
+
+  public CsvInterpreter() {
+    this(ChunkReader.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param chunkSize the size of the chunks the data is split into for parallel parsing
+   */
+  CsvInterpreter(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
 
   @Override
   public String getType() {
@@ -55,16 +66,45 @@ public class CsvInterpreter extends Interpreter {
       throw new InterpreterParameterException(getType() + " interpreter requires parameter columnSeparator to have" +
         " length 1. Your given value " + columnSeparator + " is invalid!");
     }
+
+    ParallelChunks.validate(getType(), inputParameters);
   }
 
   @Override
-  protected JsonNode doInterpret(String data, Map<String, Object> parameters) throws IOException {
-    CsvSchema csvSchema = createSchema(parameters);
-    if ((boolean) parameters.get("firstRowAsHeader")) {
-      return parseWithHeader(data, csvSchema);
-    } else {
-      return parseWithoutHeader(data, csvSchema);
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    CsvSchema schema = createSchema(parameters);
+    int parallelism = ParallelChunks.get(parameters);
+    char columnSeparator = schema.getColumnSeparator();
+    // the chunks are split on the raw bytes, which only works for separators encoded as single UTF-8 bytes
+    if (parallelism > 1 && columnSeparator < 0x80) {
+      return (data, out) -> interpretParallel(new CsvChunkReader(data, chunkSize, columnSeparator), schema,
+        parallelism, out);
     }
+    return (data, out) -> {
+      BufferedInputStream in = new BufferedInputStream(data);
+      // the parser fails on a missing header line, but empty data is just an empty array
+      if (isEmpty(in)) {
+        out.writeStartArray();
+        out.writeEndArray();
+        return;
+      }
+      try (CsvParser rows = csvFactory.createParser(in)) {
+        rows.setSchema(schema);
+        writeRows(rows, out);
+      }
+    };
+  }
+
+  private static boolean isEmpty(BufferedInputStream data) throws IOException {
+    data.mark(1);
+    boolean empty = data.read() == -1;
+    data.reset();
+    return empty;
   }
 
   private CsvSchema createSchema(Map<String, Object> parameters) {
@@ -80,31 +120,56 @@ public class CsvInterpreter extends Interpreter {
     return csvSchema;
   }
 
-  private JsonNode parseWithoutHeader(String data, CsvSchema csvSchema) throws IOException {
-    MappingIterator<Object[]> allLines = mapper
-      .readerFor(Object[].class)
-      .with(csvSchema)
-      .readValues(data);
-
-    ArrayNode result = mapper.createArrayNode();
-    while (allLines.hasNext()) {
-      result.add(jsonMapper.valueToTree(allLines.next()));
+  /**
+   * Parses record-aligned chunks of the data in parallel. The first chunk holds the header and the skipped data row,
+   * it is read up to its header, so the following chunks can be parsed with its columns.
+   */
+  private void interpretParallel(CsvChunkReader chunks, CsvSchema schema, int parallelism, JsonGenerator out)
+      throws IOException {
+    try (ParallelChunks parsing = new ParallelChunks(parallelism, out)) {
+      out.writeStartArray();
+      byte[] chunk = chunks.next();
+      // each chunk holds at least one record
+      int leadingRecords = (schema.usesHeader() ? 1 : 0) + (schema.skipsFirstDataRow() ? 1 : 0);
+      for (int i = 1; i < leadingRecords && chunk != null; i++) {
+        chunk = concat(chunk, chunks.next());
+      }
+      if (chunk != null) {
+        CsvParser first = csvFactory.createParser(chunk);
+        first.setSchema(schema);
+        first.nextToken();
+        CsvSchema chunkSchema = first.getSchema().withoutHeader().withSkipFirstDataRow(false);
+        parsing.add(chunk, first);
+
+        while ((chunk = chunks.next()) != null) {
+          CsvParser rows = csvFactory.createParser(chunk);
+          rows.setSchema(chunkSchema);
+          parsing.add(chunk, rows);
+        }
+        parsing.flush();
+      }
+      out.writeEndArray();
     }
+  }
 
+  private static byte[] concat(byte[] chunk, byte[] next) {
+    if (next == null) {
+      return chunk;
+    }
+    byte[] result = Arrays.copyOf(chunk, chunk.length + next.length);
+    System.arraycopy(next, 0, result, chunk.length, next.length);
     return result;
   }
 
-  private JsonNode parseWithHeader(String data, CsvSchema csvSchema) throws IOException {
-    MappingIterator<Map<String, String>> allLines = mapper
-      .readerFor(Map.class)
-      .with(csvSchema)
-      .readValues(data);
-
-    ArrayNode result = mapper.createArrayNode();
-    while (allLines.hasNext()) {
-      result.add(jsonMapper.valueToTree(allLines.next()));
+  /**
+   * Copies the rows token by token, so neither rows nor cells are materialized. The parser exposes each row as an
+   * object keyed by the header names, which it reads once, or as an array if there is no header.
+   */
+  private void writeRows(CsvParser rows, JsonGenerator out) throws IOException {
+    out.writeStartArray();
+    while (rows.nextToken() != null) {
+      out.copyCurrentStructure(rows);
     }
-
-    return result;
+    out.writeEndArray();
   }
 }
@@ -0,0 +1,228 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Applies a {@link RecordFilter} to the records of the interpreted data, i.e. the values of its top-level array or,
+ * without one, its root-level values. Each record is buffered until it is complete and then written projected to the
+ * target generator or dropped, so only a single record is held in memory.
+ */
+public class FilteringJsonGenerator extends JsonGeneratorDelegate {
+  private static final ObjectMapper MAPPER = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+  private final JsonGenerator target;
+  private final RecordFilter filter;
+  private int depth;
+  private boolean topLevelArray;
+
+  public FilteringJsonGenerator(JsonGenerator target, RecordFilter filter) {
+    // the copy methods have to write through this generator, otherwise copied records would bypass the buffering
+    super(target, false);
+    this.target = target;
+    this.filter = filter;
+  }
+
+  @Override
+  public void writeStartArray() throws IOException {
+    enter(true);
+    delegate.writeStartArray();
+  }
+
+  @Override
+  public void writeStartArray(int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(size);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue, int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue, size);
+  }
+
+  @Override
+  public void writeEndArray() throws IOException {
+    delegate.writeEndArray();
+    leave();
+  }
+
+  @Override
+  public void writeStartObject() throws IOException {
+    enter(false);
+    delegate.writeStartObject();
+  }
+
+  @Override
+  public void writeStartObject(Object forValue) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue);
+  }
+
+  @Override
+  public void writeStartObject(Object forValue, int size) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue, size);
+  }
+
+  @Override
+  public void writeEndObject() throws IOException {
+    delegate.writeEndObject();
+    leave();
+  }
+
+  @Override
+  public void writeString(String text) throws IOException {
+    startScalar();
+    delegate.writeString(text);
+    endRecord();
+  }
+
+  @Override
+  public void writeString(char[] text, int offset, int len) throws IOException {
+    startScalar();
+    delegate.writeString(text, offset, len);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(short v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(int v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(long v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(BigInteger v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(float v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(double v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(BigDecimal v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+    endRecord();
+  }
+
+  @Override
+  public void writeNumber(String encodedValue) throws IOException {
+    startScalar();
+    delegate.writeNumber(encodedValue);
+    endRecord();
+  }
+
+  @Override
+  public void writeBoolean(boolean state) throws IOException {
+    startScalar();
+    delegate.writeBoolean(state);
+    endRecord();
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    startScalar();
+    delegate.writeNull();
+    endRecord();
+  }
+
+  @Override
+  public void writeBinary(Base64Variant variant, byte[] data, int offset, int len) throws IOException {
+    startScalar();
+    delegate.writeBinary(variant, data, offset, len);
+    endRecord();
+  }
+
+  /**
+   * Drops an incomplete record and closes the target.
+   */
+  @Override
+  public void close() throws IOException {
+    delegate = target;
+    target.close();
+  }
+
+  private void enter(boolean array) {
+    if (depth == 0) {
+      topLevelArray = array;
+    }
+    if (isRecordLevel()) {
+      delegate = new TokenBuffer(null, false);
+    }
+    depth++;
+  }
+
+  private void leave() throws IOException {
+    depth--;
+    endRecord();
+  }
+
+  private void startScalar() {
+    if (depth == 0) {
+      topLevelArray = false;
+    }
+    if (isRecordLevel()) {
+      delegate = new TokenBuffer(null, false);
+    }
+  }
+
+  private void endRecord() throws IOException {
+    if (!isRecordLevel() || delegate == target) {
+      return;
+    }
+    TokenBuffer buffer = (TokenBuffer) delegate;
+    delegate = target;
+    JsonNode record = filter.apply(MAPPER.readTree(buffer.asParser()));
+    if (record != null) {
+      MAPPER.writeTree(target, record);
+    }
+  }
+
+  private boolean isRecordLevel() {
+    return depth == 1 && topLevelArray || depth == 0 && !topLevelArray;
+  }
+}
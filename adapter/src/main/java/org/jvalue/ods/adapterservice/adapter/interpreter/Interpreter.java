@@ -1,15 +1,29 @@
 package org.jvalue.ods.adapterservice.adapter.interpreter;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public abstract class Interpreter {
+  // optional parameter of all formats, the maximum nesting depth of the interpreted data
+  public static final String MAX_DEPTH = "maxDepth";
+  // optional parameter of all formats, the maximum number of records of the interpreted data
+  public static final String MAX_RECORDS = "maxRecords";
+
+  private static final List<InterpreterParameterDescription> FORMAT_PARAMETERS = List.of(
+    new InterpreterParameterDescription(MAX_DEPTH, "Maximum nesting depth of the interpreted data, overrides the default of the adapter", false, Integer.class),
+    new InterpreterParameterDescription(MAX_RECORDS, "Maximum number of records of the interpreted data, overrides the default of the adapter", false, Integer.class),
+    new InterpreterParameterDescription(RecordFilter.FIELDS, "Fields to keep of each record, as field names or JSON pointers", false, List.class),
+    new InterpreterParameterDescription(RecordFilter.FILTER, "Conditions the records have to meet, e.g. [{\"field\": \"year\", \"op\": \"ge\", \"value\": 2020}]", false, List.class)
+  );
 
   public abstract String getType();
 
@@ -18,19 +32,72 @@ public abstract class Interpreter {
   @JsonProperty("parameters")
   public abstract List<InterpreterParameterDescription> getAvailableParameters();
 
-  public final JsonNode interpret(String data, Map<String, Object> parameters) throws IOException,
+  /**
+   * Interprets the given data and writes the resulting JSON to the given generator.
+   * The data is streamed, implementations must not hold the whole document in memory if they can avoid it.
+   *
+   * @param data       the UTF-8 encoded raw data
+   * @param parameters the interpreter parameters
+   * @param out        the generator the JSON result is written to, not closed by this method
+   * @throws IOException                   on errors when reading or interpreting the data
+   * @throws InterpreterParameterException on errors in the interpreter parameters
+   */
+  public final void interpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException,
       InterpreterParameterException {
     validateParameters(parameters);
-    return doInterpret(data, parameters);
+    doInterpret(data, parameters, out);
+  }
+
+  /**
+   * Validates the given parameters once and prepares the interpretation with them, e.g. for the repeated imports of
+   * a datasource.
+   *
+   * @param parameters the interpreter parameters
+   * @return the interpretation, which can be used concurrently
+   * @throws InterpreterParameterException on errors in the interpreter parameters
+   */
+  public final PreparedInterpreter prepare(Map<String, Object> parameters) throws InterpreterParameterException {
+    validateParameters(parameters);
+    return doPrepare(parameters);
   }
 
-  protected abstract JsonNode doInterpret(String data, Map<String, Object> parameters) throws IOException;
+  protected abstract void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException;
+
+  /**
+   * Prepares the interpretation with validated parameters. Interpreters override this to set up their readers only
+   * once instead of for every interpretation.
+   */
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    return (data, out) -> doInterpret(data, parameters, out);
+  }
+
+  /**
+   * @param parameters the parameters of the format
+   * @return the given parameters followed by the optional parameters of all formats, which are applied by the adapter
+   */
+  protected static List<InterpreterParameterDescription> withFormatParameters(
+      InterpreterParameterDescription... parameters) {
+    List<InterpreterParameterDescription> result = new ArrayList<>(List.of(parameters));
+    result.addAll(FORMAT_PARAMETERS);
+    return List.copyOf(result);
+  }
 
   protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
     boolean illegalArguments = false;
     String illegalArgumentsMessage = "";
 
-    for (InterpreterParameterDescription requiredParameter : getAvailableParameters()) {
+    List<String> possibleParameters = getAvailableParameters().stream()
+      .map(InterpreterParameterDescription::getName).collect(Collectors.toList());
+    var unnecessaryArguments = inputParameters.keySet().stream()
+      .filter(o -> !possibleParameters.contains(o)).collect(Collectors.toList());
+    if (unnecessaryArguments.size() > 0) {
+      illegalArguments = true;
+      for (var argument : unnecessaryArguments) {
+        illegalArgumentsMessage += argument + " is not needed by interpreter \n";
+      }
+    }
+
+    for (InterpreterParameterDescription requiredParameter : getRequiredParameters()) {
       if (inputParameters.get(requiredParameter.getName()) == null) {
         illegalArguments = true;
         illegalArgumentsMessage = illegalArgumentsMessage + getType() + " interpreter requires parameter "
@@ -46,4 +113,9 @@ public abstract class Interpreter {
       throw new InterpreterParameterException(illegalArgumentsMessage);
     }
   }
+
+  protected List<InterpreterParameterDescription> getRequiredParameters() {
+    return getAvailableParameters().stream()
+      .filter(InterpreterParameterDescription::isRequired).collect(Collectors.toList());
+  }
 }
@@ -10,5 +10,10 @@ import lombok.*;
 public class InterpreterParameterDescription {
   private String name;
   private String description;
+  private boolean required;
   private Class<?> type;
+
+  public InterpreterParameterDescription(String name, String description, Class<?> type) {
+    this(name, description, true, type);
+  }
 }
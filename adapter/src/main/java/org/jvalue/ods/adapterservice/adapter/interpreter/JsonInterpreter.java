@@ -1,16 +1,28 @@
 package org.jvalue.ods.adapterservice.adapter.interpreter;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 public class JsonInterpreter extends Interpreter {
+  // optional parameter, forwards the raw data instead of parsing and serializing it again, see JsonPassThrough
+  public static final String PASS_THROUGH = "passThrough";
+  // optional parameter, the JSON pointer of the value to import instead of the whole document
+  public static final String POINTER = "pointer";
 
-  private final List<InterpreterParameterDescription> parameters = List.of();
-  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    new InterpreterParameterDescription(PASS_THROUGH, "Forward the raw data instead of parsing and serializing it again", false, Boolean.class),
+    new InterpreterParameterDescription(POINTER, "JSON pointer of the value to import instead of the whole document, e.g. /result/records", false, String.class)
+  );
+  private final JsonFactory factory = new JsonFactory();
 
   @Override
   public String getType() {
@@ -28,7 +40,103 @@ public class JsonInterpreter extends Interpreter {
   }
 
   @Override
-  protected JsonNode doInterpret(String data, Map<String, Object> parameters) throws IOException {
-    return mapper.readTree(data);
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+
+    Object passThrough = inputParameters.get(PASS_THROUGH);
+    if (passThrough != null && !(passThrough instanceof Boolean)) {
+      throw new InterpreterParameterException(getType() + " interpreter requires parameter " + PASS_THROUGH +
+        " to be type " + Boolean.class + ". Your given value " + passThrough + " is invalid!");
+    }
+
+    Object pointer = inputParameters.get(POINTER);
+    if (pointer != null && (!(pointer instanceof String) || !isJsonPointer((String) pointer))) {
+      throw new InterpreterParameterException(getType() + " interpreter requires parameter " + POINTER +
+        " to be a JSON pointer like /result/records. Your given value " + pointer + " is invalid!");
+    }
+  }
+
+  private static boolean isJsonPointer(String pointer) {
+    try {
+      JsonPointer.compile(pointer);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  /**
+   * Copies the data token by token. Imports with {@link #PASS_THROUGH} are forwarded as raw bytes by the
+   * {@link JsonPassThrough} instead, only previews of them are interpreted.
+   */
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    String pointer = (String) parameters.get(POINTER);
+    if (pointer == null) {
+      return (data, out) -> {
+        try (JsonParser parser = factory.createParser(data)) {
+          if (parser.nextToken() != null) {
+            out.copyCurrentStructure(parser);
+          }
+        }
+      };
+    }
+    JsonPointer path = JsonPointer.compile(pointer);
+    return (data, out) -> {
+      try (JsonParser parser = factory.createParser(data)) {
+        if (parser.nextToken() == null || !moveTo(parser, path)) {
+          throw new IOException("JSON data has no value at pointer " + pointer);
+        }
+        out.copyCurrentStructure(parser);
+        // the rest of the document is skipped, it is only checked for well-formedness
+        while (!parser.getParsingContext().inRoot() && parser.nextToken() != null) {
+          parser.skipChildren();
+        }
+      }
+    };
+  }
+
+  /**
+   * Moves the parser from the current value to the value at the given pointer. The values on the way are skipped
+   * without being materialized.
+   *
+   * @return true, if the parser is positioned on the value at the pointer
+   */
+  private static boolean moveTo(JsonParser parser, JsonPointer pointer) throws IOException {
+    for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+      if (parser.currentToken() == JsonToken.START_OBJECT) {
+        String name = segment.getMatchingProperty();
+        while (parser.nextToken() == JsonToken.FIELD_NAME && !parser.getCurrentName().equals(name)) {
+          parser.nextToken();
+          parser.skipChildren();
+        }
+        if (parser.currentToken() != JsonToken.FIELD_NAME) {
+          return false;
+        }
+        parser.nextToken();
+      } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+        int index = segment.getMatchingIndex();
+        if (index < 0) {
+          return false;
+        }
+        for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+          if (i == index) {
+            break;
+          }
+          parser.skipChildren();
+        }
+        if (parser.currentToken() == JsonToken.END_ARRAY) {
+          return false;
+        }
+      } else {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -0,0 +1,242 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+
+/**
+ * Forwards the exact bytes of JSON data, or of the value at a JSON pointer, instead of parsing and serializing it
+ * again. The data is checked for well-formedness by a non-blocking parser that is fed the same blocks that are
+ * forwarded, so neither the document nor its values are materialized. The nesting depth and the number of records
+ * are limited like by the {@link LimitingJsonGenerator}, relative to the forwarded value.
+ */
+public class JsonPassThrough {
+  private static final JsonFactory FACTORY = new JsonFactory();
+  private static final int BLOCK_SIZE = 64 * 1024;
+  private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  private final String pointer;
+  // the property names and array indexes of the pointer, an index is -1 if its segment is no valid index
+  private final String[] names;
+  private final int[] indexes;
+  private final int maxDepth;
+  private final long maxRecords;
+
+  /**
+   * @param pointer    the JSON pointer of the value to forward, empty for the whole document
+   * @param maxDepth   the maximum nesting depth of the forwarded value
+   * @param maxRecords the maximum number of records in the top-level array of the forwarded value
+   */
+  public JsonPassThrough(String pointer, int maxDepth, long maxRecords) {
+    this.pointer = pointer;
+    this.maxDepth = maxDepth;
+    this.maxRecords = maxRecords;
+    JsonPointer segments = JsonPointer.compile(pointer);
+    int length = 0;
+    for (JsonPointer segment = segments; !segment.matches(); segment = segment.tail()) {
+      length++;
+    }
+    this.names = new String[length];
+    this.indexes = new int[length];
+    JsonPointer segment = segments;
+    for (int i = 0; i < length; i++, segment = segment.tail()) {
+      names[i] = segment.getMatchingProperty();
+      indexes[i] = segment.getMatchingIndex();
+    }
+  }
+
+  /**
+   * @param data the UTF-8 encoded JSON data
+   * @param out  the stream the selected value is written to, not closed by this method
+   * @throws IOException on malformed data, if the pointer does not match or on exceeded limits
+   */
+  public void forward(InputStream data, OutputStream out) throws IOException {
+    try (JsonParser parser = FACTORY.createNonBlockingByteArrayParser()) {
+      new Forwarding(parser, out).run(skipByteOrderMark(data));
+    }
+  }
+
+  /**
+   * The byte order mark is skipped before parsing, as the non-blocking parser does not count it in its offsets.
+   */
+  private static InputStream skipByteOrderMark(InputStream data) throws IOException {
+    PushbackInputStream in = new PushbackInputStream(data, BYTE_ORDER_MARK.length);
+    byte[] head = in.readNBytes(BYTE_ORDER_MARK.length);
+    if (!Arrays.equals(head, BYTE_ORDER_MARK)) {
+      in.unread(head);
+    }
+    return in;
+  }
+
+  /**
+   * State of a single forwarding. Offsets are byte offsets in the whole data.
+   */
+  private class Forwarding {
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final OutputStream out;
+    private byte[] block = new byte[BLOCK_SIZE];
+    private long blockStart;
+    // bytes before the current block that may contain the start of the forwarded value, as long as it is not found
+    private byte[] carry = new byte[0];
+    private int carryLength;
+    private long carryStart;
+
+    private int depth;
+    private boolean rootComplete;
+    private long lastTokenEnd;
+    // the forwarded value, negative while not known
+    private long start = -1;
+    private long end = -1;
+    private int valueDepth;
+    private boolean valueIsArray;
+    private long records;
+
+    Forwarding(JsonParser parser, OutputStream out) {
+      this.parser = parser;
+      this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+      this.out = out;
+    }
+
+    void run(InputStream data) throws IOException {
+      int read;
+      do {
+        read = data.read(block);
+        if (read < 0) {
+          feeder.endOfInput();
+        } else if (read > 0) {
+          feeder.feedInput(block, 0, read);
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+          handle(token);
+          lastTokenEnd = parser.getCurrentLocation().getByteOffset();
+        }
+        long blockEnd = blockStart + Math.max(read, 0);
+        forward(blockEnd);
+        blockStart = blockEnd;
+      } while (read >= 0);
+
+      if (end < 0) {
+        throw new IOException(start < 0 && !pointer.isEmpty()
+          ? "JSON data has no value at pointer " + pointer
+          : "JSON data ended unexpectedly");
+      }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+      if (rootComplete) {
+        throw new JsonParseException(parser, "Unexpected content after the JSON value: " + token);
+      }
+      boolean inValue = start >= 0 && end < 0;
+      if (token.isStructEnd()) {
+        depth--;
+        if (inValue && depth == valueDepth) {
+          end = parser.getCurrentLocation().getByteOffset();
+        }
+      } else if (token != JsonToken.FIELD_NAME) {
+        if (inValue && valueIsArray && depth == valueDepth + 1 && ++records > maxRecords) {
+          throw new ImportLimitExceededException("Interpreted data exceeds the maximum of " + maxRecords + " records");
+        }
+        if (start < 0 && depth == names.length && isAtPointer(token)) {
+          start = findValueStart(lastTokenEnd);
+          valueDepth = depth;
+          valueIsArray = token == JsonToken.START_ARRAY;
+          if (!token.isStructStart()) {
+            end = parser.getCurrentLocation().getByteOffset();
+          }
+          inValue = true;
+        }
+        if (token.isStructStart()) {
+          depth++;
+          if (inValue && depth - valueDepth > maxDepth) {
+            throw new ImportLimitExceededException("Interpreted data exceeds the maximum nesting depth of " + maxDepth);
+          }
+        }
+      }
+      rootComplete = depth == 0 && token != JsonToken.FIELD_NAME && !token.isStructStart();
+    }
+
+    /**
+     * The value starts behind the separators and whitespace following the previous token. It is found in the consumed
+     * bytes instead of by the token location, whose offset is not reliable for the non-blocking parser.
+     */
+    private long findValueStart(long offset) {
+      while (true) {
+        byte b = offset < blockStart ? carry[(int) (offset - carryStart)] : block[(int) (offset - blockStart)];
+        if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != ':' && b != ',') {
+          return offset;
+        }
+        offset++;
+      }
+    }
+
+    /**
+     * @return true, if the value of the given token is the one the pointer refers to
+     */
+    private boolean isAtPointer(JsonToken token) {
+      JsonStreamContext context = parser.getParsingContext();
+      if (token.isStructStart()) {
+        context = context.getParent();
+      }
+      for (int i = names.length - 1; i >= 0; i--, context = context.getParent()) {
+        if (context.inObject() ? !names[i].equals(context.getCurrentName())
+            : indexes[i] != context.getCurrentIndex()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Forwards the part of the forwarded value that lies in the carried bytes or the current block.
+     */
+    private void forward(long blockEnd) throws IOException {
+      if (start < 0) {
+        keepCarry(blockEnd);
+        return;
+      }
+      long to = end < 0 ? blockEnd : end;
+      if (carryLength > 0) {
+        long carryEnd = carryStart + carryLength;
+        if (start < carryEnd) {
+          out.write(carry, (int) (start - carryStart), (int) (Math.min(to, carryEnd) - start));
+        }
+        carryLength = 0;
+      }
+      long from = Math.max(start, blockStart);
+      if (from < to) {
+        out.write(block, (int) (from - blockStart), (int) (to - from));
+      }
+    }
+
+    /**
+     * Keeps the bytes behind the last complete token, which may contain the start of the forwarded value. The carried
+     * bytes always end at the start of the next block.
+     */
+    private void keepCarry(long blockEnd) {
+      long keepFrom = Math.max(lastTokenEnd, carryStart);
+      int fromCarry = (int) Math.max(blockStart - keepFrom, 0);
+      System.arraycopy(carry, carryLength - fromCarry, carry, 0, fromCarry);
+      long blockFrom = Math.max(keepFrom, blockStart);
+      int fromBlock = (int) (blockEnd - blockFrom);
+      if (carry.length < fromCarry + fromBlock) {
+        carry = Arrays.copyOf(carry, fromCarry + fromBlock);
+      }
+      System.arraycopy(block, (int) (blockFrom - blockStart), carry, fromCarry, fromBlock);
+      carryLength = fromCarry + fromBlock;
+      carryStart = blockEnd - carryLength;
+    }
+  }
+}
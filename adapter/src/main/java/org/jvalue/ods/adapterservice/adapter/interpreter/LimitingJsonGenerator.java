@@ -0,0 +1,174 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Fails as soon as the interpreted data nests deeper than the given depth or its top-level array contains more than
+ * the given number of records. Data written as a sequence of root-level values (e.g. one record per line) is limited
+ * to the same number of values. As the interpreters stream their results, the limits are enforced while interpreting.
+ */
+public class LimitingJsonGenerator extends JsonGeneratorDelegate {
+  private final int maxDepth;
+  private final long maxRecords;
+  private int depth;
+  private boolean topLevelArray;
+  private long records;
+  private long rootValues;
+
+  public LimitingJsonGenerator(JsonGenerator delegate, int maxDepth, long maxRecords) {
+    // the copy methods have to write through this generator, otherwise copied structures would bypass the limits.
+    // For the same reason, all overridden methods write to the delegate directly instead of the inherited defaults.
+    super(delegate, false);
+    this.maxDepth = maxDepth;
+    this.maxRecords = maxRecords;
+  }
+
+  @Override
+  public void writeStartArray() throws IOException {
+    enter(true);
+    delegate.writeStartArray();
+  }
+
+  @Override
+  public void writeStartArray(int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(size);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue, int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue, size);
+  }
+
+  @Override
+  public void writeEndArray() throws IOException {
+    depth--;
+    delegate.writeEndArray();
+  }
+
+  @Override
+  public void writeStartObject() throws IOException {
+    enter(false);
+    delegate.writeStartObject();
+  }
+
+  @Override
+  public void writeStartObject(Object forValue) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue);
+  }
+
+  @Override
+  public void writeStartObject(Object forValue, int size) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue, size);
+  }
+
+  @Override
+  public void writeEndObject() throws IOException {
+    depth--;
+    delegate.writeEndObject();
+  }
+
+  @Override
+  public void writeString(String text) throws IOException {
+    countRecord();
+    delegate.writeString(text);
+  }
+
+  @Override
+  public void writeString(char[] text, int offset, int len) throws IOException {
+    countRecord();
+    delegate.writeString(text, offset, len);
+  }
+
+  @Override
+  public void writeNumber(short v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(int v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(long v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(BigInteger v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(float v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(double v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(BigDecimal v) throws IOException {
+    countRecord();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(String encodedValue) throws IOException {
+    countRecord();
+    delegate.writeNumber(encodedValue);
+  }
+
+  @Override
+  public void writeBoolean(boolean state) throws IOException {
+    countRecord();
+    delegate.writeBoolean(state);
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    countRecord();
+    delegate.writeNull();
+  }
+
+  private void enter(boolean array) throws ImportLimitExceededException {
+    countRecord();
+    if (depth == 0) {
+      topLevelArray = array;
+    }
+    depth++;
+    if (depth > maxDepth) {
+      throw new ImportLimitExceededException("Interpreted data exceeds the maximum nesting depth of " + maxDepth);
+    }
+  }
+
+  private void countRecord() throws ImportLimitExceededException {
+    if (depth == 0 && ++rootValues > maxRecords || depth == 1 && topLevelArray && ++records > maxRecords) {
+      throw new ImportLimitExceededException("Interpreted data exceeds the maximum of " + maxRecords + " records");
+    }
+  }
+}
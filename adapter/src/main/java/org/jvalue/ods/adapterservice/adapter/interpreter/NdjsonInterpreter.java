@@ -0,0 +1,168 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interprets newline-delimited JSON (NDJSON, JSON Lines), i.e. one JSON value per line. The values are copied token by
+ * token, so only a single token is held in memory, and are written as a JSON array or again one per line.
+ */
+public class NdjsonInterpreter extends Interpreter {
+  // optional parameter, "array" (default) to write the records as a JSON array or "lines" to write one per line, which
+  // is only supported by previews, as imports of datasources have to result in a single JSON value
+  public static final String OUTPUT = "output";
+  public static final String OUTPUT_ARRAY = "array";
+  public static final String OUTPUT_LINES = "lines";
+  private static final SerializableString LINE_SEPARATOR = new SerializedString("\n");
+
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    new InterpreterParameterDescription(OUTPUT, "Write the records as a JSON array (array, default) or one per line (lines, only for previews)", false, String.class),
+    ParallelChunks.DESCRIPTION
+  );
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final int chunkSize;
+
+  public NdjsonInterpreter() {
+    this(ChunkReader.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param chunkSize the size of the chunks the data is split into for parallel parsing
+   */
+  NdjsonInterpreter(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public String getType() {
+    return "NDJSON";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Interpret data as newline-delimited JSON";
+  }
+
+  @Override
+  public List<InterpreterParameterDescription> getAvailableParameters() {
+    return parameters;
+  }
+
+  @Override
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+
+    Object output = inputParameters.get(OUTPUT);
+    if (output != null && !OUTPUT_ARRAY.equals(output) && !OUTPUT_LINES.equals(output)) {
+      throw new InterpreterParameterException(getType() + " interpreter requires parameter " + OUTPUT +
+        " to have value " + OUTPUT_ARRAY + " or " + OUTPUT_LINES + ". Your given value " + output + " is invalid!");
+    }
+
+    ParallelChunks.validate(getType(), inputParameters);
+  }
+
+  @Override
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    boolean lines = OUTPUT_LINES.equals(parameters.get(OUTPUT));
+    int parallelism = ParallelChunks.get(parameters);
+    return (data, out) -> {
+      if (lines) {
+        out.setRootValueSeparator(LINE_SEPARATOR);
+      } else {
+        out.writeStartArray();
+      }
+      if (parallelism > 1) {
+        writeRecordsParallel(new ChunkReader(data, chunkSize), parallelism, out);
+      } else {
+        writeRecords(data, out);
+      }
+      if (!lines) {
+        out.writeEndArray();
+      }
+    };
+  }
+
+  /**
+   * The parser reads the lines as a sequence of root-level values, blank lines are skipped as whitespace.
+   */
+  private void writeRecords(InputStream data, JsonGenerator out) throws IOException {
+    try (JsonParser records = new LineDelimitedParser(jsonFactory.createParser(data))) {
+      while (records.nextToken() != null) {
+        out.copyCurrentStructure(records);
+      }
+    }
+  }
+
+  /**
+   * Parses line-aligned chunks of the data in parallel. A line break cannot be part of a JSON value on a single line,
+   * so every line break ends a record.
+   */
+  private void writeRecordsParallel(ChunkReader chunks, int parallelism, JsonGenerator out) throws IOException {
+    try (ParallelChunks parsing = new ParallelChunks(parallelism, out)) {
+      byte[] chunk;
+      while ((chunk = chunks.next()) != null) {
+        JsonParser records = new LineDelimitedParser(jsonFactory.createParser(chunk));
+        parsing.add(chunk, records);
+      }
+      parsing.flush();
+    }
+  }
+
+  /**
+   * Fails on values that span several lines or share a line, which the sequential parser would otherwise accept while
+   * the parallel one cannot split them into line-aligned chunks.
+   */
+  private static class LineDelimitedParser extends JsonParserDelegate {
+    private int depth;
+    private int valueLine;
+    private int lastValueLine;
+
+    LineDelimitedParser(JsonParser parser) {
+      super(parser);
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+      JsonToken token = super.nextToken();
+      if (token == null) {
+        return null;
+      }
+      int line = getTokenLocation().getLineNr();
+      if (depth == 0) {
+        if (line == lastValueLine) {
+          throw new JsonParseException(this, "Expected a single JSON value per line");
+        }
+        valueLine = line;
+      } else if (line != valueLine) {
+        throw new JsonParseException(this, "Expected a JSON value to end on the line it starts");
+      }
+      if (token.isStructStart()) {
+        depth++;
+      } else if (token.isStructEnd()) {
+        depth--;
+      }
+      if (depth == 0) {
+        lastValueLine = line;
+      }
+      return token;
+    }
+  }
+}
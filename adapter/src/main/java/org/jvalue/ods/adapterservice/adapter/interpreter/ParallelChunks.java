@@ -0,0 +1,179 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses chunks of data on a bounded pool of parser threads and writes their tokens in the order the chunks were
+ * added, which results in the same output as a sequential interpretation. At most the given number of chunks, and
+ * never more than {@value #MAX_PARALLELISM}, are held in memory. Closing cancels the chunks that were not written.
+ * Chunks that can not be parsed fail with the line numbers of the whole data.
+ */
+class ParallelChunks implements Closeable {
+  // optional parameter of the formats that are split by a ChunkReader, the number of chunks parsed in parallel
+  static final String PARALLELISM = "parallelism";
+  static final InterpreterParameterDescription DESCRIPTION = new InterpreterParameterDescription(PARALLELISM,
+    "Number of chunks of the data that are parsed in parallel, 1 (default) to parse the data sequentially", false,
+    Integer.class);
+  static final int MAX_PARALLELISM = 16;
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+  // once all parser threads are busy and the queue is full, the interpreting threads parse their chunks themselves
+  private static final ExecutorService PARSERS = createParsers();
+
+  private final int parallelism;
+  private final JsonGenerator out;
+  private final Deque<Future<ParsedChunk>> parsing = new ArrayDeque<>();
+  // lines of the chunks that were written
+  private int lineOffset;
+
+  ParallelChunks(int parallelism, JsonGenerator out) {
+    this.parallelism = Math.min(parallelism, MAX_PARALLELISM);
+    this.out = out;
+  }
+
+  static void validate(String type, Map<String, Object> parameters) throws InterpreterParameterException {
+    Object parallelism = parameters.get(PARALLELISM);
+    if (parallelism != null && (!(parallelism instanceof Integer) || (int) parallelism < 1)) {
+      throw new InterpreterParameterException(type + " interpreter requires parameter " + PARALLELISM +
+        " to be a positive integer. Your given value " + parallelism + " is invalid!");
+    }
+  }
+
+  /**
+   * @return the number of chunks to parse in parallel, 1 if the data is parsed sequentially
+   */
+  static int get(Map<String, Object> parameters) {
+    return (int) parameters.getOrDefault(PARALLELISM, 1);
+  }
+
+  /**
+   * Starts parsing a chunk, after writing the oldest chunk if the maximum number of chunks is in progress.
+   *
+   * @param chunk  the data of the chunk
+   * @param values the parser of the chunk, which is copied starting with its current token if it has one
+   */
+  void add(byte[] chunk, JsonParser values) throws IOException {
+    if (parsing.size() >= parallelism) {
+      write(parsing.remove());
+    }
+    parsing.add(PARSERS.submit(() -> new ParsedChunk(copy(values), countLines(chunk))));
+  }
+
+  /**
+   * Writes all added chunks.
+   */
+  void flush() throws IOException {
+    while (!parsing.isEmpty()) {
+      write(parsing.remove());
+    }
+  }
+
+  @Override
+  public void close() {
+    parsing.forEach(pending -> pending.cancel(false));
+  }
+
+  private void write(Future<ParsedChunk> chunk) throws IOException {
+    ParsedChunk parsed;
+    try {
+      parsed = await(chunk);
+    } catch (JsonProcessingException e) {
+      throw atLine(e, lineOffset);
+    }
+    parsed.values.serialize(out);
+    lineOffset += parsed.lines;
+  }
+
+  private static TokenBuffer copy(JsonParser values) throws IOException {
+    try (values) {
+      TokenBuffer buffer = new TokenBuffer(null, false);
+      JsonToken token = values.hasCurrentToken() ? values.currentToken() : values.nextToken();
+      for (; token != null; token = values.nextToken()) {
+        buffer.copyCurrentStructure(values);
+      }
+      return buffer;
+    }
+  }
+
+  /**
+   * Counts the lines like the parsers do: \n, \r\n and \r each end a line.
+   */
+  private static int countLines(byte[] chunk) {
+    int lines = 0;
+    for (int i = 0; i < chunk.length; i++) {
+      if (chunk[i] == '\n' || chunk[i] == '\r' && (i + 1 == chunk.length || chunk[i + 1] != '\n')) {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * @return the given error of a chunk, with the line numbers of the whole data
+   */
+  private static JsonProcessingException atLine(JsonProcessingException e, int lineOffset) {
+    JsonLocation location = e.getLocation();
+    if (location == null || lineOffset == 0) {
+      return e;
+    }
+    return new JsonParseException(null, e.getOriginalMessage(),
+      new JsonLocation(null, -1L, -1L, location.getLineNr() + lineOffset, location.getColumnNr()), e);
+  }
+
+  private static ParsedChunk await(Future<ParsedChunk> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while parsing data");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private static ExecutorService createParsers() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("chunk-parser-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor parsers = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+      new ArrayBlockingQueue<>(THREADS * MAX_PARALLELISM), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    parsers.allowCoreThreadTimeOut(true);
+    return parsers;
+  }
+
+  private static class ParsedChunk {
+    private final TokenBuffer values;
+    private final int lines;
+
+    ParsedChunk(TokenBuffer values, int lines) {
+      this.values = values;
+      this.lines = lines;
+    }
+  }
+}
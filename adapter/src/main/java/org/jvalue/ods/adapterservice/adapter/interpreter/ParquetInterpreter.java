@@ -0,0 +1,220 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interprets Parquet files as an array of records, one object per row. The file is read one row group at a time and
+ * only the column chunks of the selected columns are read. Dates and timestamps are written as the numbers they are
+ * stored as. The file is read without the Hadoop file system, Hadoop is only needed for the configuration of the
+ * compression codecs.
+ */
+public class ParquetInterpreter extends Interpreter {
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    ColumnProjection.DESCRIPTION
+  );
+
+  @Override
+  public String getType() {
+    return "PARQUET";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Interpret data as Parquet file";
+  }
+
+  @Override
+  public List<InterpreterParameterDescription> getAvailableParameters() {
+    return parameters;
+  }
+
+  @Override
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+    ColumnProjection.validate(getType(), inputParameters);
+  }
+
+  @Override
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    List<String> columns = ColumnProjection.get(parameters);
+    return (data, out) -> {
+      // the metadata is stored at the end of the file
+      try (SpooledData spooled = SpooledData.of(data);
+           ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(spooled.getPath()))) {
+        MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+        MessageType projection = project(schema, columns);
+        reader.setRequestedSchema(projection);
+        MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(projection, schema);
+
+        out.writeStartArray();
+        PageReadStore rowGroup;
+        while ((rowGroup = reader.readNextRowGroup()) != null) {
+          RecordReader<Group> rows = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(projection));
+          for (long row = 0; row < rowGroup.getRowCount(); row++) {
+            writeGroup(rows.read(), projection, out);
+          }
+        }
+        out.writeEndArray();
+      } catch (RuntimeException e) {
+        // Parquet signals invalid data (e.g. a missing footer or corrupt pages) with unchecked exceptions
+        throw new IOException("Failed to read Parquet data: " + e.getMessage(), e);
+      }
+    };
+  }
+
+  private static MessageType project(MessageType schema, List<String> columns) throws IOException {
+    if (columns == null) {
+      return schema;
+    }
+    List<Type> fields = new ArrayList<>();
+    for (String column : columns) {
+      if (!schema.containsField(column)) {
+        throw new IOException("Parquet data has no column " + column);
+      }
+      fields.add(schema.getType(column));
+    }
+    return new MessageType(schema.getName(), fields);
+  }
+
+  private static void writeGroup(Group group, GroupType type, JsonGenerator out) throws IOException {
+    out.writeStartObject();
+    for (int field = 0; field < type.getFieldCount(); field++) {
+      Type fieldType = type.getType(field);
+      out.writeFieldName(fieldType.getName());
+      int count = group.getFieldRepetitionCount(field);
+      if (fieldType.isRepetition(Type.Repetition.REPEATED)) {
+        out.writeStartArray();
+        for (int index = 0; index < count; index++) {
+          writeValue(group, field, index, fieldType, out);
+        }
+        out.writeEndArray();
+      } else if (count == 0) {
+        out.writeNull();
+      } else {
+        writeValue(group, field, 0, fieldType, out);
+      }
+    }
+    out.writeEndObject();
+  }
+
+  private static void writeValue(Group group, int field, int index, Type type, JsonGenerator out) throws IOException {
+    if (!type.isPrimitive()) {
+      writeGroup(group.getGroup(field, index), type.asGroupType(), out);
+      return;
+    }
+    PrimitiveType primitive = type.asPrimitiveType();
+    LogicalTypeAnnotation logicalType = primitive.getLogicalTypeAnnotation();
+    if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+      int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale();
+      out.writeNumber(new BigDecimal(unscaledValue(group, field, index, primitive), scale));
+      return;
+    }
+    switch (primitive.getPrimitiveTypeName()) {
+      case BOOLEAN:
+        out.writeBoolean(group.getBoolean(field, index));
+        break;
+      case INT32:
+        out.writeNumber(group.getInteger(field, index));
+        break;
+      case INT64:
+        out.writeNumber(group.getLong(field, index));
+        break;
+      case FLOAT:
+        out.writeNumber(group.getFloat(field, index));
+        break;
+      case DOUBLE:
+        out.writeNumber(group.getDouble(field, index));
+        break;
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+        if (logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+            || logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+            || logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+          out.writeString(group.getString(field, index));
+        } else {
+          out.writeBinary(group.getBinary(field, index).getBytes());
+        }
+        break;
+      default:
+        // legacy INT96 timestamps
+        out.writeString(group.getValueToString(field, index));
+    }
+  }
+
+  private static BigInteger unscaledValue(Group group, int field, int index, PrimitiveType type) {
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+        return BigInteger.valueOf(group.getInteger(field, index));
+      case INT64:
+        return BigInteger.valueOf(group.getLong(field, index));
+      default:
+        return new BigInteger(group.getBinary(field, index).getBytes());
+    }
+  }
+
+  /**
+   * A Parquet file in the local file system, which is read without the Hadoop file system.
+   */
+  private static class LocalInputFile implements InputFile {
+    private final Path file;
+
+    LocalInputFile(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+      return Files.size(file);
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+      FileChannel channel = FileChannel.open(file);
+      return new DelegatingSeekableInputStream(Channels.newInputStream(channel)) {
+        @Override
+        public long getPos() throws IOException {
+          return channel.position();
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+          channel.position(newPos);
+        }
+      };
+    }
+  }
+}
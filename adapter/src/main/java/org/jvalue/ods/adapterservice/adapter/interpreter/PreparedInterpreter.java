@@ -0,0 +1,20 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interpretation with parameters that were validated once, see {@link Interpreter#prepare(java.util.Map)}.
+ */
+@FunctionalInterface
+public interface PreparedInterpreter {
+
+  /**
+   * @param data the UTF-8 encoded raw data
+   * @param out  the generator the JSON result is written to, not closed by this method
+   * @throws IOException on errors when reading or interpreting the data
+   */
+  void interpret(InputStream data, JsonGenerator out) throws IOException;
+}
@@ -0,0 +1,220 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection and filter of the interpreted records, configured by the optional format parameters {@value #FIELDS} and
+ * {@value #FILTER} of all formats. Fields and conditions refer to values by top-level field names or JSON pointers.
+ * Immutable, so it can be used concurrently.
+ */
+public class RecordFilter {
+  // optional parameter, the fields to keep of each record, e.g. ["id", "/address/city"]
+  public static final String FIELDS = "fields";
+  // optional parameter, the conditions records have to meet, e.g. [{"field": "year", "op": "ge", "value": 2020}]
+  public static final String FILTER = "filter";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final List<JsonPointer> fields;
+  private final List<Condition> conditions;
+
+  private RecordFilter(List<JsonPointer> fields, List<Condition> conditions) {
+    this.fields = fields;
+    this.conditions = conditions;
+  }
+
+  /**
+   * @param parameters the format parameters
+   * @return the configured filter, null if the parameters neither project nor filter the records
+   * @throws InterpreterParameterException on errors in the fields or conditions
+   */
+  public static RecordFilter of(Map<String, Object> parameters) throws InterpreterParameterException {
+    Object fields = parameters.get(FIELDS);
+    Object filter = parameters.get(FILTER);
+    if (fields == null && filter == null) {
+      return null;
+    }
+
+    List<JsonPointer> pointers = null;
+    if (fields != null) {
+      if (!(fields instanceof List) || ((List<?>) fields).isEmpty()) {
+        throw new InterpreterParameterException("Parameter " + FIELDS + " has to be a non-empty list of field " +
+          "names or JSON pointers. Your given value " + fields + " is invalid!");
+      }
+      pointers = new ArrayList<>();
+      for (Object field : (List<?>) fields) {
+        pointers.add(toPointer(FIELDS, field));
+      }
+    }
+
+    List<Condition> conditions = new ArrayList<>();
+    if (filter != null) {
+      for (Object condition : filter instanceof List ? (List<?>) filter : List.of(filter)) {
+        conditions.add(Condition.of(condition));
+      }
+    }
+    return new RecordFilter(pointers, conditions);
+  }
+
+  /**
+   * @return the projected record, null if the record does not meet the conditions
+   */
+  public JsonNode apply(JsonNode record) {
+    for (Condition condition : conditions) {
+      if (!condition.test(record.at(condition.field))) {
+        return null;
+      }
+    }
+    if (fields == null) {
+      return record;
+    }
+    ObjectNode projected = MAPPER.createObjectNode();
+    for (JsonPointer field : fields) {
+      JsonNode value = record.at(field);
+      if (!value.isMissingNode()) {
+        put(projected, field, value);
+      }
+    }
+    return projected;
+  }
+
+  /**
+   * Nested fields are kept at their path, e.g. {"address": {"city": ...}}. A field inside another projected field is
+   * already part of it.
+   */
+  private static void put(ObjectNode projected, JsonPointer field, JsonNode value) {
+    ObjectNode parent = projected;
+    JsonPointer segment = field;
+    for (; !segment.tail().matches(); segment = segment.tail()) {
+      JsonNode child = parent.get(segment.getMatchingProperty());
+      if (child == null) {
+        child = parent.putObject(segment.getMatchingProperty());
+      } else if (!child.isObject()) {
+        return;
+      }
+      parent = (ObjectNode) child;
+    }
+    parent.set(segment.getMatchingProperty(), value);
+  }
+
+  /**
+   * Field names are pointers to top-level fields, values starting with a slash are JSON pointers.
+   */
+  private static JsonPointer toPointer(String parameter, Object field) throws InterpreterParameterException {
+    if (!(field instanceof String) || ((String) field).isEmpty()) {
+      throw new InterpreterParameterException("Parameter " + parameter + " requires field names or JSON pointers. " +
+        "Your given value " + field + " is invalid!");
+    }
+    String name = (String) field;
+    if (!name.startsWith("/")) {
+      return JsonPointer.compile("/" + name.replace("~", "~0").replace("/", "~1"));
+    }
+    try {
+      return JsonPointer.compile(name);
+    } catch (IllegalArgumentException e) {
+      throw new InterpreterParameterException("Parameter " + parameter + " requires field names or JSON pointers. " +
+        "Your given value " + field + " is invalid!");
+    }
+  }
+
+  private enum Operator {
+    EQ, NE, LT, LE, GT, GE, EXISTS
+  }
+
+  private static class Condition {
+    private final JsonPointer field;
+    private final Operator operator;
+    private final JsonNode value;
+
+    private Condition(JsonPointer field, Operator operator, JsonNode value) {
+      this.field = field;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    static Condition of(Object condition) throws InterpreterParameterException {
+      if (!(condition instanceof Map)) {
+        throw new InterpreterParameterException("Parameter " + FILTER + " requires conditions like " +
+          "{\"field\": \"year\", \"op\": \"ge\", \"value\": 2020}. Your given value " + condition + " is invalid!");
+      }
+      Map<?, ?> parameters = (Map<?, ?>) condition;
+      Operator operator;
+      try {
+        operator = Operator.valueOf(String.valueOf(parameters.get("op")).toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new InterpreterParameterException("Parameter " + FILTER + " requires the op of a condition to be one " +
+          "of eq, ne, lt, le, gt, ge or exists. Your given value " + parameters.get("op") + " is invalid!");
+      }
+      if (operator != Operator.EXISTS && !parameters.containsKey("value")) {
+        throw new InterpreterParameterException("Parameter " + FILTER + " requires a value for the op " +
+          parameters.get("op") + ". Your given value " + condition + " is invalid!");
+      }
+      Object value = parameters.get("value");
+      return new Condition(toPointer(FILTER, parameters.get("field")), operator,
+        value == null ? NullNode.getInstance() : MAPPER.valueToTree(value));
+    }
+
+    boolean test(JsonNode actual) {
+      if (operator == Operator.EXISTS) {
+        return !actual.isMissingNode() && !actual.isNull();
+      }
+      Integer comparison = compare(actual);
+      switch (operator) {
+        case EQ:
+          return comparison != null ? comparison == 0 : actual.equals(value);
+        case NE:
+          return comparison != null ? comparison != 0 : !actual.equals(value);
+        case LT:
+          return comparison != null && comparison < 0;
+        case LE:
+          return comparison != null && comparison <= 0;
+        case GT:
+          return comparison != null && comparison > 0;
+        default:
+          return comparison != null && comparison >= 0;
+      }
+    }
+
+    /**
+     * Numbers are compared numerically, also to numeric text as interpreted from CSV data. Text is compared to the
+     * text of scalar values.
+     *
+     * @return the comparison of the actual and the expected value, null if they are not comparable
+     */
+    private Integer compare(JsonNode actual) {
+      if (value.isNumber()) {
+        BigDecimal number = toNumber(actual);
+        return number == null ? null : number.compareTo(value.decimalValue());
+      }
+      if (value.isTextual() && actual.isValueNode() && !actual.isNull()) {
+        return actual.asText().compareTo(value.textValue());
+      }
+      return null;
+    }
+
+    private static BigDecimal toNumber(JsonNode node) {
+      if (node.isNumber()) {
+        return node.decimalValue();
+      }
+      if (node.isTextual()) {
+        try {
+          return new BigDecimal(node.textValue().trim());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      }
+      return null;
+    }
+  }
+}
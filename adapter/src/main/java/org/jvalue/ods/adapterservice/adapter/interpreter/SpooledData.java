@@ -0,0 +1,40 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Data buffered in a temporary file, for formats whose parts have to be read in a different order than they are
+ * stored in (e.g. with an index at the end). Closing deletes the file.
+ */
+class SpooledData implements Closeable {
+  private final Path file;
+
+  private SpooledData(Path file) {
+    this.file = file;
+  }
+
+  static SpooledData of(InputStream data) throws IOException {
+    SpooledData spooled = new SpooledData(Files.createTempFile("import", ".tmp"));
+    try {
+      Files.copy(data, spooled.file, StandardCopyOption.REPLACE_EXISTING);
+      return spooled;
+    } catch (IOException | RuntimeException e) {
+      spooled.close();
+      throw e;
+    }
+  }
+
+  Path getPath() {
+    return file;
+  }
+
+  @Override
+  public void close() throws IOException {
+    Files.deleteIfExists(file);
+  }
+}
@@ -0,0 +1,216 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Stops the interpretation once the top-level array of the interpreted data contains the given number of records,
+ * by failing the next write of a record. Records are written to the target generator only once they are complete,
+ * so the output stays a well-formed prefix of the records even if the interpretation fails in the middle of a record
+ * (e.g. because the raw data was cut off).
+ */
+public class TruncatingJsonGenerator extends JsonGeneratorDelegate {
+  private final JsonGenerator target;
+  private final long maxRecords;
+  private int depth;
+  private boolean topLevelArray;
+  private long records;
+  private boolean truncated;
+
+  public TruncatingJsonGenerator(JsonGenerator target, long maxRecords) {
+    // the copy methods have to write through this generator, otherwise copied records would bypass the buffering
+    super(target, false);
+    this.target = target;
+    this.maxRecords = maxRecords;
+  }
+
+  /**
+   * @return true, if the interpretation was stopped because the maximum number of records was reached
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * @return true, if the interpreted data is an array, i.e. consists of records
+   */
+  public boolean hasTopLevelArray() {
+    return topLevelArray;
+  }
+
+  @Override
+  public void writeStartArray() throws IOException {
+    enter(true);
+    delegate.writeStartArray();
+  }
+
+  @Override
+  public void writeStartArray(int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(size);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue);
+  }
+
+  @Override
+  public void writeStartArray(Object forValue, int size) throws IOException {
+    enter(true);
+    delegate.writeStartArray(forValue, size);
+  }
+
+  @Override
+  public void writeEndArray() throws IOException {
+    delegate.writeEndArray();
+    leave();
+  }
+
+  @Override
+  public void writeStartObject() throws IOException {
+    enter(false);
+    delegate.writeStartObject();
+  }
+
+  @Override
+  public void writeStartObject(Object forValue) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue);
+  }
+
+  @Override
+  public void writeStartObject(Object forValue, int size) throws IOException {
+    enter(false);
+    delegate.writeStartObject(forValue, size);
+  }
+
+  @Override
+  public void writeEndObject() throws IOException {
+    delegate.writeEndObject();
+    leave();
+  }
+
+  @Override
+  public void writeString(String text) throws IOException {
+    startScalar();
+    delegate.writeString(text);
+  }
+
+  @Override
+  public void writeString(char[] text, int offset, int len) throws IOException {
+    startScalar();
+    delegate.writeString(text, offset, len);
+  }
+
+  @Override
+  public void writeNumber(short v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(int v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(long v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(BigInteger v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(float v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(double v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(BigDecimal v) throws IOException {
+    startScalar();
+    delegate.writeNumber(v);
+  }
+
+  @Override
+  public void writeNumber(String encodedValue) throws IOException {
+    startScalar();
+    delegate.writeNumber(encodedValue);
+  }
+
+  @Override
+  public void writeBoolean(boolean state) throws IOException {
+    startScalar();
+    delegate.writeBoolean(state);
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    startScalar();
+    delegate.writeNull();
+  }
+
+  /**
+   * Drops an incomplete record and closes the target, which closes the top-level array.
+   */
+  @Override
+  public void close() throws IOException {
+    delegate = target;
+    target.close();
+  }
+
+  private void enter(boolean array) throws IOException {
+    if (depth == 0) {
+      topLevelArray = array;
+    } else if (isRecordLevel()) {
+      startRecord();
+      delegate = new TokenBuffer(null, false);
+    }
+    depth++;
+  }
+
+  private void leave() throws IOException {
+    depth--;
+    if (isRecordLevel() && delegate != target) {
+      ((TokenBuffer) delegate).serialize(target);
+      delegate = target;
+    }
+  }
+
+  private void startScalar() throws IOException {
+    if (isRecordLevel()) {
+      startRecord();
+    }
+  }
+
+  private void startRecord() throws IOException {
+    if (records >= maxRecords) {
+      truncated = true;
+      throw new IOException("Interpretation stopped after " + maxRecords + " records");
+    }
+    records++;
+  }
+
+  private boolean isRecordLevel() {
+    return depth == 1 && topLevelArray;
+  }
+}
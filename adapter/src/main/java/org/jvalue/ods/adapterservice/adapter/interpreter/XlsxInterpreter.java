@@ -0,0 +1,142 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jvalue.ods.adapterservice.adapter.importer.SizeLimitedInputStream;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interprets a sheet of an Excel workbook (XLSX) like CSV data, each row becomes an array of its cell values or an
+ * object keyed by the header row. The workbook is buffered in a temporary file, as the parts of the zip archive have
+ * to be read in a different order than they are stored in, and the sheet is then streamed row by row. The parts are
+ * limited to the maximum size of the data, i.e. the body limit of the import.
+ */
+public class XlsxInterpreter extends Interpreter {
+  // optional parameter, the name of the sheet to interpret, the first sheet of the workbook by default
+  static final String SHEET = "sheet";
+  // limit of the parts of data without a size limit, the default body limit of the adapter
+  private static final long DEFAULT_MAX_PART_SIZE = DataSize.ofGigabytes(1).toBytes();
+
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    new InterpreterParameterDescription("skipFirstDataRow", "Skip first data row (after header)", Boolean.class),
+    new InterpreterParameterDescription("firstRowAsHeader", "Interpret first row as header for columns", Boolean.class),
+    new InterpreterParameterDescription(SHEET, "Name of the sheet to interpret, the first sheet of the workbook by default", false, String.class)
+  );
+
+  @Override
+  public String getType() {
+    return "XLSX";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Interpret data as Excel workbook (XLSX)";
+  }
+
+  @Override
+  public List<InterpreterParameterDescription> getAvailableParameters() {
+    return parameters;
+  }
+
+  @Override
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+
+    Object sheet = inputParameters.get(SHEET);
+    if (sheet != null && (!(sheet instanceof String) || ((String) sheet).isEmpty())) {
+      throw new InterpreterParameterException(getType() + " interpreter requires parameter " + SHEET +
+        " to be a sheet name. Your given value " + sheet + " is invalid!");
+    }
+  }
+
+  @Override
+  protected void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    String sheet = (String) parameters.get(SHEET);
+    boolean firstRowAsHeader = (boolean) parameters.get("firstRowAsHeader");
+    boolean skipFirstDataRow = (boolean) parameters.get("skipFirstDataRow");
+    return (data, out) -> {
+      long maxPartSize = data instanceof SizeLimitedInputStream
+        ? ((SizeLimitedInputStream) data).getMaxSize() : DEFAULT_MAX_PART_SIZE;
+      try (SpooledData spooled = SpooledData.of(data);
+           XlsxWorkbook workbook = XlsxWorkbook.open(spooled.getPath().toFile(), maxPartSize);
+           XlsxWorkbook.Rows rows = workbook.readSheet(sheet)) {
+        writeRows(rows, firstRowAsHeader, skipFirstDataRow, out);
+      }
+    };
+  }
+
+  /**
+   * Empty rows are skipped. Cells without a header are keyed by their column name (e.g. C).
+   */
+  private void writeRows(XlsxWorkbook.Rows rows, boolean firstRowAsHeader, boolean skipFirstDataRow,
+                         JsonGenerator out) throws IOException {
+    List<String> header = null;
+    List<Object> row = rows.next();
+    if (firstRowAsHeader && row != null) {
+      header = new ArrayList<>();
+      for (int column = 0; column < row.size(); column++) {
+        Object name = row.get(column);
+        header.add(name == null || name.toString().isEmpty() ? columnName(column) : name.toString());
+      }
+      row = rows.next();
+    }
+    if (skipFirstDataRow && row != null) {
+      row = rows.next();
+    }
+
+    out.writeStartArray();
+    for (; row != null; row = rows.next()) {
+      if (header == null) {
+        out.writeStartArray();
+        for (Object value : row) {
+          writeValue(value, out);
+        }
+        out.writeEndArray();
+      } else {
+        out.writeStartObject();
+        for (int column = 0; column < Math.max(header.size(), row.size()); column++) {
+          out.writeFieldName(column < header.size() ? header.get(column) : columnName(column));
+          writeValue(column < row.size() ? row.get(column) : null, out);
+        }
+        out.writeEndObject();
+      }
+    }
+    out.writeEndArray();
+  }
+
+  private static void writeValue(Object value, JsonGenerator out) throws IOException {
+    if (value == null) {
+      out.writeNull();
+    } else if (value instanceof Boolean) {
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof BigDecimal) {
+      out.writeNumber((BigDecimal) value);
+    } else {
+      out.writeString(value.toString());
+    }
+  }
+
+  /**
+   * @return the name of the column with the given zero-based index, e.g. AB for 27
+   */
+  static String columnName(int column) {
+    StringBuilder name = new StringBuilder();
+    for (int i = column + 1; i > 0; i = (i - 1) / 26) {
+      name.insert(0, (char) ('A' + (i - 1) % 26));
+    }
+    return name.toString();
+  }
+}
@@ -0,0 +1,328 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import org.jvalue.ods.adapterservice.adapter.importer.SizeLimitedInputStream;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * An XLSX workbook, i.e. a zip archive of XML parts. All parts are read with a streaming XML reader instead of being
+ * loaded as documents. Only the shared strings table is held in memory, as cells refer to it by index, sheets are read
+ * one row at a time. Each part is limited to the size of the whole import, as parts compress very well (zip bombs),
+ * and cells are limited to the first {@value #MAX_COLUMNS} columns, as every row is padded up to its last cell.
+ */
+class XlsxWorkbook implements Closeable {
+  private static final String WORKBOOK = "/xl/workbook.xml";
+  private static final String WORKBOOK_RELATIONSHIPS = "xl/_rels/workbook.xml.rels";
+  private static final String SHARED_STRINGS_TYPE = "/sharedStrings";
+  static final int MAX_COLUMNS = 1024;
+  private static final XMLInputFactory XML_FACTORY = XMLInputFactory.newFactory();
+
+  static {
+    XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  private final ZipFile archive;
+  private final long maxPartSize;
+  // the part names of the sheets by sheet name, in workbook order
+  private final Map<String, String> sheets = new LinkedHashMap<>();
+  private final List<String> sharedStrings = new ArrayList<>();
+
+  private XlsxWorkbook(ZipFile archive, long maxPartSize) {
+    this.archive = archive;
+    this.maxPartSize = maxPartSize;
+  }
+
+  /**
+   * Reads the sheet names and the shared strings of the workbook in the given file.
+   *
+   * @param maxPartSize the maximum uncompressed size of a part, reading a larger part fails
+   */
+  static XlsxWorkbook open(File file, long maxPartSize) throws IOException {
+    XlsxWorkbook workbook;
+    try {
+      workbook = new XlsxWorkbook(new ZipFile(file), maxPartSize);
+    } catch (ZipException e) {
+      throw new IOException("Failed to read XLSX data: " + e.getMessage(), e);
+    }
+    try {
+      workbook.readParts();
+      return workbook;
+    } catch (IOException | RuntimeException e) {
+      workbook.close();
+      throw e;
+    } catch (XMLStreamException e) {
+      workbook.close();
+      throw readError(e);
+    }
+  }
+
+  /**
+   * @param name the name of the sheet, null for the first sheet of the workbook
+   * @return the rows of the sheet, which have to be closed after reading
+   */
+  Rows readSheet(String name) throws IOException {
+    String part = name == null ? sheets.values().stream().findFirst().orElse(null) : sheets.get(name);
+    if (part == null) {
+      throw new IOException(name == null ? "XLSX data contains no sheet" : "XLSX data contains no sheet " + name);
+    }
+    return new Rows(openPart(part));
+  }
+
+  @Override
+  public void close() throws IOException {
+    archive.close();
+  }
+
+  private void readParts() throws IOException, XMLStreamException {
+    Map<String, String> targets = new HashMap<>();
+    String sharedStringsPart = null;
+    XMLStreamReader relationships = openPart(WORKBOOK_RELATIONSHIPS);
+    try {
+      while (relationships.hasNext()) {
+        if (relationships.next() == XMLStreamConstants.START_ELEMENT
+            && relationships.getLocalName().equals("Relationship")) {
+          String target = resolve(relationships.getAttributeValue(null, "Target"));
+          targets.put(relationships.getAttributeValue(null, "Id"), target);
+          String type = relationships.getAttributeValue(null, "Type");
+          if (type != null && type.endsWith(SHARED_STRINGS_TYPE)) {
+            sharedStringsPart = target;
+          }
+        }
+      }
+    } finally {
+      relationships.close();
+    }
+
+    XMLStreamReader workbook = openPart(WORKBOOK.substring(1));
+    try {
+      while (workbook.hasNext()) {
+        if (workbook.next() == XMLStreamConstants.START_ELEMENT && workbook.getLocalName().equals("sheet")) {
+          sheets.put(workbook.getAttributeValue(null, "name"), targets.get(relationshipId(workbook)));
+        }
+      }
+    } finally {
+      workbook.close();
+    }
+
+    if (sharedStringsPart != null) {
+      XMLStreamReader strings = openPart(sharedStringsPart);
+      try {
+        while (strings.hasNext()) {
+          if (strings.next() == XMLStreamConstants.START_ELEMENT && strings.getLocalName().equals("si")) {
+            String text = readText(strings, "si");
+            sharedStrings.add(text == null ? "" : text);
+          }
+        }
+      } finally {
+        strings.close();
+      }
+    }
+  }
+
+  /**
+   * @return the relationship id of a sheet, an attribute whose namespace differs between transitional and strict
+   * workbooks
+   */
+  private static String relationshipId(XMLStreamReader sheet) {
+    for (int i = 0; i < sheet.getAttributeCount(); i++) {
+      String namespace = sheet.getAttributeNamespace(i);
+      if (sheet.getAttributeLocalName(i).equals("id") && namespace != null && !namespace.isEmpty()) {
+        return sheet.getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the part name of a relationship target, which is relative to the workbook or absolute
+   */
+  private static String resolve(String target) throws IOException {
+    try {
+      return URI.create(WORKBOOK).resolve(target).getPath().substring(1);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IOException("Failed to read XLSX data: invalid part name " + target);
+    }
+  }
+
+  private XMLStreamReader openPart(String name) throws IOException {
+    ZipEntry entry = archive.getEntry(name);
+    if (entry == null) {
+      throw new IOException("Failed to read XLSX data: missing part " + name);
+    }
+    InputStream part = new SizeLimitedInputStream(archive.getInputStream(entry), maxPartSize);
+    try {
+      return XML_FACTORY.createXMLStreamReader(part);
+    } catch (XMLStreamException e) {
+      part.close();
+      throw readError(e);
+    }
+  }
+
+  /**
+   * @return the error of the XML reader, or the exceeded limit of a part the reader failed on
+   */
+  private static IOException readError(XMLStreamException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ImportLimitExceededException) {
+        return (ImportLimitExceededException) cause;
+      }
+    }
+    return new IOException("Failed to read XLSX data: " + e.getMessage(), e);
+  }
+
+  /**
+   * Reads the text of the current element, i.e. its value or the concatenated runs of a rich text, without phonetic
+   * hints.
+   *
+   * @return the text, null if the element has no value
+   */
+  private static String readText(XMLStreamReader xml, String element) throws XMLStreamException {
+    StringBuilder text = null;
+    boolean phonetic = false;
+    while (xml.hasNext()) {
+      int event = xml.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        String name = xml.getLocalName();
+        if (name.equals("rPh")) {
+          phonetic = true;
+        } else if (!phonetic && (name.equals("v") || name.equals("t"))) {
+          text = text == null ? new StringBuilder() : text;
+          text.append(xml.getElementText());
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        String name = xml.getLocalName();
+        if (name.equals("rPh")) {
+          phonetic = false;
+        } else if (name.equals(element)) {
+          break;
+        }
+      }
+    }
+    return text == null ? null : text.toString();
+  }
+
+  /**
+   * The rows of a sheet. Cell values are strings, booleans or numbers; dates are numbers, as their formatting is not
+   * interpreted.
+   */
+  class Rows implements Closeable {
+    private final XMLStreamReader xml;
+
+    private Rows(XMLStreamReader xml) {
+      this.xml = xml;
+    }
+
+    /**
+     * @return the values of the next row that has values, indexed by column with null for missing cells, null at the
+     * end of the sheet
+     */
+    List<Object> next() throws IOException {
+      try {
+        while (xml.hasNext()) {
+          if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("row")) {
+            List<Object> row = readRow();
+            if (!row.isEmpty()) {
+              return row;
+            }
+          }
+        }
+        return null;
+      } catch (XMLStreamException e) {
+        throw readError(e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        xml.close();
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    private List<Object> readRow() throws XMLStreamException, IOException {
+      List<Object> row = new ArrayList<>();
+      int column = 0;
+      while (xml.hasNext()) {
+        int event = xml.next();
+        if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("row")) {
+          break;
+        }
+        if (event == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("c")) {
+          String reference = xml.getAttributeValue(null, "r");
+          int referenced = reference == null ? -1 : columnIndex(reference);
+          if (referenced >= 0) {
+            column = referenced;
+          }
+          if (column >= MAX_COLUMNS) {
+            throw new IOException("Failed to read XLSX data: cell " + (reference == null ? column + 1 : reference) +
+              " exceeds the maximum of " + MAX_COLUMNS + " columns");
+          }
+          Object value = readValue(xml.getAttributeValue(null, "t"), readText(xml, "c"));
+          if (value != null) {
+            while (row.size() <= column) {
+              row.add(null);
+            }
+            row.set(column, value);
+          }
+          column++;
+        }
+      }
+      return row;
+    }
+
+    private Object readValue(String type, String text) throws IOException {
+      if (text == null) {
+        return null;
+      }
+      try {
+        switch (type == null ? "n" : type) {
+          case "s":
+            return sharedStrings.get(Integer.parseInt(text.trim()));
+          case "b":
+            return text.trim().equals("1");
+          case "n":
+            return text.isBlank() ? null : new BigDecimal(text.trim());
+          default:
+            // inline strings, formula results and errors
+            return text;
+        }
+      } catch (IndexOutOfBoundsException | NumberFormatException e) {
+        throw new IOException("Failed to read XLSX data: invalid " + type + " cell value " + text);
+      }
+    }
+  }
+
+  /**
+   * @return the zero-based column index of a cell reference like AB12, -1 if the reference has no column, at most
+   * {@value #MAX_COLUMNS} for references beyond the supported columns
+   */
+  static int columnIndex(String reference) {
+    int column = 0;
+    for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)) && column <= MAX_COLUMNS; i++) {
+      column = column * 26 + Character.toUpperCase(reference.charAt(i)) - 'A' + 1;
+    }
+    column = Math.min(column, MAX_COLUMNS + 1);
+    return column - 1;
+  }
+}
@@ -1,20 +1,37 @@
 package org.jvalue.ods.adapterservice.adapter.interpreter;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 public class XmlInterpreter extends Interpreter {
+  // optional parameter, the path of the elements to interpret as records, e.g. /root/items/item
+  static final String RECORD_PATH = "recordPath";
 
-  private final List<InterpreterParameterDescription> parameters = List.of();
+  private final List<InterpreterParameterDescription> parameters = withFormatParameters(
+    new InterpreterParameterDescription(RECORD_PATH, "Path of the elements to interpret as records, e.g. /root/items/item", false, String.class)
+  );
   private final XmlMapper mapper = new XmlMapper();
+  private final ObjectReader reader;
+  private final ObjectMapper jsonMapper = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
   public XmlInterpreter() {
     mapper.registerModule(new SimpleModule().addDeserializer(Object.class, new UntypedXMLArrayDeserializer()));
+    reader = mapper.readerFor(Object.class);
   }
 
   @Override
@@ -34,8 +51,78 @@ public class XmlInterpreter extends Interpreter {
   }
 
   @Override
-  public JsonNode doInterpret(String data, Map<String, Object> parameters) throws IOException {
-    Object result = mapper.readValue(data, Object.class);
-    return mapper.valueToTree(result);
+  protected void validateParameters(Map<String, Object> inputParameters) throws InterpreterParameterException {
+    super.validateParameters(inputParameters);
+
+    Object recordPath = inputParameters.get(RECORD_PATH);
+    if (recordPath != null && (!(recordPath instanceof String) || !((String) recordPath).matches("(/[^/]+)+"))) {
+      throw new InterpreterParameterException(getType() + " interpreter requires parameter " + RECORD_PATH +
+        " to be an element path like /root/items/item. Your given value " + recordPath + " is invalid!");
+    }
+  }
+
+  @Override
+  public void doInterpret(InputStream data, Map<String, Object> parameters, JsonGenerator out) throws IOException {
+    doPrepare(parameters).interpret(data, out);
+  }
+
+  @Override
+  protected PreparedInterpreter doPrepare(Map<String, Object> parameters) {
+    String recordPath = (String) parameters.get(RECORD_PATH);
+    if (recordPath == null) {
+      return (data, out) -> jsonMapper.writeValue(out, reader.readValue(data));
+    }
+    String[] elements = recordPath.substring(1).split("/");
+    return (data, out) -> interpretRecords(data, elements, out);
+  }
+
+  /**
+   * Streams the elements at the given path as an array of records. Only one record is held in memory at a time,
+   * each is interpreted like a whole document (e.g. repeated child elements become arrays).
+   */
+  private void interpretRecords(InputStream data, String[] path, JsonGenerator out) throws IOException {
+    XMLStreamReader xml;
+    try {
+      xml = mapper.getFactory().getXMLInputFactory().createXMLStreamReader(data);
+      while (xml.getEventType() != XMLStreamConstants.START_ELEMENT && xml.hasNext()) {
+        xml.next();
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to read XML data: " + e.getMessage(), e);
+    }
+    if (xml.getEventType() != XMLStreamConstants.START_ELEMENT) {
+      throw new IOException("Failed to read XML data: no root element");
+    }
+    String root = xml.getLocalName();
+    try (JsonParser parser = mapper.getFactory().createParser(xml)) {
+      out.writeStartArray();
+      if (root.equals(path[0]) && parser.nextToken() != null) {
+        writeRecords(parser, path, 1, out);
+      }
+      out.writeEndArray();
+    }
+  }
+
+  /**
+   * @param parser the parser, positioned on the value of the element at the given depth of the path
+   */
+  private void writeRecords(JsonParser parser, String[] path, int depth, JsonGenerator out) throws IOException {
+    if (depth == path.length) {
+      jsonMapper.writeValue(out, reader.readValue(parser));
+      return;
+    }
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      // text content, which cannot contain further elements
+      return;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      boolean onPath = parser.getCurrentName().equals(path[depth]);
+      parser.nextToken();
+      if (onPath) {
+        writeRecords(parser, path, depth + 1, out);
+      } else {
+        parser.skipChildren();
+      }
+    }
   }
 }
@@ -1,8 +1,16 @@
 package org.jvalue.ods.adapterservice.adapter.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Value;
 
 @Value
+@AllArgsConstructor
 public class DataImportResponse {
   String data;
+  // true, if the data was cut off at the limits of a preview
+  boolean truncated;
+
+  public DataImportResponse(String data) {
+    this(data, false);
+  }
 }
@@ -0,0 +1,13 @@
+package org.jvalue.ods.adapterservice.adapter.model.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Signals that an import exceeded one of its size limits. It is an {@link IOException}, so it can abort the streams
+ * the data is read from or written to.
+ */
+public class ImportLimitExceededException extends IOException {
+  public ImportLimitExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,13 @@
+package org.jvalue.ods.adapterservice.adapter.model.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Signals that an import did not complete within the timeout of imports. The import was aborted, so it neither
+ * delivered nor stored any data.
+ */
+public class ImportTimeoutException extends IOException {
+  public ImportTimeoutException(String message) {
+    super(message);
+  }
+}
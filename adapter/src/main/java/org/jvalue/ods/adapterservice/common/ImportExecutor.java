@@ -0,0 +1,181 @@
+package org.jvalue.ods.adapterservice.common;
+
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportTimeoutException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded thread pool running the steps of imports that need a thread (e.g. interpreting the data), so their callers
+ * (e.g. REST requests) do not hold a thread while waiting for slow sources. Imports exceeding the queue capacity are
+ * rejected instead of piling up. Asynchronous imports are timed by {@link #startImport()}.
+ */
+@Component
+public class ImportExecutor implements DisposableBean {
+  private final ThreadPoolExecutor executor;
+  // only schedules the timeouts, cancelled timeouts are removed so they do not keep their imports in memory
+  private final ScheduledThreadPoolExecutor timeouts;
+  private final Duration timeout;
+
+  public ImportExecutor(AdapterProperties properties) {
+    AdapterProperties.Imports imports = properties.getImports();
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("import-");
+    threadFactory.setDaemon(true);
+    this.executor = new ThreadPoolExecutor(imports.getThreads(), imports.getThreads(), 60, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(imports.getQueueCapacity()), threadFactory);
+    this.executor.allowCoreThreadTimeOut(true);
+    CustomizableThreadFactory timeoutThreadFactory = new CustomizableThreadFactory("import-timeout-");
+    timeoutThreadFactory.setDaemon(true);
+    this.timeouts = new ScheduledThreadPoolExecutor(1, timeoutThreadFactory);
+    this.timeouts.setRemoveOnCancelPolicy(true);
+    this.timeout = imports.getTimeout();
+  }
+
+  /**
+   * Runs the given import on the pool. The returned future completes with the result of the import or its exception,
+   * which is not wrapped. A rejected import fails with a {@link RejectedExecutionException}, an import that is
+   * cancelled before it started does not run at all and a running import is interrupted.
+   *
+   * @param task the import
+   * @return the future result of the import
+   */
+  public <T> CompletableFuture<T> submit(Task<T> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        if (result.isDone()) {
+          return;
+        }
+        // cleared under its lock once the task is done, so a late cancellation does not interrupt the next task
+        AtomicReference<Thread> running = new AtomicReference<>(Thread.currentThread());
+        result.whenComplete((value, error) -> {
+          if (result.isCancelled()) {
+            synchronized (running) {
+              if (running.get() != null) {
+                running.get().interrupt();
+              }
+            }
+          }
+        });
+        try {
+          result.complete(task.run());
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        } finally {
+          synchronized (running) {
+            running.set(null);
+            Thread.interrupted();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(new RejectedExecutionException("Too many concurrent imports, try again later", e));
+    }
+    return result;
+  }
+
+  /**
+   * Starts the timeout of an asynchronous import. Once it elapsed, the result of the import fails with an
+   * {@link ImportTimeoutException} and the steps of the import are aborted.
+   *
+   * @return the timed import
+   */
+  public <T> TimedImport<T> startImport() {
+    TimedImport<T> timedImport = new TimedImport<>(timeout);
+    ScheduledFuture<?> scheduled = timeouts.schedule(timedImport::timeOut, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    timedImport.result.whenComplete((value, error) -> scheduled.cancel(false));
+    return timedImport;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+    timeouts.shutdownNow();
+  }
+
+  @FunctionalInterface
+  public interface Task<T> {
+    T run() throws Exception;
+  }
+
+  /**
+   * Result of an asynchronous import, which fails once the import times out. Steps with side effects (e.g. storing the
+   * imported data) only run after {@link #commit() committing} the import, which prevents the timeout from then on.
+   */
+  public static class TimedImport<T> {
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+    private final Duration timeout;
+
+    private TimedImport(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    /**
+     * Aborts the given step of the import (e.g. a fetch or an interpretation) by cancelling it, once the import failed
+     * or timed out.
+     *
+     * @return the given step
+     */
+    public <S> CompletableFuture<S> abortOnFailure(CompletableFuture<S> step) {
+      result.whenComplete((value, error) -> {
+        if (error != null) {
+          step.cancel(true);
+        }
+      });
+      return step;
+    }
+
+    /**
+     * Commits the import, it does not time out afterwards.
+     *
+     * @return true, if the import may continue with its side effects, false if it already timed out
+     */
+    public boolean commit() {
+      return state.compareAndSet(State.RUNNING, State.COMMITTED) || state.get() == State.COMMITTED;
+    }
+
+    /**
+     * Completes the import with the result or unwrapped exception of its last step, unless it timed out before.
+     *
+     * @return the result of the import
+     */
+    public CompletableFuture<T> completeWith(CompletableFuture<T> lastStep) {
+      lastStep.whenComplete((value, error) -> {
+        if (!commit()) {
+          return;
+        }
+        if (error == null) {
+          result.complete(value);
+        } else {
+          result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error);
+        }
+      });
+      return result;
+    }
+
+    private void timeOut() {
+      if (state.compareAndSet(State.RUNNING, State.TIMED_OUT)) {
+        result.completeExceptionally(new ImportTimeoutException("Import did not complete within " + timeout +
+          " and was aborted"));
+      }
+    }
+
+    private enum State {
+      RUNNING, TIMED_OUT, COMMITTED
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.jvalue.ods.adapterservice.common.rest;
+
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adapts asynchronous imports to Spring MVC, which releases the request thread until the result is set.
+ */
+public final class DeferredResults {
+  // the imports time out on their own (see ImportExecutor#startImport), a negative value disables the timeout of the
+  // servlet container
+  private static final long NO_TIMEOUT = -1;
+
+  private DeferredResults() {
+  }
+
+  /**
+   * @param future the future result of the request, which has to complete within the timeout of imports
+   * @return the deferred result of the future. If the future fails, its exception is handled like an exception thrown
+   * by the endpoint (see {@link RestResponseEntityExceptionHandler}).
+   */
+  public static <T> DeferredResult<T> of(CompletableFuture<T> future) {
+    DeferredResult<T> result = new DeferredResult<>(NO_TIMEOUT);
+    future.whenComplete((value, error) -> {
+      if (error == null) {
+        result.setResult(value);
+      } else if (error instanceof CompletionException && error.getCause() != null) {
+        result.setErrorResult(error.getCause());
+      } else {
+        result.setErrorResult(error);
+      }
+    });
+    return result;
+  }
+}
@@ -1,6 +1,7 @@
 package org.jvalue.ods.adapterservice.common.rest;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.*;
 import org.jvalue.ods.adapterservice.datasource.model.exceptions.*;
@@ -33,10 +34,31 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
     return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.NOT_FOUND, req);
   }
 
+  @ExceptionHandler(value = {
+    ImportLimitExceededException.class
+  })
+  public ResponseEntity<Object> handlePayloadTooLarge(Exception ex, WebRequest req) {
+    return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.PAYLOAD_TOO_LARGE, req);
+  }
+
   @ExceptionHandler(value = {
     IOException.class
   })
   public ResponseEntity<Object> handleInternalServerError(Exception ex, WebRequest req) {
     return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR, req);
   }
+
+  @ExceptionHandler(value = {
+    ImportTimeoutException.class
+  })
+  public ResponseEntity<Object> handleGatewayTimeout(Exception ex, WebRequest req) {
+    return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.GATEWAY_TIMEOUT, req);
+  }
+
+  @ExceptionHandler(value = {
+    RejectedExecutionException.class
+  })
+  public ResponseEntity<Object> handleServiceUnavailable(Exception ex, WebRequest req) {
+    return handleExceptionInternal(ex, ex.getMessage(), new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE, req);
+  }
 }
@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Getter
 @Setter
@@ -11,6 +14,12 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "adapter", ignoreUnknownFields = false)
 public class AdapterProperties {
   private Amqp amqp;
+  private Http http = new Http();
+  private File file = new File();
+  private Limits limits = new Limits();
+  private FetchCache fetchCache = new FetchCache();
+  private PreparedFormats preparedFormats = new PreparedFormats();
+  private Imports imports = new Imports();
 
   @Getter
   @Setter
@@ -25,4 +34,88 @@ public class AdapterProperties {
     private String datasourceImportTriggerQueueTopic;
     private String datasourceImportTriggerCreatedTopic;
   }
+
+  @Getter
+  @Setter
+  public static class Http {
+    // size of the connection pool shared by all HTTP imports
+    private int maxConnections = 200;
+    // upper bound of pooled connections to a single host
+    private int maxConnectionsPerHost = 20;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    // maximum time of inactivity between two data packets
+    private Duration readTimeout = Duration.ofSeconds(60);
+    // maximum time to wait for a free connection from the pool
+    private Duration connectionRequestTimeout = Duration.ofSeconds(60);
+    // maximum duration of a whole HTTP import, including the transfer of the response body
+    private Duration totalTimeout = Duration.ofMinutes(30);
+    // maximum time an idle connection is kept open for reuse
+    private Duration keepAlive = Duration.ofSeconds(30);
+    // size of the byte ranges of downloads with parallel ranges, also the minimum size of such a download
+    private DataSize rangeSize = DataSize.ofMegabytes(8);
+    // number of times a failed byte range is resumed
+    private int rangeRetries = 3;
+    // requests per second to a single host, unlimited if not positive
+    private double rateLimit = 10;
+    // upper bound of concurrent requests to a single host, further requests wait for a free slot
+    private int maxConcurrentRequestsPerHost = 8;
+    // attempts of a request failing with an I/O error, 429 or 5xx, including the first one
+    private int retryAttempts = 3;
+    // backoff before the first retry, doubled for every further retry
+    private Duration retryInitialBackoff = Duration.ofMillis(500);
+    private Duration retryMaxBackoff = Duration.ofSeconds(10);
+    // consecutive failed requests after which requests to a host fail fast
+    private int circuitFailureThreshold = 5;
+    // time the requests to a failing host fail fast, before a trial request is sent
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+  }
+
+  @Getter
+  @Setter
+  public static class Limits {
+    // maximum size of the imported data, after decompression
+    private DataSize maxBodySize = DataSize.ofGigabytes(1);
+    // maximum nesting depth of the interpreted data
+    private int maxDepth = 100;
+    // maximum number of records in the top-level array of the interpreted data
+    private long maxRecords = 10_000_000;
+  }
+
+  @Getter
+  @Setter
+  public static class FetchCache {
+    // time fetched data is reused for fetches of the same source, disabled if not positive
+    private Duration ttl = Duration.ofSeconds(10);
+    // upper bound of the cached data, least recently used data is evicted first
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    // larger data is not cached and not shared between concurrent fetches
+    private DataSize maxEntrySize = DataSize.ofMegabytes(8);
+  }
+
+  @Getter
+  @Setter
+  public static class PreparedFormats {
+    // number of format configs whose prepared interpreters are reused, least recently used ones are evicted first,
+    // disabled if not positive
+    private int maxSize = 256;
+  }
+
+  @Getter
+  @Setter
+  public static class Imports {
+    // threads interpreting the data of REST imports, plain HTTP sources are fetched without a thread, other sources
+    // (e.g. paginated ones) are fetched on these threads as well
+    private int threads = 32;
+    // imports waiting for a free thread, further imports are rejected with 503
+    private int queueCapacity = 1000;
+    // maximum duration of a REST import, it is aborted afterwards and the request fails with 504
+    private Duration timeout = Duration.ofMinutes(30);
+  }
+
+  @Getter
+  @Setter
+  public static class File {
+    // directory the FILE importer may read from, FILE imports are disabled if it is not set
+    private String baseDirectory;
+  }
 }
@@ -0,0 +1,103 @@
+package org.jvalue.ods.adapterservice.config;
+
+import lombok.AllArgsConstructor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP clients used by the importers, each backed by a bounded connection pool that keeps connections alive between
+ * imports. The non-blocking client fetches plain sources without holding a thread while waiting for them.
+ */
+@Configuration
+@AllArgsConstructor
+public class HttpClientConfig {
+  private final AdapterProperties properties;
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient importerHttpClient() {
+    AdapterProperties.Http http = properties.getHttp();
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(http.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerHost());
+
+    long keepAlive = http.getKeepAlive().toMillis();
+    // requests announce "Accept-Encoding: gzip,deflate", but compressed responses are decoded by the importers: the
+    // decoding entity of the client hides the connection, which could then not be aborted by closing the body early
+    return HttpClients.custom()
+      .disableContentCompression()
+      .addInterceptorLast(new RequestAcceptEncoding())
+      .setConnectionManager(connectionManager)
+      .setDefaultRequestConfig(requestConfig(http))
+      .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+      .evictExpiredConnections()
+      .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+      .useSystemProperties()
+      .build();
+  }
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpAsyncClient importerHttpAsyncClient() throws IOReactorException {
+    AdapterProperties.Http http = properties.getHttp();
+
+    DefaultConnectingIOReactor ioReactor = new DefaultConnectingIOReactor(IOReactorConfig.custom()
+      .setConnectTimeout((int) http.getConnectTimeout().toMillis())
+      .setSoTimeout((int) http.getReadTimeout().toMillis())
+      .build());
+    PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(ioReactor);
+    connectionManager.setMaxTotal(http.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerHost());
+
+    long keepAlive = http.getKeepAlive().toMillis();
+    // compressed responses are decoded by the importers, like the ones of the blocking client
+    CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+      .addInterceptorLast(new RequestAcceptEncoding())
+      .setConnectionManager(connectionManager)
+      .setDefaultRequestConfig(requestConfig(http))
+      .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+      .useSystemProperties()
+      .build();
+    client.start();
+    return client;
+  }
+
+  @Bean
+  public ClientHttpRequestFactory importerRequestFactory(CloseableHttpClient importerHttpClient) {
+    return new HttpComponentsClientHttpRequestFactory(importerHttpClient);
+  }
+
+  private static RequestConfig requestConfig(AdapterProperties.Http http) {
+    return RequestConfig.custom()
+      .setConnectTimeout((int) http.getConnectTimeout().toMillis())
+      .setSocketTimeout((int) http.getReadTimeout().toMillis())
+      .setConnectionRequestTimeout((int) http.getConnectionRequestTimeout().toMillis())
+      .build();
+  }
+
+  /**
+   * Honors a shorter keep-alive announced by the server, but never keeps connections longer than configured.
+   */
+  private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAlive) {
+    return (response, context) -> {
+      long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+    };
+  }
+}
@@ -3,22 +3,32 @@ package org.jvalue.ods.adapterservice.datasource;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jvalue.ods.adapterservice.adapter.Adapter;
-import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
-import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
+import org.jvalue.ods.adapterservice.adapter.PreparedImport;
+import org.jvalue.ods.adapterservice.adapter.importer.FetchResult;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.*;
+import org.jvalue.ods.adapterservice.common.ImportExecutor;
 import org.jvalue.ods.adapterservice.datasource.api.amqp.AmqpPublisher;
 import org.jvalue.ods.adapterservice.datasource.model.*;
 import org.jvalue.ods.adapterservice.datasource.model.exceptions.*;
 import org.jvalue.ods.adapterservice.datasource.repository.DataImportRepository;
+import org.jvalue.ods.adapterservice.datasource.repository.DataImportSummary;
 import org.jvalue.ods.adapterservice.datasource.repository.DatasourceRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.jvalue.ods.adapterservice.datasource.validator.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.StreamSupport;
 
 @Slf4j
@@ -29,6 +39,11 @@ public class DatasourceManager {
   private final DataImportRepository dataImportRepository;
   private final Adapter adapter;
   private final AmqpPublisher amqpPublisher;
+  private final ImportExecutor importExecutor;
+  // the asynchronous steps of imports run on other threads than the @Transactional methods
+  private final TransactionTemplate transactionTemplate;
+  // import plans by datasource id, removed when their datasource changes
+  private final Map<Long, ImportPlan> importPlans = new ConcurrentHashMap<>();
 
   @Transactional
   public Datasource createDatasource(Datasource config) {
@@ -56,6 +71,9 @@ public class DatasourceManager {
     Datasource existing = datasourceRepository.findById(id).orElseThrow(() -> new DatasourceNotFoundException(id));
 
     datasourceRepository.save(applyUpdate(existing, update));
+    importPlans.remove(id);
+    // imports of the old configuration must not prevent an import with the new configuration
+    dataImportRepository.clearSourceVersions(id);
     amqpPublisher.publishUpdate(existing);
   }
 
@@ -63,6 +81,7 @@ public class DatasourceManager {
   public void deleteDatasource(Long id) throws DatasourceNotFoundException {
     Datasource datasource = datasourceRepository.findById(id).orElseThrow(() -> new DatasourceNotFoundException(id));
     datasourceRepository.deleteById(id);
+    importPlans.remove(id);
     amqpPublisher.publishDeletion(datasource);
   }
 
@@ -70,6 +89,7 @@ public class DatasourceManager {
   public void deleteAllDatasources() {
     Iterable<Datasource> allDatasourceConfigs = getAllDatasources();
     datasourceRepository.deleteAll();
+    importPlans.clear();
     StreamSupport.stream(allDatasourceConfigs.spliterator(), true).forEach(amqpPublisher::publishDeletion);
   }
 
@@ -86,7 +106,9 @@ public class DatasourceManager {
   /**
    * Performs the actual import inside a database transaction. This ensures that,
    * the imported data and the event are always inserted together into the
-   * database. <br>
+   * database. If the source did not change since the last successful import,
+   * neither a new data import nor an event is created and the metadata of the
+   * last import is returned instead. <br>
    * Note: This method is an internal API, do not use it from the outside. It is
    * package-private only because {@link Transactional} requires the method to be
    * overridable.
@@ -101,32 +123,169 @@ public class DatasourceManager {
   @Transactional
   DataImport.MetaData executeImport(Long id, RuntimeParameters runtimeParameters)
       throws DatasourceNotFoundException, ImporterParameterException, InterpreterParameterException, IOException {
-    Datasource datasource = getDatasource(id);
-    DataImport dataImport = new DataImport(datasource, "", ValidationMetaData.HealthStatus.FAILED);
-    Validator validator = new JsonSchemaValidator();
+    PendingImport pending = new PendingImport(id, getDatasource(id));
     try {
-      AdapterConfig adapterConfig = datasource.toAdapterConfig(runtimeParameters);
-      DataImportResponse executionResult = adapter.executeJob(adapterConfig);
-      String responseData = executionResult.getData();
-      dataImport = new DataImport(datasource, responseData);
-      dataImport.setValidationMetaData(validator.validate(dataImport));
-      DataImport savedDataImport = dataImportRepository.save(dataImport);
-      amqpPublisher.publishImportSuccess(id, savedDataImport.getData());
-      return savedDataImport.getMetaData();
+      planImport(pending, runtimeParameters);
+      ByteArrayOutputStream responseData = new ByteArrayOutputStream();
+      Optional<SourceVersion> importedVersion = adapter.executeJob(pending.plan.getPreparedImport(), pending.location,
+        pending.knownVersion, responseData);
+      return completeImport(pending, importedVersion, responseData);
     } catch (ImporterParameterException | InterpreterParameterException | IOException e) {
-      dataImport.setErrorMessages(new String[] { e.getMessage() });
-      handleImportFailed(datasource, dataImport, e);
+      pending.failedImport.setErrorMessages(new String[] { e.getMessage() });
+      handleImportFailed(pending.datasource, pending.failedImport, e);
       throw e;
     }
   }
 
+  /**
+   * Imports a datasource like {@link #trigger(Long, RuntimeParameters)}, but asynchronously and within the timeout of
+   * imports. Sources that can be fetched asynchronously (see {@link Adapter#canFetchAsync(PreparedImport)}) do not hold
+   * a thread of the {@link ImportExecutor} while they are fetched. An import that times out is aborted and recorded as
+   * failed, its data is neither stored nor published afterwards.
+   *
+   * @param id                the id of the datasource to import
+   * @param runtimeParameters the runtime parameters to use for the import
+   * @return the future metadata of the imported data, which fails with the exceptions of
+   * {@link #trigger(Long, RuntimeParameters)} or an {@link ImportTimeoutException}, unwrapped
+   */
+  public CompletableFuture<DataImport.MetaData> triggerAsync(Long id, RuntimeParameters runtimeParameters) {
+    ImportExecutor.TimedImport<DataImport.MetaData> timedImport = importExecutor.startImport();
+    AtomicReference<PendingImport> started = new AtomicReference<>();
+    CompletableFuture<PendingImport> planned = timedImport.abortOnFailure(importExecutor.submit(() -> {
+      PendingImport pending = new PendingImport(id, getDatasource(id));
+      started.set(pending);
+      planImport(pending, runtimeParameters);
+      return pending;
+    }));
+    CompletableFuture<DataImport.MetaData> imported = planned.thenCompose(pending -> {
+      PreparedImport prepared = pending.plan.getPreparedImport();
+      CompletableFuture<FetchResult> fetched = adapter.canFetchAsync(prepared)
+        ? adapter.fetchAsync(prepared, pending.location, pending.knownVersion)
+        : importExecutor.submit(() -> adapter.fetch(prepared, pending.location, pending.knownVersion));
+      return timedImport.abortOnFailure(fetched).thenCompose(fetchResult ->
+        timedImport.abortOnFailure(importExecutor.submit(() -> {
+          try (fetchResult) {
+            ByteArrayOutputStream responseData = new ByteArrayOutputStream();
+            Optional<SourceVersion> importedVersion = adapter.executeFormat(prepared, fetchResult, responseData);
+            if (!timedImport.commit()) {
+              // the client was told that the import timed out, so it must not show up later
+              return null;
+            }
+            return inTransaction(() -> completeImport(pending, importedVersion, responseData));
+          }
+        })));
+    });
+    CompletableFuture<DataImport.MetaData> result = timedImport.completeWith(imported);
+    result.whenComplete((metaData, error) -> {
+      if (error != null) {
+        importExecutor.submit(() -> {
+          failImport(id, started.get(), error);
+          return null;
+        });
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Looks up the import plan and the last import of a datasource, which determine the location to import from.
+   */
+  private void planImport(PendingImport pending, RuntimeParameters runtimeParameters)
+      throws ImporterParameterException, InterpreterParameterException {
+    Long id = pending.id;
+    pending.plan = getImportPlan(id, pending.datasource);
+    pending.lastImport = dataImportRepository
+      .findTopByDatasourceIdAndHealthNotOrderByTimestampDesc(id, ValidationMetaData.HealthStatus.FAILED);
+    pending.knownVersion = pending.lastImport.map(DataImportSummary::getSourceVersion).orElse(SourceVersion.UNKNOWN);
+    pending.lastState = pending.lastImport.map(DataImportSummary::getIncrementalState).orElse(IncrementalState.NONE);
+    // taken before the fetch, so records that change during the import are part of the next window as well
+    pending.windowEnd = new Date();
+    pending.location = pending.plan.getLocation(runtimeParameters, pending.lastState, pending.windowEnd);
+  }
+
+  /**
+   * Validates, stores and publishes the interpreted data of an import.
+   *
+   * @param importedVersion the source version of the imported data, empty if the source did not change
+   * @return the metadata of the imported data, of the last import if the source did not change
+   */
+  private DataImport.MetaData completeImport(PendingImport pending, Optional<SourceVersion> importedVersion,
+                                             ByteArrayOutputStream responseData) throws IOException {
+    Long id = pending.id;
+    if (importedVersion.isEmpty()) {
+      log.info("Source of datasource {} did not change since import {}, skipping import", id,
+        pending.lastImport.get().getId());
+      return pending.lastImport.get().toMetaData(pending.datasource);
+    }
+
+    byte[] data = responseData.toByteArray();
+    DataImport dataImport = new DataImport(pending.datasource, data);
+    dataImport.setSourceVersion(importedVersion.get());
+    dataImport.setIncrementalState(pending.lastState.advance(pending.windowEnd, pending.plan.getIncrementalConfig(),
+      data));
+    dataImport.setValidationMetaData(pending.plan.getValidator().validate(dataImport));
+    DataImport savedDataImport = dataImportRepository.save(dataImport);
+    amqpPublisher.publishImportSuccess(id, savedDataImport.getData());
+    return savedDataImport.getMetaData();
+  }
+
+  /**
+   * Records and publishes the failure of an asynchronous import.
+   *
+   * @param pending the import, null if it failed before it started
+   */
+  private void failImport(Long id, PendingImport pending, Throwable e) {
+    log.error("Failed to execute import", e);
+    transactionTemplate.executeWithoutResult(status -> {
+      if (pending != null) {
+        pending.failedImport.setErrorMessages(new String[] { e.getMessage() });
+        dataImportRepository.save(pending.failedImport);
+      }
+      publishImportFailure(id, e);
+    });
+  }
+
+  /**
+   * Runs a step of an asynchronous import inside a database transaction, like the {@link Transactional} steps of
+   * synchronous imports. The transaction is rolled back if the step fails.
+   */
+  private <T> T inTransaction(ImportExecutor.Task<T> step) throws Exception {
+    try {
+      return transactionTemplate.execute(status -> {
+        try {
+          return step.run();
+        } catch (RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new StepFailedException(e);
+        }
+      });
+    } catch (StepFailedException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  /**
+   * @return the import plan of the given datasource, which is built if there is none for its current configuration
+   */
+  private ImportPlan getImportPlan(Long id, Datasource datasource)
+      throws ImporterParameterException, InterpreterParameterException {
+    ImportPlan plan = importPlans.get(id);
+    // the datasource may have been changed by another instance of the service
+    if (plan == null || !plan.isFor(datasource)) {
+      plan = ImportPlan.compile(datasource, adapter);
+      importPlans.put(id, plan);
+    }
+    return plan;
+  }
+
   @Transactional
   void handleImportFailed(Datasource datasource, DataImport dataImport, Exception e){
       dataImportRepository.save(dataImport);
       publishImportFailure(datasource.getId(), e);
   }
 
-  private void publishImportFailure(Long id, Exception e) {
+  private void publishImportFailure(Long id, Throwable e) {
     String errMsg;
     if (e.getCause() != null) {
       errMsg = e.getCause().getMessage();
@@ -162,6 +321,37 @@ public class DatasourceManager {
     return updated;
   }
 
+  /**
+   * State of an import of a datasource, from planning the import to storing its data.
+   */
+  private static class PendingImport {
+    private final Long id;
+    private final Datasource datasource;
+    // stored if the import fails, never the import of the interpreted data
+    private final DataImport failedImport;
+    private ImportPlan plan;
+    private Optional<DataImportSummary> lastImport;
+    private SourceVersion knownVersion;
+    private IncrementalState lastState;
+    private Date windowEnd;
+    private String location;
+
+    PendingImport(Long id, Datasource datasource) {
+      this.id = id;
+      this.datasource = datasource;
+      this.failedImport = new DataImport(datasource, "", ValidationMetaData.HealthStatus.FAILED);
+    }
+  }
+
+  /**
+   * Carries the checked exception of a step out of its transaction.
+   */
+  private static class StepFailedException extends RuntimeException {
+    StepFailedException(Exception cause) {
+      super(cause);
+    }
+  }
+
   public Collection<DataImport> getDataImportsForDatasource(Long datasourceId) throws DatasourceNotFoundException {
     Datasource datasource = getDatasource(datasourceId);
     return datasource.getDataImports();
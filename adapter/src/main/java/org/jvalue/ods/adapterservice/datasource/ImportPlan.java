@@ -0,0 +1,89 @@
+package org.jvalue.ods.adapterservice.datasource;
+
+import org.jvalue.ods.adapterservice.adapter.Adapter;
+import org.jvalue.ods.adapterservice.adapter.PreparedImport;
+import org.jvalue.ods.adapterservice.adapter.Protocol;
+import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
+import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
+import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.jvalue.ods.adapterservice.datasource.model.Datasource;
+import org.jvalue.ods.adapterservice.datasource.model.IncrementalConfig;
+import org.jvalue.ods.adapterservice.datasource.model.IncrementalState;
+import org.jvalue.ods.adapterservice.datasource.model.RuntimeParameters;
+import org.jvalue.ods.adapterservice.datasource.model.UrlTemplate;
+import org.jvalue.ods.adapterservice.datasource.validator.JsonSchemaValidator;
+import org.jvalue.ods.adapterservice.datasource.validator.Validator;
+
+import java.util.Date;
+
+/**
+ * Everything of a datasource that does not change between its imports, i.e. its validated and prepared adapter
+ * configuration, its location template and its loaded schema. Plans are built on the first import of a datasource and
+ * reused until the datasource changes.
+ */
+class ImportPlan {
+  private final Datasource datasource;
+  private final PreparedImport preparedImport;
+  private final UrlTemplate location;
+  private final IncrementalConfig incrementalConfig;
+  private final Validator validator;
+
+  private ImportPlan(Datasource datasource, PreparedImport preparedImport, UrlTemplate location,
+                     IncrementalConfig incrementalConfig, Validator validator) {
+    this.datasource = datasource;
+    this.preparedImport = preparedImport;
+    this.location = location;
+    this.incrementalConfig = incrementalConfig;
+    this.validator = validator;
+  }
+
+  static ImportPlan compile(Datasource datasource, Adapter adapter)
+      throws ImporterParameterException, InterpreterParameterException {
+    AdapterConfig adapterConfig = new AdapterConfig(
+      new ProtocolConfig(datasource.getProtocol().getType(), datasource.getProtocol().getParameters()),
+      new FormatConfig(datasource.getFormat().getType(), datasource.getFormat().getParameters()));
+    IncrementalConfig incrementalConfig;
+    try {
+      incrementalConfig = datasource.getIncrementalConfig();
+    } catch (IllegalArgumentException e) {
+      throw new ImporterParameterException("Invalid incremental: " + e.getMessage());
+    }
+    return new ImportPlan(
+      datasource,
+      adapter.prepare(adapterConfig),
+      UrlTemplate.compile((String) datasource.getProtocol().getParameters().get("location")),
+      incrementalConfig,
+      new JsonSchemaValidator(datasource.getSchema()));
+  }
+
+  /**
+   * @return true, if the plan was built from the current configuration of the given datasource
+   */
+  boolean isFor(Datasource datasource) {
+    return this.datasource.equals(datasource);
+  }
+
+  PreparedImport getPreparedImport() {
+    return preparedImport;
+  }
+
+  /**
+   * @return the location of an import, with the open parameters of HTTP locations filled in
+   */
+  String getLocation(RuntimeParameters runtimeParameters, IncrementalState lastImport, Date windowEnd) {
+    if (!datasource.getProtocol().getType().equals(Protocol.HTTP)) {
+      return (String) datasource.getProtocol().getParameters().get("location");
+    }
+    return location.fill(datasource.resolveUriParameters(runtimeParameters, lastImport, windowEnd));
+  }
+
+  IncrementalConfig getIncrementalConfig() {
+    return incrementalConfig;
+  }
+
+  Validator getValidator() {
+    return validator;
+  }
+}
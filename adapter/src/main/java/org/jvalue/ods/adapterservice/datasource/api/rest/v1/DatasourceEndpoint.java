@@ -2,18 +2,18 @@ package org.jvalue.ods.adapterservice.datasource.api.rest.v1;
 
 import lombok.AllArgsConstructor;
 
-import org.jvalue.ods.adapterservice.adapter.model.exceptions.AdapterException;
+import org.jvalue.ods.adapterservice.common.rest.DeferredResults;
 import org.jvalue.ods.adapterservice.datasource.DatasourceManager;
 import org.jvalue.ods.adapterservice.datasource.model.*;
 import org.jvalue.ods.adapterservice.datasource.model.exceptions.DatasourceNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 
-import java.io.IOException;
 import java.net.URI;
 
 @AllArgsConstructor
@@ -60,10 +60,14 @@ public class DatasourceEndpoint {
     datasourceManager.deleteAllDatasources();
   }
 
+  /**
+   * Imports the datasource asynchronously, the request thread is released while waiting for the source. An import
+   * that times out fails with 504 and is neither stored nor published.
+   */
   @PostMapping("/{id}/trigger")
-  public DataImport.MetaData getData(@PathVariable Long id,
-      @Valid @RequestBody(required = false) RuntimeParameters runtimeParameters) throws AdapterException, IOException {
+  public DeferredResult<DataImport.MetaData> getData(@PathVariable Long id,
+      @Valid @RequestBody(required = false) RuntimeParameters runtimeParameters) throws DatasourceNotFoundException {
     datasourceManager.getDatasource(id);
-    return datasourceManager.trigger(id, runtimeParameters);
+    return DeferredResults.of(datasourceManager.triggerAsync(id, runtimeParameters));
   }
 }
@@ -3,6 +3,7 @@ package org.jvalue.ods.adapterservice.datasource.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
 import org.jvalue.ods.adapterservice.datasource.api.rest.v1.Mappings;
 import org.jvalue.ods.adapterservice.datasource.validator.ValidationMetaData;
 
@@ -34,6 +35,29 @@ public class DataImport {
   @Type(type = "org.jvalue.ods.adapterservice.datasource.model.types.CustomStringArrayType")
   private String[] errorMessages;
 
+  // version of the source data, used to skip the next import if the source did not change
+  @JsonIgnore
+  @Column(columnDefinition = "text")
+  private String sourceLocation;
+
+  @JsonIgnore
+  private String sourceEtag;
+
+  @JsonIgnore
+  private String sourceLastModified;
+
+  // state for the built-in parameters of the next import, see IncrementalState
+  @JsonIgnore
+  private Date windowEnd;
+
+  @JsonIgnore
+  @Column(columnDefinition = "text")
+  private String maxId;
+
+  @JsonIgnore
+  @Column(columnDefinition = "text")
+  private String cursor;
+
   @ManyToOne(fetch = FetchType.EAGER)
   @JoinColumn(name="datasource_id")
   @JsonIgnore
@@ -48,8 +72,16 @@ public class DataImport {
   }
 
   public DataImport(Datasource datasource, String data, ValidationMetaData.HealthStatus health, String[] errorMessages) {
+    this(datasource, data.getBytes(StandardCharsets.UTF_8), health, errorMessages);
+  }
+
+  public DataImport(Datasource datasource, byte[] data) {
+    this(datasource, data, ValidationMetaData.HealthStatus.OK, new String[] {});
+  }
+
+  public DataImport(Datasource datasource, byte[] data, ValidationMetaData.HealthStatus health, String[] errorMessages) {
     this.datasource = datasource;
-    this.data = data.getBytes(StandardCharsets.UTF_8);
+    this.data = data;
     this.health = health;
     this.errorMessages = errorMessages;
     this.timestamp = new Date();
@@ -60,6 +92,28 @@ public class DataImport {
     this.errorMessages = validationData.getErrorMessages();
   }
 
+  @JsonIgnore
+  public SourceVersion getSourceVersion() {
+    return new SourceVersion(sourceLocation, sourceEtag, sourceLastModified);
+  }
+
+  public void setSourceVersion(SourceVersion sourceVersion) {
+    this.sourceLocation = sourceVersion.getLocation();
+    this.sourceEtag = sourceVersion.getEtag();
+    this.sourceLastModified = sourceVersion.getLastModified();
+  }
+
+  @JsonIgnore
+  public IncrementalState getIncrementalState() {
+    return new IncrementalState(timestamp, windowEnd, maxId, cursor);
+  }
+
+  public void setIncrementalState(IncrementalState incrementalState) {
+    this.windowEnd = incrementalState.getWindowEnd();
+    this.maxId = incrementalState.getMaxId();
+    this.cursor = incrementalState.getCursor();
+  }
+
   public String getData() {
     return new String(data, StandardCharsets.UTF_8);
   }
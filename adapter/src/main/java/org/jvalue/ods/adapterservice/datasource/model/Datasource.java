@@ -3,6 +3,7 @@ package org.jvalue.ods.adapterservice.datasource.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.*;
 import org.jvalue.ods.adapterservice.adapter.Protocol;
 import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
@@ -11,6 +12,11 @@ import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +37,7 @@ import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
   @TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
 })
 public class Datasource {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -73,7 +80,16 @@ public class Datasource {
   }
 
   public AdapterConfig toAdapterConfig(RuntimeParameters runtimeParameters) {
-    var parameters = fillQueryParameters(runtimeParameters);
+    return toAdapterConfig(runtimeParameters, IncrementalState.NONE, new Date());
+  }
+
+  /**
+   * @param runtimeParameters the runtime parameters of the import, may be null
+   * @param lastImport        the state of the last successful import, offered by the built-in parameters
+   * @param windowEnd         the end of the time window of the import, offered by the built-in parameter {windowEnd}
+   */
+  public AdapterConfig toAdapterConfig(RuntimeParameters runtimeParameters, IncrementalState lastImport, Date windowEnd) {
+    var parameters = fillQueryParameters(runtimeParameters, lastImport, windowEnd);
     return new AdapterConfig(
       new ProtocolConfig(this.getProtocol().getType(), parameters),
       new FormatConfig(this.getFormat().getType(), this.getFormat().getParameters())
@@ -81,12 +97,37 @@ public class Datasource {
   }
 
   protected Map<String, Object> fillQueryParameters(RuntimeParameters runtimeParameters) {
+    return fillQueryParameters(runtimeParameters, IncrementalState.NONE, new Date());
+  }
+
+  protected Map<String, Object> fillQueryParameters(RuntimeParameters runtimeParameters, IncrementalState lastImport,
+                                                    Date windowEnd) {
     if (!this.getProtocol().getType().equals(Protocol.HTTP)) {
       return this.getProtocol().getParameters();
     }
 
+    String url = UrlTemplate.compile((String) this.getProtocol().getParameters().get("location"))
+      .fill(resolveUriParameters(runtimeParameters, lastImport, windowEnd));
+
+    Map<String, Object> parameters = new HashMap<>(this.getProtocol().getParameters());
+    parameters.put("location", url);
+    return parameters;
+  }
+
+  /**
+   * @return the values of the open parameters in the location of an import, from the built-in, default and runtime
+   * parameters
+   */
+  public Map<String, String> resolveUriParameters(RuntimeParameters runtimeParameters, IncrementalState lastImport,
+                                                  Date windowEnd) {
     Map<String, String> replacementParameters = new HashMap<>();
 
+    //Add the built-in parameters for the first import, which fetches the full history
+    replacementParameters.put("lastImportTimestamp", encode(formatTimestamp(new Date(0))));
+    replacementParameters.put("windowStart", encode(formatTimestamp(new Date(0))));
+    replacementParameters.put("maxId", "");
+    replacementParameters.put("cursor", "");
+
     //Add all default parameters to the replacement parameters map
     if (this.getProtocol().getParameters().containsKey("defaultParameters")) {
       @SuppressWarnings("unchecked")
@@ -94,18 +135,48 @@ public class Datasource {
       defaultParams.forEach(replacementParameters::put);
     }
 
+    //Add the built-in parameters from the last import, default parameters only serve as their initial values
+    replacementParameters.put("windowEnd", encode(formatTimestamp(windowEnd)));
+    if (lastImport.getLastImportTimestamp() != null) {
+      replacementParameters.put("lastImportTimestamp", encode(formatTimestamp(lastImport.getLastImportTimestamp())));
+      // imports from before the windows were tracked start their window at the last import
+      replacementParameters.put("windowStart", encode(formatTimestamp(lastImport.getWindowEnd() != null
+        ? lastImport.getWindowEnd() : lastImport.getLastImportTimestamp())));
+    }
+    if (lastImport.getMaxId() != null) {
+      replacementParameters.put("maxId", encode(lastImport.getMaxId()));
+    }
+    if (lastImport.getCursor() != null) {
+      replacementParameters.put("cursor", encode(lastImport.getCursor()));
+    }
+
     //Add all runtime parameters to the replacement parameters map
     if (runtimeParameters != null && runtimeParameters.getParameters() != null) {
       runtimeParameters.getParameters().forEach(replacementParameters::put);
     }
+    return replacementParameters;
+  }
 
-    String url = (String) this.getProtocol().getParameters().get("location");
-    for (Map.Entry<String, String> parameter : replacementParameters.entrySet()) {
-      url = url.replace("{" + parameter.getKey() + "}", parameter.getValue());
-    }
+  /**
+   * @return where the state for the built-in parameters {maxId} and {cursor} is found in the imported data, null if
+   * it is not tracked
+   */
+  @JsonIgnore
+  public IncrementalConfig getIncrementalConfig() {
+    Object incremental = this.getProtocol().getParameters().get("incremental");
+    return incremental == null ? null : MAPPER.convertValue(incremental, IncrementalConfig.class);
+  }
 
-    Map<String, Object> parameters = new HashMap<>(this.getProtocol().getParameters());
-    parameters.put("location", url);
-    return parameters;
+  private static String formatTimestamp(Date timestamp) {
+    return DateTimeFormatter.ISO_INSTANT.format(timestamp.toInstant());
+  }
+
+  /**
+   * Encodes a built-in value for the query of a location, as the values (e.g. a cursor) come from the imported data.
+   * The default and runtime parameters are given by the user and are filled in as they are.
+   */
+  private static String encode(String value) {
+    // a plus is allowed in a query, but decoded as a space by most servers
+    return UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8).replace("+", "%2B");
   }
 }
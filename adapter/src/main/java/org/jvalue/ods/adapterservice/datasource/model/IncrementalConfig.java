@@ -0,0 +1,25 @@
+package org.jvalue.ods.adapterservice.datasource.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Describes where the values of the built-in parameters {maxId} and {cursor} for the next import of a datasource are
+ * found in the interpreted data of an import.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+public class IncrementalConfig {
+
+  // JSON pointer to the id within each record of the top-level array, the maximum id of all imports is kept
+  private String idPointer;
+
+  // JSON pointer to the cursor within the data (e.g. a continuation token), the latest cursor found is kept
+  private String cursorPointer;
+}
@@ -0,0 +1,91 @@
+package org.jvalue.ods.adapterservice.datasource.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * State of the last successful import of a datasource, which is offered to the next import by the built-in parameters
+ * {lastImportTimestamp}, {windowStart}, {maxId} and {cursor}. All values are null if there is no such import.
+ */
+@Value
+public class IncrementalState {
+  public static final IncrementalState NONE = new IncrementalState(null, null, null, null);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  Date lastImportTimestamp;
+  // the end of the time window of the import, i.e. the start of the window of the next import
+  Date windowEnd;
+  String maxId;
+  String cursor;
+
+  /**
+   * Computes the state after an import of the given data, keeping the values of this state that are not found in it.
+   * The timestamp of the import is not part of the result, it is the one of the saved import.
+   *
+   * @param windowEnd the end of the time window of the import
+   * @param config    where to find the id and cursor in the data, null if they are not tracked
+   * @param data      the interpreted data of the import
+   * @throws IOException if the data is not valid JSON
+   */
+  public IncrementalState advance(Date windowEnd, IncrementalConfig config, byte[] data) throws IOException {
+    String nextMaxId = maxId;
+    String nextCursor = cursor;
+    if (config != null && config.getIdPointer() != null) {
+      nextMaxId = findMaxId(data, JsonPointer.compile(config.getIdPointer()), maxId);
+    }
+    if (config != null && config.getCursorPointer() != null) {
+      String found = findCursor(data, JsonPointer.compile(config.getCursorPointer()));
+      nextCursor = found != null ? found : cursor;
+    }
+    return new IncrementalState(null, windowEnd, nextMaxId, nextCursor);
+  }
+
+  private static String findMaxId(byte[] data, JsonPointer idPointer, String previousMax) throws IOException {
+    String max = previousMax;
+    try (JsonParser parser = MAPPER.getFactory().createParser(data)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        return max;
+      }
+      // records are read one at a time, the data as a whole may be large
+      while (parser.nextToken() != null && parser.currentToken() != JsonToken.END_ARRAY) {
+        JsonNode id = MAPPER.<JsonNode>readTree(parser).at(idPointer);
+        if (id.isValueNode() && !id.isNull() && (max == null || compareIds(id.asText(), max) > 0)) {
+          max = id.asText();
+        }
+      }
+    }
+    return max;
+  }
+
+  private static String findCursor(byte[] data, JsonPointer cursorPointer) throws IOException {
+    JsonFactory factory = MAPPER.getFactory();
+    try (JsonParser parser = new FilteringParserDelegate(factory.createParser(data),
+        new JsonPointerBasedFilter(cursorPointer), false, false)) {
+      JsonToken token = parser.nextToken();
+      return token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : null;
+    }
+  }
+
+  /**
+   * Compares numeric ids by their value and all other ids lexicographically, which also orders ISO-8601 timestamps.
+   */
+  private static int compareIds(String a, String b) {
+    try {
+      return new BigDecimal(a).compareTo(new BigDecimal(b));
+    } catch (NumberFormatException e) {
+      return a.compareTo(b);
+    }
+  }
+}
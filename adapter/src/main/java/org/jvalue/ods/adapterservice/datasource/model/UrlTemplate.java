@@ -0,0 +1,52 @@
+package org.jvalue.ods.adapterservice.datasource.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Location with open parameters like {@code {userId}}, split into its literal parts and parameter names once, so that
+ * filling in the parameters is a single pass over the parts. Open parameters without a value are kept as they are.
+ */
+public class UrlTemplate {
+  // alternating literal parts and parameter names, starting and ending with a literal part
+  private final List<String> parts;
+
+  private UrlTemplate(List<String> parts) {
+    this.parts = parts;
+  }
+
+  public static UrlTemplate compile(String location) {
+    List<String> parts = new ArrayList<>();
+    int literalStart = 0;
+    int open = location.indexOf('{');
+    while (open >= 0) {
+      int close = location.indexOf('}', open + 1);
+      if (close < 0) {
+        break;
+      }
+      // a nested brace starts the parameter at the innermost one
+      int innerOpen = location.lastIndexOf('{', close);
+      parts.add(location.substring(literalStart, innerOpen));
+      parts.add(location.substring(innerOpen + 1, close));
+      literalStart = close + 1;
+      open = location.indexOf('{', literalStart);
+    }
+    parts.add(location.substring(literalStart));
+    return new UrlTemplate(List.copyOf(parts));
+  }
+
+  public String fill(Map<String, String> parameters) {
+    StringBuilder location = new StringBuilder(parts.get(0));
+    for (int i = 1; i < parts.size(); i += 2) {
+      String value = parameters.get(parts.get(i));
+      if (value != null) {
+        location.append(value);
+      } else {
+        location.append('{').append(parts.get(i)).append('}');
+      }
+      location.append(parts.get(i + 1));
+    }
+    return location.toString();
+  }
+}
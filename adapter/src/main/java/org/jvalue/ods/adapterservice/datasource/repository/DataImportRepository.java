@@ -3,7 +3,11 @@ package org.jvalue.ods.adapterservice.datasource.repository;
 import java.util.Optional;
 
 import org.jvalue.ods.adapterservice.datasource.model.DataImport;
+import org.jvalue.ods.adapterservice.datasource.validator.ValidationMetaData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DataImportRepository extends JpaRepository<DataImport, Long> {
   /**
@@ -12,4 +16,18 @@ public interface DataImportRepository extends JpaRepository<DataImport, Long> {
    */
   Optional<DataImport> findTopByDatasourceIdOrderByTimestampDesc(Long datasourceId);
   Optional<DataImport> findByDatasourceIdAndId(Long datasourceId, Long id);
+
+  /**
+   * Finds the latest DataImport by datasource id that does not have the given health, without loading its data.
+   */
+  Optional<DataImportSummary> findTopByDatasourceIdAndHealthNotOrderByTimestampDesc(Long datasourceId,
+      ValidationMetaData.HealthStatus health);
+
+  /**
+   * Forgets the source versions of all imports of a datasource, so that the next import is executed in any case.
+   */
+  @Modifying
+  @Query("update DataImport i set i.sourceLocation = null, i.sourceEtag = null, i.sourceLastModified = null"
+    + " where i.datasource.id = :datasourceId")
+  void clearSourceVersions(@Param("datasourceId") Long datasourceId);
 }
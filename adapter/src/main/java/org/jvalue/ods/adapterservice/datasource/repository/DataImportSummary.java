@@ -0,0 +1,46 @@
+package org.jvalue.ods.adapterservice.datasource.repository;
+
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
+import org.jvalue.ods.adapterservice.datasource.model.DataImport;
+import org.jvalue.ods.adapterservice.datasource.model.Datasource;
+import org.jvalue.ods.adapterservice.datasource.model.IncrementalState;
+import org.jvalue.ods.adapterservice.datasource.validator.ValidationMetaData;
+
+import java.util.Date;
+
+/**
+ * Projection of a data import without its (potentially large) data.
+ */
+public interface DataImportSummary {
+  Long getId();
+
+  Date getTimestamp();
+
+  ValidationMetaData.HealthStatus getHealth();
+
+  String[] getErrorMessages();
+
+  String getSourceLocation();
+
+  String getSourceEtag();
+
+  String getSourceLastModified();
+
+  Date getWindowEnd();
+
+  String getMaxId();
+
+  String getCursor();
+
+  default SourceVersion getSourceVersion() {
+    return new SourceVersion(getSourceLocation(), getSourceEtag(), getSourceLastModified());
+  }
+
+  default IncrementalState getIncrementalState() {
+    return new IncrementalState(getTimestamp(), getWindowEnd(), getMaxId(), getCursor());
+  }
+
+  default DataImport.MetaData toMetaData(Datasource datasource) {
+    return new DataImport.MetaData(getId(), getTimestamp(), getHealth(), getErrorMessages(), datasource);
+  }
+}
@@ -2,6 +2,8 @@ package org.jvalue.ods.adapterservice.datasource.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.persistence.AttributeConverter;
@@ -13,13 +15,15 @@ import java.util.Map;
  */
 @Slf4j
 public class GenericParameterConverter implements AttributeConverter<Map<String, Object>, String> {
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  // immutable and shared by all converter instances
+  private static final ObjectReader PARAMETERS_READER = new ObjectMapper().readerFor(Map.class);
+  private static final ObjectWriter PARAMETERS_WRITER = new ObjectMapper().writer();
 
   @Override
   public String convertToDatabaseColumn(Map<String, Object> parameters) {
     String parametersJson = null;
     try {
-      parametersJson = objectMapper.writeValueAsString(parameters);
+      parametersJson = PARAMETERS_WRITER.writeValueAsString(parameters);
     } catch (final JsonProcessingException e) {
       log.error("JSON serialization error", e);
     }
@@ -31,7 +35,7 @@ public class GenericParameterConverter implements AttributeConverter<Map<String,
   public Map<String, Object> convertToEntityAttribute(String parametersJson) {
     Map<String, Object> parameters = null;
     try {
-      parameters = objectMapper.readValue(parametersJson, Map.class);
+      parameters = PARAMETERS_READER.readValue(parametersJson);
     } catch (final IOException e) {
       log.error("JSON deserialization error", e);
     }
@@ -10,24 +10,42 @@ import org.json.JSONObject;
 
 import com.google.gson.Gson;
 
+import java.util.function.Function;
+
 public class JsonSchemaValidator implements Validator {
+  private final Function<DataImport, Schema> schemaProvider;
+
+  /**
+   * Validates imports against the schema of their datasource, which is loaded for every import.
+   */
+  public JsonSchemaValidator() {
+    this.schemaProvider = dataImport -> loadSchema(dataImport.getDatasource().getSchema());
+  }
+
+  /**
+   * Validates imports against the given schema, which is loaded only once.
+   *
+   * @param schema the JSON schema, null to accept all imports
+   */
+  public JsonSchemaValidator(Object schema) {
+    Schema loadedSchema = loadSchema(schema);
+    this.schemaProvider = dataImport -> loadedSchema;
+  }
 
   @Override
   public ValidationMetaData validate(DataImport dataImport){
     ValidationMetaData validationMetaData = new ValidationMetaData(dataImport.getHealth());
-    if (dataImport.getDatasource().getSchema() == null) {
+    Schema schema = schemaProvider.apply(dataImport);
+    if (schema == null) {
       return new ValidationMetaData(ValidationMetaData.HealthStatus.OK);
     }
     try {
-      String schemaString = new Gson().toJson(dataImport.getDatasource().getSchema());
-      JSONObject rawSchema = new JSONObject(schemaString);
-      Schema schema = SchemaLoader.load(rawSchema);
       String dataString = dataImport.getData();
       if (dataString.substring(0, 1).equals("[")) {
-        schema.validate(new JSONArray(dataImport.getData()));
+        schema.validate(new JSONArray(dataString));
       }
       else {
-        schema.validate(new JSONObject(dataImport.getData()));
+        schema.validate(new JSONObject(dataString));
       }
 
       validationMetaData.setHealthStatus(ValidationMetaData.HealthStatus.OK);
@@ -39,4 +57,12 @@ public class JsonSchemaValidator implements Validator {
       return validationMetaData;
     }
   }
+
+  private static Schema loadSchema(Object schema) {
+    if (schema == null) {
+      return null;
+    }
+    String schemaString = new Gson().toJson(schema);
+    return SchemaLoader.load(new JSONObject(schemaString));
+  }
 }
@@ -1,66 +1,499 @@
 package org.jvalue.ods.adapterservice.adapter;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.jvalue.ods.adapterservice.adapter.importer.FetchResult;
+import org.jvalue.ods.adapterservice.adapter.importer.FileImporter;
+import org.jvalue.ods.adapterservice.adapter.importer.HostCircuitBreaker;
+import org.jvalue.ods.adapterservice.adapter.importer.HostLimiter;
+import org.jvalue.ods.adapterservice.adapter.importer.HttpImporter;
 import org.jvalue.ods.adapterservice.adapter.importer.Importer;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
 import org.jvalue.ods.adapterservice.adapter.interpreter.Interpreter;
 import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
 import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
 import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
 import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 import org.mockito.Mock;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.client.ClientHttpRequestFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class AdapterTest {
 
-  private final Adapter adapter = new Adapter();
-
   @Mock
   Importer importer;
   @Mock
-  Protocol httpProtocol;
+  ClientHttpRequestFactory requestFactory;
+  @Mock
+  HttpAsyncClient asyncClient;
 
   @Test
   public void testGetAllProtocols() {
+    AdapterProperties properties = new AdapterProperties();
+    HttpImporter httpImporter = new HttpImporter(requestFactory, asyncClient,
+      new HostLimiter(properties, new SimpleMeterRegistry()), new HostCircuitBreaker(properties), properties);
+    Adapter adapter = new Adapter(List.of(httpImporter, new FileImporter(properties)), properties);
     var protocols = adapter.getAllProtocols();
-    assertThat(protocols).extracting(Importer::getType).containsExactlyInAnyOrder("HTTP");
+    assertThat(protocols).extracting(Importer::getType).containsExactlyInAnyOrder("HTTP", "FILE");
   }
 
   @Test
   public void testGetAllFormats() {
+    Adapter adapter = new Adapter(List.of(), new AdapterProperties());
     var formats = adapter.getAllFormats();
-    assertThat(formats).extracting(Interpreter::getType).containsExactlyInAnyOrder("JSON", "XML", "CSV");
+    assertThat(formats).extracting(Interpreter::getType).containsExactlyInAnyOrder("JSON", "XML", "CSV", "NDJSON", "XLSX", "PARQUET", "ARROW");
   }
 
   @Test
   public void testExecuteJob() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
     ProtocolConfig protocol = new ProtocolConfig(
-      httpProtocol,
+      Protocol.HTTP,
       Map.of(
         "location", "http://www.test.com",
         "encoding", "UTF-8"));
-    when(httpProtocol.getImporter()).thenReturn(importer);
     FormatConfig format = new FormatConfig(
       Format.XML,
       Collections.emptyMap());
     AdapterConfig adapterConfig = new AdapterConfig(
       protocol, format);
 
-    when(importer.fetch(protocol.parameters)).thenReturn("<greeting><hallo>hello</hallo></greeting>");
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("<greeting><hallo>hello</hallo></greeting>".getBytes()), SourceVersion.UNKNOWN));
 
     DataImportResponse result = adapter.executeJob(adapterConfig);
 
     assertEquals(result.getData(), "{\"hallo\":\"hello\"}");
   }
+
+  @Test
+  public void testExecuteJobExceedingMaxBodySize() throws ImporterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8",
+        "maxBodySize", "10B"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol, new FormatConfig(Format.JSON, Collections.emptyMap()));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("[1, 2, 3, 4, 5, 6]".getBytes()), SourceVersion.UNKNOWN));
+
+    assertThrows(ImportLimitExceededException.class, () -> adapter.executeJob(adapterConfig));
+  }
+
+  @Test
+  public void testExecuteJobExceedingMaxRecords() throws ImporterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol, new FormatConfig(Format.JSON, Map.of("maxRecords", 2)));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("[{\"a\":1},{\"a\":2},{\"a\":3}]".getBytes()), SourceVersion.UNKNOWN));
+
+    assertThrows(ImportLimitExceededException.class, () -> adapter.executeJob(adapterConfig));
+  }
+
+  @Test
+  public void testExecuteJobExceedingMaxDepth() throws ImporterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    AdapterProperties properties = new AdapterProperties();
+    properties.getLimits().setMaxDepth(3);
+    Adapter adapter = new Adapter(List.of(importer), properties);
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol, new FormatConfig(Format.JSON, Collections.emptyMap()));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("[{\"a\":{\"b\":[1]}}]".getBytes()), SourceVersion.UNKNOWN));
+
+    assertThrows(ImportLimitExceededException.class, () -> adapter.executeJob(adapterConfig));
+  }
+
+  @Test
+  public void testExecutePreviewStopsAtMaxRecords() throws ImporterParameterException, InterpreterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("[{\"a\":1},{\"a\":[2]},{\"a\":3}]", Format.JSON, Collections.emptyMap());
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executePreview(adapterConfig, 2L, null);
+
+    assertEquals("[{\"a\":1},{\"a\":[2]}]", result.getData());
+    assertTrue(result.isTruncated());
+  }
+
+  @Test
+  public void testExecutePreviewWithinLimits() throws ImporterParameterException, InterpreterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("[1,2,3]", Format.JSON, Collections.emptyMap());
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executePreview(adapterConfig, 3L, 7L);
+
+    assertEquals("[1,2,3]", result.getData());
+    assertFalse(result.isTruncated());
+  }
+
+  @Test
+  public void testExecutePreviewCutsCsvAtLastLineBreak() throws ImporterParameterException, InterpreterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("1;2;a\n3;4;b\n5;6;c\n", Format.CSV, Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false));
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executePreview(adapterConfig, null, 9L);
+
+    assertEquals("[[\"1\",\"2\",\"a\"]]", result.getData());
+    assertTrue(result.isTruncated());
+  }
+
+  @Test
+  public void testExecutePreviewDropsIncompleteRecord() throws ImporterParameterException, InterpreterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("[{\"a\":1},{\"a\":2},{\"a\":3}]", Format.JSON, Collections.emptyMap());
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executePreview(adapterConfig, null, 14L);
+
+    assertEquals("[{\"a\":1}]", result.getData());
+    assertTrue(result.isTruncated());
+  }
+
+  @Test
+  public void testExecutePreviewCannotTruncateObject() throws ImporterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("<greeting><hallo>hello</hallo></greeting>", Format.XML, Collections.emptyMap());
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    assertThrows(ImportLimitExceededException.class, () -> adapter.executePreview(adapterConfig, null, 20L));
+  }
+
+  @Test
+  public void testExecuteRawPreview() throws ImporterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("[1,2,3]", Format.JSON, Collections.emptyMap());
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executeRawPreview(adapterConfig.protocolConfig, 3L);
+
+    assertEquals("[1,", result.getData());
+    assertTrue(result.isTruncated());
+  }
+
+  @Test
+  public void testExecutePreviewWithInvalidLimits() {
+    when(importer.getType()).thenReturn("HTTP");
+    AdapterConfig adapterConfig = new AdapterConfig(
+      new ProtocolConfig(Protocol.HTTP, Map.of("location", "http://www.test.com", "encoding", "UTF-8")),
+      new FormatConfig(Format.JSON, Collections.emptyMap()));
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    assertThrows(InterpreterParameterException.class, () -> adapter.executePreview(adapterConfig, 0L, null));
+    assertThrows(ImporterParameterException.class, () -> adapter.executePreview(adapterConfig, null, -1L));
+    assertThrows(ImporterParameterException.class, () -> adapter.executeRawPreview(adapterConfig.protocolConfig, 0L));
+  }
+
+  @Test
+  public void testExecuteRawPreviewStopsFetchingAtByteLimit() throws ImporterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    AtomicLong bytesRead = new AtomicLong();
+    InputStream source = new InputStream() {
+      @Override
+      public int read() {
+        return bytesRead.incrementAndGet() > 100_000_000 ? -1 : '1';
+      }
+    };
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(source, SourceVersion.UNKNOWN));
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executeRawPreview(protocol, 3L);
+
+    assertEquals("111", result.getData());
+    assertTrue(result.isTruncated());
+    assertThat(bytesRead.get()).isLessThan(10_000);
+  }
+
+  private AdapterConfig mockPreviewSource(String data, Format format, Map<String, Object> formatParameters)
+      throws ImporterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream(data.getBytes()), SourceVersion.UNKNOWN));
+    return new AdapterConfig(protocol, new FormatConfig(format, formatParameters));
+  }
+
+  @Test
+  public void testExecuteJobReusesRecentlyFetchedData() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("[1,2]".getBytes()), SourceVersion.UNKNOWN));
+
+    DataImportResponse json = adapter.executeJob(new AdapterConfig(protocol, new FormatConfig(Format.JSON, Collections.emptyMap())));
+    DataImportResponse raw = adapter.executeRawImport(protocol);
+
+    assertEquals("[1,2]", json.getData());
+    assertEquals("[1,2]", raw.getData());
+    verify(importer, times(1)).fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN);
+  }
+
+  @Test
+  public void testExecuteJobCoalescesConcurrentFetches() throws Exception {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    CountDownLatch fetchStarted = new CountDownLatch(1);
+    CountDownLatch fetchReleased = new CountDownLatch(1);
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN)).thenAnswer(invocation -> {
+      fetchStarted.countDown();
+      fetchReleased.await();
+      return FetchResult.modified(new ByteArrayInputStream("[1]".getBytes()), SourceVersion.UNKNOWN);
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<DataImportResponse> first = executor.submit(() -> adapter.executeRawImport(protocol));
+      fetchStarted.await();
+      Future<DataImportResponse> second = executor.submit(() -> adapter.executeRawImport(protocol));
+      // give the second fetch time to join the first one before the first one completes
+      Thread.sleep(100);
+      fetchReleased.countDown();
+
+      assertEquals("[1]", first.get().getData());
+      assertEquals("[1]", second.get().getData());
+    } finally {
+      executor.shutdown();
+    }
+    verify(importer, times(1)).fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN);
+  }
+
+  @Test
+  public void testExecuteProtocolAsyncCoalescesConcurrentFetches() throws Exception {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    CompletableFuture<FetchResult> fetch = new CompletableFuture<>();
+    when(importer.fetchValidatedAsync(eq(protocol.parameters), eq(SourceVersion.UNKNOWN), anyLong(), isNull()))
+      .thenReturn(fetch);
+
+    CompletableFuture<InputStream> first = adapter.executeProtocolAsync(protocol, null);
+    CompletableFuture<InputStream> second = adapter.executeProtocolAsync(protocol, null);
+    CompletableFuture<InputStream> preview = adapter.executeProtocolAsync(protocol, 1L);
+    fetch.complete(FetchResult.modified(new ByteArrayInputStream("[1]".getBytes()), SourceVersion.UNKNOWN));
+    // the joined fetches complete once the leading caller read the data
+    assertFalse(second.isDone());
+    try (InputStream data = first.get()) {
+      assertEquals("[1]", new String(data.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    assertEquals("[1]", new String(second.get().readAllBytes(), StandardCharsets.UTF_8));
+    assertEquals("[1]", new String(preview.get().readAllBytes(), StandardCharsets.UTF_8));
+    verify(importer, times(1)).fetchValidatedAsync(any(), any(), anyLong(), any());
+  }
+
+  @Test
+  public void testPrepareNdjsonLinesOutput() {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+
+    assertThrows(InterpreterParameterException.class, () ->
+      adapter.prepare(new AdapterConfig(protocol, new FormatConfig(Format.NDJSON, Map.of("output", "lines")))));
+  }
+
+  @Test
+  public void testExecutePreparedJob() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com/{page}",
+        "encoding", "UTF-8"));
+    PreparedImport prepared = adapter.prepare(
+      new AdapterConfig(protocol, new FormatConfig(Format.CSV, Map.of(
+        "columnSeparator", ";",
+        "lineSeparator", "\n",
+        "skipFirstDataRow", false,
+        "firstRowAsHeader", true))));
+
+    when(importer.fetchValidatedIfModified(Map.of("location", "http://www.test.com/1", "encoding", "UTF-8"), SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("a;b\n1;2\n".getBytes()), SourceVersion.UNKNOWN));
+    when(importer.fetchValidatedIfModified(Map.of("location", "http://www.test.com/2", "encoding", "UTF-8"), SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("a;b\n3;4\n".getBytes()), SourceVersion.UNKNOWN));
+
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    adapter.executeJob(prepared, "http://www.test.com/1", SourceVersion.UNKNOWN, first);
+    adapter.executeJob(prepared, "http://www.test.com/2", SourceVersion.UNKNOWN, second);
+
+    assertEquals("[{\"a\":\"1\",\"b\":\"2\"}]", first.toString(StandardCharsets.UTF_8));
+    assertEquals("[{\"a\":\"3\",\"b\":\"4\"}]", second.toString(StandardCharsets.UTF_8));
+    verify(importer, times(1)).validate(protocol.parameters);
+  }
+
+  @Test
+  public void testExecutePreparedJobBypassesFetchCache() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    PreparedImport prepared = adapter.prepare(new AdapterConfig(protocol, new FormatConfig(Format.JSON, Map.of())));
+    SourceVersion version = new SourceVersion("http://www.test.com", "\"v1\"", null);
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("[1]".getBytes()), version));
+    when(importer.fetchValidatedIfModified(protocol.parameters, version))
+      .thenReturn(FetchResult.notModified(version));
+
+    adapter.executeRawImport(protocol);
+    Optional<SourceVersion> result = adapter.executeJob(prepared, "http://www.test.com", version,
+      new ByteArrayOutputStream());
+
+    assertTrue(result.isEmpty());
+    verify(importer, times(1)).fetchValidatedIfModified(protocol.parameters, version);
+  }
+
+  @Test
+  public void testExecuteJobPassesJsonThrough() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol,
+      new FormatConfig(Format.JSON, Map.of("passThrough", true, "pointer", "/records")));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("{\"count\": 2, \"records\": [ 1, 2 ]}".getBytes()), SourceVersion.UNKNOWN));
+
+    DataImportResponse result = adapter.executeJob(adapterConfig);
+
+    assertEquals("[ 1, 2 ]", result.getData());
+  }
+
+  @Test
+  public void testExecuteJobProjectsAndFiltersRecords() throws ImporterParameterException, InterpreterParameterException, IOException {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(
+      Protocol.HTTP,
+      Map.of(
+        "location", "http://www.test.com",
+        "encoding", "UTF-8"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol, new FormatConfig(Format.CSV, Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", true,
+      "fields", List.of("name", "year"),
+      "filter", List.of(Map.of("field", "year", "op", "ge", "value", 2020), Map.of("field", "name", "op", "ne", "value", "b")))));
+
+    when(importer.fetchIfModified(protocol.parameters, SourceVersion.UNKNOWN))
+      .thenReturn(FetchResult.modified(new ByteArrayInputStream("name;year;comment\na;2019;x\nb;2020;y\nc;2021;z\n".getBytes()), SourceVersion.UNKNOWN));
+
+    DataImportResponse result = adapter.executeJob(adapterConfig);
+
+    assertEquals("[{\"name\":\"c\",\"year\":\"2021\"}]", result.getData());
+  }
+
+  @Test
+  public void testExecutePreviewCountsFilteredRecords() throws ImporterParameterException, InterpreterParameterException, IOException {
+    AdapterConfig adapterConfig = mockPreviewSource("[{\"a\":1,\"b\":{\"c\":1}},{\"a\":2},{\"a\":3,\"b\":{\"c\":3,\"d\":4}},{\"a\":4,\"b\":{}}]",
+      Format.JSON, Map.of("fields", List.of("/b/c"), "filter", Map.of("field", "b", "op", "exists")));
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+
+    DataImportResponse result = adapter.executePreview(adapterConfig, 2L, null);
+
+    assertEquals("[{\"b\":{\"c\":1}},{\"b\":{\"c\":3}}]", result.getData());
+    assertTrue(result.isTruncated());
+  }
+
+  @Test
+  public void testExecuteJobWithInvalidFilter() {
+    when(importer.getType()).thenReturn("HTTP");
+    Adapter adapter = new Adapter(List.of(importer), new AdapterProperties());
+    ProtocolConfig protocol = new ProtocolConfig(Protocol.HTTP, Map.of("location", "http://www.test.com"));
+    AdapterConfig adapterConfig = new AdapterConfig(protocol,
+      new FormatConfig(Format.JSON, Map.of("filter", Map.of("field", "a", "op", "like", "value", "x"))));
+
+    assertThrows(InterpreterParameterException.class, () -> adapter.prepare(adapterConfig));
+  }
 }
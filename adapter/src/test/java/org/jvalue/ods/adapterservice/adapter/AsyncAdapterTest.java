@@ -0,0 +1,160 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.jvalue.ods.adapterservice.adapter.model.AdapterConfig;
+import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
+import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
+import org.jvalue.ods.adapterservice.adapter.model.ProtocolConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportTimeoutException;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.jvalue.ods.adapterservice.common.ImportExecutor;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncAdapterTest {
+  private final AdapterConfig config = new AdapterConfig(
+    new ProtocolConfig(Protocol.HTTP, Map.of("location", "http://www.test.com")),
+    new FormatConfig(Format.JSON, Map.of()));
+
+  @Mock
+  Adapter adapter;
+
+  private ImportExecutor executor;
+
+  @AfterEach
+  public void shutdown() {
+    executor.destroy();
+  }
+
+  @Test
+  public void testExecuteJob() throws Exception {
+    executor = createExecutor(1, 1);
+    Thread caller = Thread.currentThread();
+    when(adapter.executeJob(config)).thenAnswer(invocation -> {
+      assertNotEquals(caller, Thread.currentThread());
+      return new DataImportResponse("[1]");
+    });
+
+    DataImportResponse result = new AsyncAdapter(adapter, executor).executeJob(config).get();
+
+    assertEquals("[1]", result.getData());
+  }
+
+  @Test
+  public void testExecutePreviewFailure() throws Exception {
+    executor = createExecutor(1, 1);
+    InterpreterParameterException error = new InterpreterParameterException("invalid");
+    when(adapter.executePreview(config, 10L, null)).thenThrow(error);
+
+    CompletableFuture<DataImportResponse> result = new AsyncAdapter(adapter, executor).executePreview(config, 10L, null);
+
+    ExecutionException e = assertThrows(ExecutionException.class, result::get);
+    assertEquals(error, e.getCause());
+  }
+
+  @Test
+  public void testRejectWhenQueueIsFull() throws Exception {
+    executor = createExecutor(1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Object> blocking = executor.submit(() -> {
+      running.countDown();
+      release.await();
+      return null;
+    });
+    running.await();
+    CompletableFuture<Object> queued = executor.submit(() -> "queued");
+
+    CompletableFuture<Object> rejected = executor.submit(() -> "rejected");
+
+    ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+    assertTrue(e.getCause() instanceof RejectedExecutionException);
+    release.countDown();
+    blocking.get();
+    assertEquals("queued", queued.get());
+  }
+
+  @Test
+  public void testExecuteJobInterpretsAsyncFetchOnExecutor() throws Exception {
+    executor = createExecutor(1, 1);
+    Thread caller = Thread.currentThread();
+    InputStream data = new ByteArrayInputStream(new byte[0]);
+    when(adapter.canFetchAsync(config.protocolConfig)).thenReturn(true);
+    when(adapter.executeProtocolAsync(config.protocolConfig, null)).thenReturn(CompletableFuture.completedFuture(data));
+    when(adapter.executeJob(data, config.formatConfig)).thenAnswer(invocation -> {
+      assertNotEquals(caller, Thread.currentThread());
+      return new DataImportResponse("[1]");
+    });
+
+    DataImportResponse result = new AsyncAdapter(adapter, executor).executeJob(config).get();
+
+    assertEquals("[1]", result.getData());
+  }
+
+  @Test
+  public void testTimeoutAbortsAsyncFetch() throws Exception {
+    executor = createExecutor(1, 1, Duration.ofMillis(50));
+    CompletableFuture<InputStream> fetch = new CompletableFuture<>();
+    when(adapter.canFetchAsync(config.protocolConfig)).thenReturn(true);
+    when(adapter.executeProtocolAsync(config.protocolConfig, 100L)).thenReturn(fetch);
+
+    CompletableFuture<DataImportResponse> result = new AsyncAdapter(adapter, executor).executeRawPreview(
+      config.protocolConfig, 100L);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof ImportTimeoutException);
+    assertTrue(fetch.isCancelled());
+  }
+
+  @Test
+  public void testTimeoutInterruptsBlockingImport() throws Exception {
+    executor = createExecutor(1, 1, Duration.ofMillis(50));
+    CountDownLatch interrupted = new CountDownLatch(1);
+    when(adapter.executeJob(config)).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return null;
+    });
+
+    CompletableFuture<DataImportResponse> result = new AsyncAdapter(adapter, executor).executeJob(config);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof ImportTimeoutException);
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  private static ImportExecutor createExecutor(int threads, int queueCapacity) {
+    return createExecutor(threads, queueCapacity, Duration.ofMinutes(1));
+  }
+
+  private static ImportExecutor createExecutor(int threads, int queueCapacity, Duration timeout) {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getImports().setThreads(threads);
+    properties.getImports().setQueueCapacity(queueCapacity);
+    properties.getImports().setTimeout(timeout);
+    return new ImportExecutor(properties);
+  }
+}
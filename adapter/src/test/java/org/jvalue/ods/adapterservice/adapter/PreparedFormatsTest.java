@@ -0,0 +1,106 @@
+package org.jvalue.ods.adapterservice.adapter;
+
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.model.FormatConfig;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PreparedFormatsTest {
+
+  @Test
+  public void testReuseForEqualConfigs() throws InterpreterParameterException {
+    PreparedFormats formats = createFormats(2);
+
+    PreparedFormats.PreparedFormat prepared = formats.get(new FormatConfig(Format.XML, Map.of("recordPath", "/a/b")));
+
+    assertSame(prepared, formats.get(new FormatConfig(Format.XML, Map.of("recordPath", "/a/b"))));
+    assertNotSame(prepared, formats.get(new FormatConfig(Format.XML, Map.of("recordPath", "/a/c"))));
+    assertNull(prepared.recordFilter);
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws InterpreterParameterException {
+    PreparedFormats formats = createFormats(2);
+    FormatConfig json = new FormatConfig(Format.JSON, Map.of());
+    FormatConfig xml = new FormatConfig(Format.XML, Map.of());
+    FormatConfig filtered = new FormatConfig(Format.JSON, Map.of("fields", List.of("id")));
+
+    PreparedFormats.PreparedFormat preparedJson = formats.get(json);
+    PreparedFormats.PreparedFormat preparedXml = formats.get(xml);
+    formats.get(json);
+    PreparedFormats.PreparedFormat preparedFiltered = formats.get(filtered);
+
+    assertSame(preparedJson, formats.get(json));
+    assertNotSame(preparedXml, formats.get(xml));
+    assertNotNull(preparedFiltered.recordFilter);
+  }
+
+  @Test
+  public void testCopyParametersOfKey() throws InterpreterParameterException {
+    PreparedFormats formats = createFormats(2);
+    Map<String, Object> parameters = new HashMap<>(Map.of("recordPath", "/a/b"));
+
+    PreparedFormats.PreparedFormat prepared = formats.get(new FormatConfig(Format.XML, parameters));
+    parameters.put("recordPath", "/a/c");
+
+    assertSame(prepared, formats.get(new FormatConfig(Format.XML, Map.of("recordPath", "/a/b"))));
+  }
+
+  @Test
+  public void testDisabled() throws InterpreterParameterException {
+    PreparedFormats formats = createFormats(0);
+    FormatConfig config = new FormatConfig(Format.JSON, Map.of());
+
+    assertNotSame(formats.get(config), formats.get(config));
+  }
+
+  @Test
+  public void testResolveLimits() throws InterpreterParameterException {
+    PreparedFormats formats = createFormats(2);
+    AdapterProperties.Limits limits = new AdapterProperties.Limits();
+
+    PreparedFormats.PreparedFormat defaults = formats.get(new FormatConfig(Format.JSON, Map.of()));
+    PreparedFormats.PreparedFormat configured = formats.get(new FormatConfig(Format.JSON,
+      Map.of("maxDepth", 3, "maxRecords", 10L, "passThrough", true)));
+
+    assertEquals(limits.getMaxDepth(), defaults.maxDepth);
+    assertEquals(limits.getMaxRecords(), defaults.maxRecords);
+    assertNull(defaults.passThrough);
+    assertEquals(3, configured.maxDepth);
+    assertEquals(10L, configured.maxRecords);
+    assertNotNull(configured.passThrough);
+  }
+
+  @Test
+  public void testInvalidLimit() {
+    PreparedFormats formats = createFormats(2);
+
+    assertThrows(InterpreterParameterException.class,
+      () -> formats.get(new FormatConfig(Format.JSON, Map.of("maxDepth", 0))));
+  }
+
+  @Test
+  public void testInvalidConfig() {
+    PreparedFormats formats = createFormats(2);
+
+    assertThrows(InterpreterParameterException.class,
+      () -> formats.get(new FormatConfig(Format.XML, Map.of("recordPath", "a"))));
+  }
+
+  private static PreparedFormats createFormats(int maxSize) {
+    AdapterProperties.PreparedFormats properties = new AdapterProperties.PreparedFormats();
+    properties.setMaxSize(maxSize);
+    return new PreparedFormats(properties, new AdapterProperties.Limits());
+  }
+}
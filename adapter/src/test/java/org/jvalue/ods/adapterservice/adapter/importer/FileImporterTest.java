@@ -0,0 +1,98 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FileImporterTest {
+  @TempDir
+  Path tempDirectory;
+
+  private Path directory;
+  private Importer importer;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    directory = Files.createDirectory(tempDirectory.resolve("base"));
+    AdapterProperties properties = new AdapterProperties();
+    properties.getFile().setBaseDirectory(directory.toString());
+    importer = new FileImporter(properties);
+  }
+
+  private String fetch(Map<String, Object> parameters) throws IOException, ImporterParameterException {
+    try (InputStream data = importer.fetch(parameters)) {
+      return new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testFetch() throws IOException, ImporterParameterException {
+    Files.createDirectory(directory.resolve("exports"));
+    Files.writeString(directory.resolve("exports/data.json"), "{\"content\":\"from disk\"}");
+
+    assertEquals("{\"content\":\"from disk\"}", fetch(Map.of("location", "exports/data.json", "encoding", "UTF-8")));
+  }
+
+  @Test
+  public void testFetchTranscodesToUtf8() throws IOException, ImporterParameterException {
+    Files.writeString(directory.resolve("data.csv"), "Gr\u00fc\u00dfe", StandardCharsets.ISO_8859_1);
+
+    assertEquals("Gr\u00fc\u00dfe", fetch(Map.of("location", "data.csv", "encoding", "ISO-8859-1")));
+  }
+
+  @Test
+  public void testFetchGzipCompressed() throws IOException, ImporterParameterException {
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(directory.resolve("data.json.gz")))) {
+      out.write("[1,2,3]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    assertEquals("[1,2,3]", fetch(Map.of("location", "data.json.gz", "encoding", "UTF-8", "compression", "GZIP")));
+  }
+
+  @Test
+  public void testFetchEmptyFile() throws IOException, ImporterParameterException {
+    Files.createFile(directory.resolve("empty.json"));
+
+    assertEquals("", fetch(Map.of("location", "empty.json", "encoding", "UTF-8")));
+  }
+
+  @Test
+  public void testFetchMissingFile() {
+    assertThrows(NoSuchFileException.class, () ->
+      fetch(Map.of("location", "missing.json", "encoding", "UTF-8"))
+    );
+  }
+
+  @Test
+  public void testFetchOutsideBaseDirectory() throws IOException {
+    Files.writeString(tempDirectory.resolve("secret.json"), "{}");
+
+    assertThrows(ImporterParameterException.class, () ->
+      fetch(Map.of("location", "../secret.json", "encoding", "UTF-8"))
+    );
+  }
+
+  @Test
+  public void testFetchWithoutBaseDirectory() {
+    Importer disabled = new FileImporter(new AdapterProperties());
+
+    assertThrows(ImporterParameterException.class, () ->
+      disabled.fetch(Map.of("location", "data.json", "encoding", "UTF-8"))
+    );
+  }
+}
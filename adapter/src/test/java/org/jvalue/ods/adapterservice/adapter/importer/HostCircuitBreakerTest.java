@@ -0,0 +1,78 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HostCircuitBreakerTest {
+  private static final long OPEN_MILLIS = 50;
+
+  private final URI uri = URI.create("http://www.the-inter.net/json");
+  private final HostCircuitBreaker circuitBreaker = createCircuitBreaker();
+
+  @Test
+  public void testOpensAfterFailureThreshold() {
+    assertTrue(circuitBreaker.tryPass(uri));
+    circuitBreaker.recordFailure(uri);
+    assertTrue(circuitBreaker.tryPass(uri));
+    circuitBreaker.recordFailure(uri);
+
+    assertFalse(circuitBreaker.tryPass(uri));
+    assertTrue(circuitBreaker.tryPass(URI.create("http://other-host.net/json")));
+  }
+
+  @Test
+  public void testSuccessfulTrialClosesCircuit() throws InterruptedException {
+    open();
+    Thread.sleep(OPEN_MILLIS + 10);
+
+    assertTrue(circuitBreaker.tryPass(uri));
+    assertFalse(circuitBreaker.tryPass(uri));
+    circuitBreaker.recordSuccess(uri);
+
+    assertTrue(circuitBreaker.tryPass(uri));
+    assertTrue(circuitBreaker.tryPass(uri));
+  }
+
+  @Test
+  public void testFailedTrialReopensCircuit() throws InterruptedException {
+    open();
+    Thread.sleep(OPEN_MILLIS + 10);
+
+    assertTrue(circuitBreaker.tryPass(uri));
+    circuitBreaker.recordFailure(uri);
+
+    assertFalse(circuitBreaker.tryPass(uri));
+  }
+
+  @Test
+  public void testStaleTrialIsGivenUp() throws InterruptedException {
+    open();
+    Thread.sleep(OPEN_MILLIS + 10);
+    assertTrue(circuitBreaker.tryPass(uri));
+
+    // the outcome of the trial is never reported
+    Thread.sleep(OPEN_MILLIS + 10);
+
+    assertTrue(circuitBreaker.tryPass(uri));
+    assertFalse(circuitBreaker.tryPass(uri));
+  }
+
+  private void open() {
+    circuitBreaker.recordFailure(uri);
+    circuitBreaker.recordFailure(uri);
+    assertFalse(circuitBreaker.tryPass(uri));
+  }
+
+  private static HostCircuitBreaker createCircuitBreaker() {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getHttp().setCircuitFailureThreshold(2);
+    properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(OPEN_MILLIS));
+    return new HostCircuitBreaker(properties);
+  }
+}
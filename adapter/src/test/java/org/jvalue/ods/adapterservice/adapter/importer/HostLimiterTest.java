@@ -0,0 +1,133 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HostLimiterTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final HostLimiter limiter = new HostLimiter(new AdapterProperties(), meterRegistry);
+  private final URI uri = URI.create("http://www.the-inter.net/json");
+
+  private long deadlineIn(long millis) {
+    return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  public void testConcurrencyLimitWaitsForFreeSlot() throws IOException {
+    HostLimiter.Limits limits = new HostLimiter.Limits(0, 1);
+
+    HostLimiter.Permit first = limiter.acquire(uri, limits, deadlineIn(1000));
+    assertThrows(SocketTimeoutException.class, () -> limiter.acquire(uri, limits, deadlineIn(50)));
+
+    first.close();
+    limiter.acquire(uri, limits, deadlineIn(1000)).close();
+  }
+
+  @Test
+  public void testAcquireAsyncWaitsForFreeSlot() throws Exception {
+    HostLimiter.Limits limits = new HostLimiter.Limits(0, 1);
+    HostLimiter.Permit first = limiter.acquire(uri, limits, deadlineIn(1000));
+
+    CompletableFuture<HostLimiter.Permit> second = limiter.acquireAsync(uri, limits, deadlineIn(1000));
+    assertFalse(second.isDone());
+
+    first.close();
+    second.get(1, TimeUnit.SECONDS).close();
+  }
+
+  @Test
+  public void testAcquireAsyncTimesOut() throws Exception {
+    HostLimiter.Limits limits = new HostLimiter.Limits(0, 1);
+
+    try (HostLimiter.Permit ignored = limiter.acquire(uri, limits, deadlineIn(1000))) {
+      CompletableFuture<HostLimiter.Permit> second = limiter.acquireAsync(uri, limits, deadlineIn(50));
+      ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof SocketTimeoutException);
+    }
+    limiter.acquire(uri, limits, deadlineIn(1000)).close();
+  }
+
+  @Test
+  public void testConcurrencyLimitIsPerHost() throws IOException {
+    HostLimiter.Limits limits = new HostLimiter.Limits(0, 1);
+
+    try (HostLimiter.Permit ignored = limiter.acquire(uri, limits, deadlineIn(1000))) {
+      limiter.acquire(URI.create("http://other-host.net/json"), limits, deadlineIn(1000)).close();
+    }
+  }
+
+  @Test
+  public void testRateLimitDelaysRequestsOverBurst() throws IOException {
+    HostLimiter limiter = createLimiter(20, 10);
+    HostLimiter.Limits limits = limiter.getDefaultLimits();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 22; i++) {
+      limiter.acquire(uri, limits, deadlineIn(5000)).close();
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // a burst of 20 requests passes immediately, the other two wait for 50ms each
+    assertTrue(elapsedMillis >= 90, "requests were not delayed, took " + elapsedMillis + "ms");
+    assertEquals(22, meterRegistry.get("adapter.http.host.queue.wait").tag("host", "www.the-inter.net").timer().count());
+  }
+
+  @Test
+  public void testOverriddenLimitsDoNotExceedHostLimits() throws IOException {
+    HostLimiter limiter = createLimiter(0, 1);
+
+    try (HostLimiter.Permit ignored = limiter.acquire(uri, new HostLimiter.Limits(0, 5), deadlineIn(1000))) {
+      assertThrows(SocketTimeoutException.class,
+        () -> limiter.acquire(uri, new HostLimiter.Limits(0, 10), deadlineIn(50)));
+    }
+    limiter.acquire(uri, new HostLimiter.Limits(0, 10), deadlineIn(1000)).close();
+  }
+
+  @Test
+  public void testTimedOutRequestRefundsToken() throws IOException {
+    HostLimiter limiter = createLimiter(2, 1);
+    HostLimiter.Limits limits = limiter.getDefaultLimits();
+
+    try (HostLimiter.Permit ignored = limiter.acquire(uri, limits, deadlineIn(1000))) {
+      assertThrows(SocketTimeoutException.class, () -> limiter.acquire(uri, limits, deadlineIn(50)));
+    }
+
+    // without the refund, the bucket would be empty for the next 500ms
+    limiter.acquire(uri, limits, deadlineIn(50)).close();
+  }
+
+  @Test
+  public void testEvictIdleBudgets() throws IOException {
+    limiter.acquire(uri, new HostLimiter.Limits(0, 1), deadlineIn(1000)).close();
+    HostLimiter.Permit busy = limiter.acquire(URI.create("http://other-host.net/json"), limiter.getDefaultLimits(),
+      deadlineIn(1000));
+
+    limiter.evictIdleBudgets(System.nanoTime() + TimeUnit.MINUTES.toNanos(10));
+
+    assertNull(meterRegistry.find("adapter.http.host.queue.wait").tag("host", "www.the-inter.net").timer());
+    assertNotNull(meterRegistry.find("adapter.http.host.queue.wait").tag("host", "other-host.net").timer());
+    busy.close();
+  }
+
+  private HostLimiter createLimiter(double rateLimit, int maxConcurrentRequests) {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getHttp().setRateLimit(rateLimit);
+    properties.getHttp().setMaxConcurrentRequestsPerHost(maxConcurrentRequests);
+    return new HostLimiter(properties, meterRegistry);
+  }
+}
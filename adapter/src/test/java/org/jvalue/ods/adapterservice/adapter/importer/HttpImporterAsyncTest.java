@@ -0,0 +1,198 @@
+package org.jvalue.ods.adapterservice.adapter.importer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
+import org.jvalue.ods.adapterservice.config.HttpClientConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fetches from a local server, as the non-blocking client can not be backed by mocked requests.
+ */
+public class HttpImporterAsyncTest {
+  private static final long MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+  private final AdapterProperties properties = new AdapterProperties();
+  private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+  private final CountDownLatch requested = new CountDownLatch(1);
+  private final CountDownLatch aborted = new CountDownLatch(1);
+  private final AtomicInteger flakyRequests = new AtomicInteger();
+  private HttpServer server;
+  private CloseableHttpAsyncClient client;
+  private HttpImporter importer;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/data", exchange -> {
+      exchange.getResponseHeaders().set("ETag", "\"v1\"");
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+      respond(exchange, 200, "[1,2]");
+    });
+    server.createContext("/flaky", exchange ->
+      respond(exchange, flakyRequests.incrementAndGet() == 1 ? 503 : 200, "ok"));
+    server.createContext("/endless", this::respondEndlessly);
+    server.setExecutor(serverThreads);
+    server.start();
+
+    properties.getHttp().setRetryInitialBackoff(Duration.ofMillis(1));
+    client = new HttpClientConfig(properties).importerHttpAsyncClient();
+    importer = new HttpImporter(null, client, new HostLimiter(properties, new SimpleMeterRegistry()),
+      new HostCircuitBreaker(properties), properties);
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    client.close();
+    server.stop(0);
+    serverThreads.shutdownNow();
+  }
+
+  @Test
+  public void testCanFetchAsync() {
+    assertTrue(importer.canFetchAsync(parameters("/data")));
+    assertFalse(importer.canFetchAsync(Map.of("location", "/data", "encoding", "UTF-8", "parallelRanges", 2)));
+  }
+
+  @Test
+  public void testFetchAsync() throws Exception {
+    FetchResult result = importer.fetchValidatedAsync(parameters("/data"), SourceVersion.UNKNOWN, MAX_BODY_SIZE, null)
+      .get(5, TimeUnit.SECONDS);
+
+    assertEquals("[1,2]", read(result.getData()));
+    assertEquals("\"v1\"", result.getVersion().getEtag());
+    FetchResult unchanged = importer.fetchValidatedAsync(parameters("/data"), result.getVersion(), MAX_BODY_SIZE, null)
+      .get(5, TimeUnit.SECONDS);
+    assertFalse(unchanged.isModified());
+  }
+
+  @Test
+  public void testFetchAsyncRetriesTransientErrors() throws Exception {
+    FetchResult result = importer.fetchValidatedAsync(parameters("/flaky"), SourceVersion.UNKNOWN, MAX_BODY_SIZE, null)
+      .get(5, TimeUnit.SECONDS);
+
+    assertEquals("ok", read(result.getData()));
+    assertEquals(2, flakyRequests.get());
+  }
+
+  @Test
+  public void testFetchAsyncStopsAfterPreviewBytes() throws Exception {
+    FetchResult result = importer.fetchValidatedAsync(parameters("/endless"), SourceVersion.UNKNOWN, MAX_BODY_SIZE,
+      100L).get(5, TimeUnit.SECONDS);
+
+    assertTrue(result.getData().readAllBytes().length >= 100);
+    assertTrue(aborted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testFetchAsyncFailsBeyondMaxBodySize() throws Exception {
+    CompletableFuture<FetchResult> result = importer.fetchValidatedAsync(parameters("/endless"),
+      SourceVersion.UNKNOWN, 1000, null);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof ImportLimitExceededException);
+    assertTrue(aborted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCancelAbortsFetchAsync() throws Exception {
+    CompletableFuture<FetchResult> result = importer.fetchValidatedAsync(parameters("/endless"),
+      SourceVersion.UNKNOWN, MAX_BODY_SIZE, null);
+    assertTrue(requested.await(5, TimeUnit.SECONDS));
+
+    result.cancel(true);
+
+    assertTrue(aborted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testTimedOutTrialReleasesCircuit() throws Exception {
+    properties.getHttp().setRetryAttempts(1);
+    properties.getHttp().setCircuitFailureThreshold(1);
+    properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(500));
+    properties.getHttp().setTotalTimeout(Duration.ofMillis(200));
+    HttpImporter importer = new HttpImporter(null, client, new HostLimiter(properties, new SimpleMeterRegistry()),
+      new HostCircuitBreaker(properties), properties);
+    CompletableFuture<FetchResult> failed = importer.fetchValidatedAsync(parameters("/flaky"), SourceVersion.UNKNOWN,
+      MAX_BODY_SIZE, null);
+    assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+    Thread.sleep(510);
+
+    // the trial request times out before its body arrived
+    CompletableFuture<FetchResult> trial = importer.fetchValidatedAsync(parameters("/endless"),
+      SourceVersion.UNKNOWN, MAX_BODY_SIZE, null);
+    ExecutionException e = assertThrows(ExecutionException.class, () -> trial.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof SocketTimeoutException);
+
+    FetchResult result = importer.fetchValidatedAsync(parameters("/data"), SourceVersion.UNKNOWN, MAX_BODY_SIZE, null)
+      .get(5, TimeUnit.SECONDS);
+    assertEquals("[1,2]", read(result.getData()));
+  }
+
+  private Map<String, Object> parameters(String path) {
+    return Map.of("location", "http://localhost:" + server.getAddress().getPort() + path, "encoding", "UTF-8");
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] data = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, data.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(data);
+    }
+  }
+
+  /**
+   * Sends a slow body that only ends once the client aborts the connection.
+   */
+  private void respondEndlessly(HttpExchange exchange) throws IOException {
+    exchange.sendResponseHeaders(200, 0);
+    requested.countDown();
+    byte[] chunk = "[1,2,3,4,5,6,7,8,9],\n".repeat(50).getBytes(StandardCharsets.UTF_8);
+    try (OutputStream out = exchange.getResponseBody()) {
+      for (int i = 0; i < 1000; i++) {
+        out.write(chunk);
+        out.flush();
+        Thread.sleep(10);
+      }
+    } catch (IOException e) {
+      aborted.countDown();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static String read(InputStream data) throws IOException {
+    return new String(data.readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -2,31 +2,67 @@ package org.jvalue.ods.adapterservice.adapter.importer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.ConnectionReleaseTrigger;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImporterParameterException;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.ConnectException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class HttpImporterTest {
   @Mock
-  RestTemplate restTemplate;
+  ClientHttpRequestFactory requestFactory;
+  @Mock
+  HttpAsyncClient asyncClient;
 
   private Importer importer;
   private final ObjectMapper mapper = new ObjectMapper();
@@ -34,22 +70,463 @@ public class HttpImporterTest {
 
   @BeforeEach
   public void setUp() {
-    importer = new HttpImporter(restTemplate);
+    importer = createImporter(new AdapterProperties());
+  }
+
+  private Importer createImporter(AdapterProperties properties) {
+    properties.getHttp().setRetryInitialBackoff(Duration.ofMillis(1));
+    return new HttpImporter(requestFactory, asyncClient, new HostLimiter(properties, new SimpleMeterRegistry()),
+      new HostCircuitBreaker(properties), properties);
+  }
+
+  private MockClientHttpRequest mockResponse(byte[] body, HttpStatus status) throws IOException {
+    return mockResponse(new MockClientHttpResponse(body, status));
+  }
+
+  private MockClientHttpRequest mockResponse(MockClientHttpResponse response) throws IOException {
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, from);
+    request.setResponse(response);
+    ArgumentMatcher<URI> uriMatcher = (URI uri) -> uri.getPath().equals(this.from.getPath());
+    when(requestFactory.createRequest(argThat(uriMatcher), eq(HttpMethod.GET))).thenReturn(request);
+    return request;
   }
 
   @Test
   public void testFetch() throws IOException, ImporterParameterException {
-    ResponseEntity<byte[]> response = new ResponseEntity<>("{\"content\":\"the internet as a string\"}".getBytes(), HttpStatus.OK);
-    ArgumentMatcher<URI> uriMatcher = (URI uri) -> uri.getPath().equals(this.from.getPath());
-    when(restTemplate.getForEntity(argThat(uriMatcher), eq(byte[].class))).thenReturn(response);
+    mockResponse("{\"content\":\"the internet as a string\"}".getBytes(), HttpStatus.OK);
 
-    String result = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"));
+    JsonNode resultNode;
+    try (InputStream result = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))) {
+      resultNode = mapper.readTree(result);
+    }
 
-    JsonNode resultNode = mapper.readTree(result);
     assertEquals(1, resultNode.size());
     assertEquals("the internet as a string", resultNode.get("content").textValue());
   }
 
+  @Test
+  public void testFetchTranscodesToUtf8() throws IOException, ImporterParameterException {
+    mockResponse("{\"content\":\"Gr\u00fc\u00dfe\"}".getBytes(StandardCharsets.ISO_8859_1), HttpStatus.OK);
+
+    String result;
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "ISO-8859-1"))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("{\"content\":\"Gr\u00fc\u00dfe\"}", result);
+  }
+
+  @Test
+  public void testFetchGzipCompressed() throws IOException, ImporterParameterException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write("{\"content\":\"compressed\"}".getBytes(StandardCharsets.UTF_8));
+    }
+    mockResponse(compressed.toByteArray(), HttpStatus.OK);
+
+    String result;
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "compression", "GZIP"))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("{\"content\":\"compressed\"}", result);
+  }
+
+  @Test
+  public void testFetchGzipContentEncoding() throws IOException, ImporterParameterException {
+    MockClientHttpResponse response = new MockClientHttpResponse(gzip("{\"content\":\"encoded\"}".getBytes(StandardCharsets.UTF_8)), HttpStatus.OK);
+    response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    mockResponse(response);
+
+    String result;
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("{\"content\":\"encoded\"}", result);
+  }
+
+  @Test
+  public void testClosingGzipContentEarlyAbortsConnection() throws IOException, ImporterParameterException {
+    byte[] content = new byte[1024 * 1024];
+    new Random(0).nextBytes(content);
+    ReleasableInputStream body = new ReleasableInputStream(gzip(content));
+    MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+    response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    mockResponse(response);
+
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))) {
+      data.readNBytes(10);
+    }
+
+    assertTrue(body.aborted);
+    assertTrue(body.available() > 0);
+  }
+
+  @Test
+  public void testClosingGzipContentAtEndKeepsConnection() throws IOException, ImporterParameterException {
+    ReleasableInputStream body = new ReleasableInputStream(gzip(new byte[1024]));
+    MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+    response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    mockResponse(response);
+
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))) {
+      data.readAllBytes();
+    }
+
+    assertFalse(body.aborted);
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Body of a pooled connection, like the ones of the HTTP client.
+   */
+  private static class ReleasableInputStream extends ByteArrayInputStream implements ConnectionReleaseTrigger {
+    private boolean aborted;
+
+    ReleasableInputStream(byte[] data) {
+      super(data);
+    }
+
+    @Override
+    public void releaseConnection() {
+    }
+
+    @Override
+    public void abortConnection() {
+      aborted = true;
+    }
+  }
+
+  @Test
+  public void testFetchZipArchive() throws IOException, ImporterParameterException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(compressed)) {
+      zip.putNextEntry(new ZipEntry("data/"));
+      zip.putNextEntry(new ZipEntry("data/first.json"));
+      zip.write("[1]".getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("data/second.json"));
+      zip.write("[2]".getBytes(StandardCharsets.UTF_8));
+    }
+    mockResponse(compressed.toByteArray(), HttpStatus.OK);
+
+    String result;
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "compression", "ZIP"))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("[1]", result);
+  }
+
+  @Test
+  public void testFetchInvalidCompression() {
+    assertThrows(ImporterParameterException.class, () ->
+      importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "compression", "RAR"))
+    );
+  }
+
+  private void mockPage(String uri, String body, String link) throws IOException {
+    MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+    if (link != null) {
+      response.getHeaders().set(HttpHeaders.LINK, link);
+    }
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create(uri));
+    request.setResponse(response);
+    lenient().when(requestFactory.createRequest(eq(URI.create(uri)), eq(HttpMethod.GET))).thenReturn(request);
+  }
+
+  @Test
+  public void testFetchLinkPagination() throws IOException, ImporterParameterException {
+    mockPage("/json", "{\"items\":[{\"id\":1},{\"id\":2}]}", "</json?page=2>; rel=\"next\", </json?page=1>; rel=\"first\"");
+    mockPage("/json?page=2", "{\"items\":[{\"id\":3}]}", "</json?page=1>; rel=\"first\"");
+
+    String result;
+    Map<String, Object> pagination = Map.of("type", "LINK", "recordsPointer", "/items");
+    try (InputStream data = importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", pagination))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3}]", result);
+  }
+
+  @Test
+  public void testFetchPaginationWithMissingRecords() throws IOException {
+    mockPage("/json", "{\"items\":[{\"id\":1}]}", null);
+
+    Map<String, Object> pagination = Map.of("type", "LINK", "recordsPointer", "/itemz");
+    IOException e = assertThrows(IOException.class, () -> {
+      try (InputStream data = importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", pagination))) {
+        data.readAllBytes();
+      }
+    });
+    assertTrue(e.getMessage().contains("/itemz"));
+  }
+
+  @Test
+  public void testFetchPageExceedingMaxBodySize() throws IOException {
+    byte[] page = ("[" + "0,".repeat(100_000) + "0]").getBytes(StandardCharsets.UTF_8);
+    MockClientHttpResponse response = new MockClientHttpResponse(gzip(page), HttpStatus.OK);
+    response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("/json"));
+    request.setResponse(response);
+    when(requestFactory.createRequest(eq(URI.create("/json")), eq(HttpMethod.GET))).thenReturn(request);
+
+    Map<String, Object> pagination = Map.of("type", "LINK");
+    assertThrows(ImportLimitExceededException.class, () -> {
+      try (InputStream data = importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", pagination,
+          "maxBodySize", "1KB"))) {
+        data.readAllBytes();
+      }
+    });
+  }
+
+  @Test
+  public void testFetchOffsetPagination() throws IOException, ImporterParameterException {
+    mockPage("/json?offset=0&limit=2", "[1,2]", null);
+    mockPage("/json?offset=2&limit=2", "[3,4]", null);
+    mockPage("/json?offset=4&limit=2", "[5]", null);
+    mockPage("/json?offset=6&limit=2", "[]", null);
+    mockPage("/json?offset=8&limit=2", "[]", null);
+
+    String result;
+    Map<String, Object> pagination = Map.of("type", "OFFSET", "limit", 2, "parallelism", 3);
+    try (InputStream data = importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", pagination))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("[1,2,3,4,5]", result);
+  }
+
+  @Test
+  public void testFetchCursorPagination() throws IOException, ImporterParameterException {
+    mockPage("/json", "{\"data\":[1],\"next\":\"a b\"}", null);
+    mockPage("/json?cursor=a%20b", "{\"data\":[2],\"next\":null}", null);
+
+    String result;
+    Map<String, Object> pagination = Map.of("type", "CURSOR", "recordsPointer", "/data");
+    try (InputStream data = importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", pagination))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("[1,2]", result);
+  }
+
+  @Test
+  public void testFetchInvalidPagination() {
+    assertThrows(ImporterParameterException.class, () ->
+      importer.fetch(Map.of("location", "/json", "encoding", "UTF-8", "pagination", Map.of("type", "SCROLL")))
+    );
+  }
+
+  private List<String> mockRangedSource(byte[] content, AtomicBoolean interruptSecondRange) throws IOException {
+    return mockRangedSource(content, interruptSecondRange, new AtomicBoolean(false));
+  }
+
+  private List<String> mockRangedSource(byte[] content, AtomicBoolean interruptSecondRange,
+                                        AtomicBoolean rejectSecondRange) throws IOException {
+    List<String> requestedRanges = Collections.synchronizedList(new ArrayList<>());
+    when(requestFactory.createRequest(any(URI.class), any(HttpMethod.class))).thenAnswer(invocation -> {
+      HttpMethod method = invocation.getArgument(1);
+      return new MockClientHttpRequest(method, invocation.getArgument(0)) {
+        @Override
+        protected ClientHttpResponse executeInternal() {
+          if (method == HttpMethod.HEAD) {
+            MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.getHeaders().setContentLength(content.length);
+            response.getHeaders().setETag("\"v1\"");
+            return response;
+          }
+          assertEquals("\"v1\"", getHeaders().getFirst(HttpHeaders.IF_RANGE));
+          requestedRanges.add(getHeaders().getFirst(HttpHeaders.RANGE));
+          HttpRange range = getHeaders().getRange().get(0);
+          int first = (int) range.getRangeStart(content.length);
+          int last = (int) range.getRangeEnd(content.length);
+          if (first == 4 && rejectSecondRange.compareAndSet(true, false)) {
+            return new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE);
+          }
+          InputStream body = new ByteArrayInputStream(content, first, last - first + 1);
+          if (first == 4 && interruptSecondRange.compareAndSet(true, false)) {
+            InputStream interrupted = new InputStream() {
+              @Override
+              public int read() throws IOException {
+                throw new IOException("connection reset");
+              }
+            };
+            body = new SequenceInputStream(new ByteArrayInputStream(content, first, 2), interrupted);
+          }
+          return new MockClientHttpResponse(body, HttpStatus.PARTIAL_CONTENT);
+        }
+      };
+    });
+    return requestedRanges;
+  }
+
+  private Importer rangedImporter() {
+    return rangedImporter(new AdapterProperties());
+  }
+
+  private Importer rangedImporter(AdapterProperties properties) {
+    properties.getHttp().setRangeSize(DataSize.ofBytes(4));
+    return createImporter(properties);
+  }
+
+  @Test
+  public void testFetchParallelRanges() throws IOException, ImporterParameterException {
+    List<String> requestedRanges = mockRangedSource("0123456789".getBytes(), new AtomicBoolean(false));
+
+    String result;
+    try (InputStream data = rangedImporter().fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "parallelRanges", 2))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("0123456789", result);
+    assertEquals(Set.of("bytes=0-3", "bytes=4-7", "bytes=8-9"), new HashSet<>(requestedRanges));
+  }
+
+  @Test
+  public void testFetchParallelRangesResumesInterruptedRange() throws IOException, ImporterParameterException {
+    List<String> requestedRanges = mockRangedSource("0123456789".getBytes(), new AtomicBoolean(true));
+
+    String result;
+    try (InputStream data = rangedImporter().fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "parallelRanges", 2))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("0123456789", result);
+    assertTrue(requestedRanges.contains("bytes=6-7"));
+    assertEquals(4, requestedRanges.size());
+  }
+
+  @Test
+  public void testFetchParallelRangesRetriesErrorResponse() throws IOException, ImporterParameterException {
+    List<String> requestedRanges = mockRangedSource("0123456789".getBytes(), new AtomicBoolean(false),
+      new AtomicBoolean(true));
+    AdapterProperties properties = new AdapterProperties();
+    // the error response is not retried by the request itself
+    properties.getHttp().setRetryAttempts(1);
+
+    String result;
+    try (InputStream data = rangedImporter(properties).fetch(Map.of("location", from.getPath(), "encoding", "UTF-8", "parallelRanges", 2))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("0123456789", result);
+    assertEquals(4, requestedRanges.size());
+  }
+
+  @Test
+  public void testRangeSizeExceedingByteArray() {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getHttp().setRangeSize(DataSize.ofGigabytes(3));
+
+    assertThrows(IllegalArgumentException.class, () -> createImporter(properties));
+  }
+
+  @Test
+  public void testFetchRetriesTransientErrors() throws IOException, ImporterParameterException {
+    mockResponses(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE),
+      new MockClientHttpResponse("[1]".getBytes(), HttpStatus.OK));
+
+    String result;
+    try (InputStream data = importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))) {
+      result = new String(data.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals("[1]", result);
+  }
+
+  @Test
+  public void testFetchGivesUpAfterRetryAttempts() throws IOException {
+    mockResponses(new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY),
+      new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY),
+      new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY));
+
+    assertThrows(HttpServerErrorException.class, () ->
+      importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))
+    );
+  }
+
+  @Test
+  public void testFetchFailsFastWhileCircuitIsOpen() throws IOException {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getHttp().setRetryAttempts(1);
+    properties.getHttp().setCircuitFailureThreshold(2);
+    Importer failFastImporter = createImporter(properties);
+    mockResponses(new MockClientHttpResponse(new byte[0], HttpStatus.INTERNAL_SERVER_ERROR),
+      new MockClientHttpResponse(new byte[0], HttpStatus.INTERNAL_SERVER_ERROR));
+    Map<String, Object> parameters = Map.of("location", from.getPath(), "encoding", "UTF-8");
+
+    assertThrows(HttpServerErrorException.class, () -> failFastImporter.fetch(parameters));
+    assertThrows(HttpServerErrorException.class, () -> failFastImporter.fetch(parameters));
+    assertThrows(ConnectException.class, () -> failFastImporter.fetch(parameters));
+  }
+
+  private void mockResponses(MockClientHttpResponse... responses) throws IOException {
+    List<MockClientHttpRequest> requests = new ArrayList<>();
+    for (MockClientHttpResponse response : responses) {
+      MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, from);
+      request.setResponse(response);
+      requests.add(request);
+    }
+    when(requestFactory.createRequest(any(URI.class), eq(HttpMethod.GET)))
+      .thenReturn(requests.get(0), requests.subList(1, requests.size()).toArray(new MockClientHttpRequest[0]));
+  }
+
+  @Test
+  public void testFetchErrorStatus() throws IOException {
+    mockResponse(new byte[0], HttpStatus.NOT_FOUND);
+
+    assertThrows(HttpClientErrorException.class, () ->
+      importer.fetch(Map.of("location", from.getPath(), "encoding", "UTF-8"))
+    );
+  }
+
+  @Test
+  public void testFetchIfModifiedReturnsVersion() throws IOException, ImporterParameterException {
+    MockClientHttpResponse response = new MockClientHttpResponse("{}".getBytes(), HttpStatus.OK);
+    response.getHeaders().setETag("\"v2\"");
+    response.getHeaders().set(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT");
+    MockClientHttpRequest request = mockResponse(response);
+    SourceVersion knownVersion = new SourceVersion(from.getPath(), "\"v1\"", "Tue, 20 Oct 2015 07:28:00 GMT");
+
+    try (FetchResult result = importer.fetchIfModified(Map.of("location", from.getPath(), "encoding", "UTF-8"), knownVersion)) {
+      assertTrue(result.isModified());
+      assertEquals(new SourceVersion(from.getPath(), "\"v2\"", "Wed, 21 Oct 2015 07:28:00 GMT"), result.getVersion());
+    }
+    assertEquals("\"v1\"", request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    assertEquals("Tue, 20 Oct 2015 07:28:00 GMT", request.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+  }
+
+  @Test
+  public void testFetchIfModifiedNotModified() throws IOException, ImporterParameterException {
+    mockResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+    SourceVersion knownVersion = new SourceVersion(from.getPath(), "\"v1\"", null);
+
+    try (FetchResult result = importer.fetchIfModified(Map.of("location", from.getPath(), "encoding", "UTF-8"), knownVersion)) {
+      assertFalse(result.isModified());
+      assertEquals(knownVersion, result.getVersion());
+    }
+  }
+
+  @Test
+  public void testFetchIfModifiedIgnoresVersionOfOtherLocation() throws IOException, ImporterParameterException {
+    MockClientHttpRequest request = mockResponse("{}".getBytes(), HttpStatus.OK);
+    SourceVersion knownVersion = new SourceVersion("http://www.the-inter.net/other", "\"v1\"", null);
+
+    try (FetchResult result = importer.fetchIfModified(Map.of("location", from.getPath(), "encoding", "UTF-8"), knownVersion)) {
+      assertTrue(result.isModified());
+    }
+    assertFalse(request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH));
+  }
+
   @Test
   public void testTypoInArguments() {
     assertThrows(ImporterParameterException.class, () ->
@@ -71,7 +548,14 @@ public class HttpImporterTest {
         "parameters":[
           {"name":"location", "description":"String of the URI for the HTTP call", "type":"java.lang.String", "required": true},
           {"name":"encoding", "description":"Encoding of the source. Available encodings: ISO-8859-1, US-ASCII, UTF-8", "type":"java.lang.String", "required": true},
-          {"name":"defaultParameters", "description":"Default values for open parameters in the URI", "type":"org.jvalue.ods.adapterservice.datasource.model.RuntimeParameters", "required": false}
+          {"name":"defaultParameters", "description":"Default values for open parameters in the URI", "type":"org.jvalue.ods.adapterservice.datasource.model.RuntimeParameters", "required": false},
+          {"name":"compression", "description":"Compression of the fetched file. Available compressions: NONE, GZIP, BZIP2, ZIP (first file of the archive)", "type":"java.lang.String", "required": false},
+          {"name":"pagination", "description":"Follows the pages of a paginated JSON source (type LINK, OFFSET or CURSOR) and merges their records into one array", "type":"org.jvalue.ods.adapterservice.adapter.importer.Pagination", "required": false},
+          {"name":"parallelRanges", "description":"Number of byte ranges of a large source fetched in parallel, if the server supports range requests", "type":"java.lang.Integer", "required": false},
+          {"name":"rateLimit", "description":"Maximum requests per second to the host of the source, overrides the default of the adapter", "type":"java.lang.Double", "required": false},
+          {"name":"maxConcurrentRequests", "description":"Maximum concurrent requests to the host of the source, overrides the default of the adapter", "type":"java.lang.Integer", "required": false},
+          {"name":"incremental", "description":"Where the built-in URI parameters {maxId} (idPointer, within each record) and {cursor} (cursorPointer) of the next import of a datasource are found in the interpreted data", "type":"org.jvalue.ods.adapterservice.datasource.model.IncrementalConfig", "required": false},
+          {"name":"maxBodySize", "description":"Maximum size of the imported data (e.g. 100MB), overrides the default of the adapter", "type":"java.lang.String", "required": false}
         ],
         "type":"HTTP",
         "description":"Plain HTTP"
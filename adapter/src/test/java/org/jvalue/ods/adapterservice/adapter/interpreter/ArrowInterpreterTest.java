@@ -0,0 +1,99 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpretToString;
+
+public class ArrowInterpreterTest {
+  private final Interpreter interpreter = new ArrowInterpreter();
+
+  @Test
+  public void interpretArrowStream() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, arrowData(false), Map.of());
+
+    assertEquals("[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":null}]", result);
+  }
+
+  @Test
+  public void interpretArrowFile() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, arrowData(true), Map.of());
+
+    assertEquals("[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":null}]", result);
+  }
+
+  @Test
+  public void interpretArrowColumns() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, arrowData(false), Map.of("columns", List.of("name")));
+
+    assertEquals("[{\"name\":\"a\"},{\"name\":null}]", result);
+  }
+
+  @Test
+  public void interpretArrowMissingColumn() {
+    assertThrows(IOException.class, () -> interpret(interpreter, arrowData(true), Map.of("columns", List.of("other"))));
+  }
+
+  @Test
+  public void interpretInvalidArrowData() throws IOException {
+    byte[] file = arrowData(true);
+    byte[] truncatedFile = Arrays.copyOf(file, file.length - 16);
+    byte[] garbage = new byte[256];
+    new Random(0).nextBytes(garbage);
+
+    assertThrows(IOException.class, () -> interpret(interpreter, truncatedFile, Map.of()));
+    assertThrows(IOException.class, () -> interpret(interpreter, garbage, Map.of()));
+  }
+
+  @Test
+  public void interpretInvalidColumns() {
+    assertThrows(InterpreterParameterException.class, () -> interpret(interpreter, arrowData(false),
+      Map.of("columns", "name")));
+  }
+
+  private static byte[] arrowData(boolean file) throws IOException {
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         IntVector id = new IntVector("id", allocator);
+         VarCharVector name = new VarCharVector("name", allocator)) {
+      id.allocateNew(2);
+      id.set(0, 1);
+      id.set(1, 2);
+      id.setValueCount(2);
+      name.allocateNew(2);
+      name.set(0, "a".getBytes(StandardCharsets.UTF_8));
+      name.setNull(1);
+      name.setValueCount(2);
+      VectorSchemaRoot root = new VectorSchemaRoot(List.of(id.getField(), name.getField()), List.of(id, name), 2);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ArrowWriter writer = file
+        ? new ArrowFileWriter(root, null, Channels.newChannel(out))
+        : new ArrowStreamWriter(root, null, out)) {
+        writer.start();
+        writer.writeBatch();
+        writer.end();
+      }
+      return out.toByteArray();
+    }
+  }
+}
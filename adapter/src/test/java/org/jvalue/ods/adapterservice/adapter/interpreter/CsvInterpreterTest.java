@@ -1,5 +1,6 @@
 package org.jvalue.ods.adapterservice.adapter.interpreter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
@@ -7,10 +8,14 @@ import org.junit.jupiter.api.Test;
 import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpretToString;
 
 public class CsvInterpreterTest {
   private final Interpreter interpreter = new CsvInterpreter();
@@ -19,7 +24,7 @@ public class CsvInterpreterTest {
 
   @Test
   public void interpretSimpleCSVData() throws IOException, InterpreterParameterException {
-    JsonNode result = interpreter.interpret(CSV_STRING, Map.of(
+    JsonNode result = interpret(interpreter, CSV_STRING, Map.of(
       "columnSeparator", ";",
       "lineSeparator", "\n",
       "skipFirstDataRow", false,
@@ -46,7 +51,7 @@ public class CsvInterpreterTest {
   @Test
   public void interpretCSVDataOtherColumnSeparator() throws IOException, InterpreterParameterException {
     String csv = CSV_STRING.replace(';', '&');
-    JsonNode result = interpreter.interpret(csv, Map.of(
+    JsonNode result = interpret(interpreter, csv, Map.of(
       "columnSeparator", "&",
       "lineSeparator", "\n",
       "skipFirstDataRow", false,
@@ -63,7 +68,7 @@ public class CsvInterpreterTest {
   @Test
   public void interpretCSVDataOtherLineSeparator() throws IOException, InterpreterParameterException {
     String csv = CSV_STRING.replace('\n', '\r');
-    JsonNode result = interpreter.interpret(csv, Map.of(
+    JsonNode result = interpret(interpreter, csv, Map.of(
       "columnSeparator", ";",
       "lineSeparator", "\r",
       "skipFirstDataRow", false,
@@ -79,7 +84,7 @@ public class CsvInterpreterTest {
 
   @Test
   public void interpretCSVDataSkipFirstRow() throws IOException, InterpreterParameterException {
-    JsonNode result = interpreter.interpret(CSV_STRING, Map.of(
+    JsonNode result = interpret(interpreter, CSV_STRING, Map.of(
       "columnSeparator", ";",
       "lineSeparator", "\n",
       "skipFirstDataRow", true,
@@ -100,7 +105,7 @@ public class CsvInterpreterTest {
   @Test
   public void interpretCSVDataHeaderRow() throws IOException, InterpreterParameterException {
     String csv = "1;2;sadf\n5;3;fasd";
-    JsonNode result = interpreter.interpret(csv, Map.of(
+    JsonNode result = interpret(interpreter, csv, Map.of(
       "columnSeparator", ";",
       "lineSeparator", "\n",
       "skipFirstDataRow", false,
@@ -118,17 +123,99 @@ public class CsvInterpreterTest {
     assertEquals("fasd", result.get(0).get("sadf").asText());
   }
 
+  @Test
+  public void interpretCSVDataHeaderRowKeepsColumnOrder() throws IOException, InterpreterParameterException {
+    String csv = "b;a;c\n1;\"x;y\";\n2;3;4\n";
+    String result = interpretToString(interpreter, csv, Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", true
+    ));
+
+    assertEquals("[{\"b\":\"1\",\"a\":\"x;y\",\"c\":\"\"},{\"b\":\"2\",\"a\":\"3\",\"c\":\"4\"}]", result);
+  }
+
+  @Test
+  public void interpretEmptyCSVData() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, "", Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", true
+    ));
+
+    assertEquals("[]", result);
+  }
+
+  @Test
+  public void interpretCSVDataInParallel() throws IOException, InterpreterParameterException {
+    Interpreter chunkedInterpreter = new CsvInterpreter(8);
+    List<String> csvs = List.of(
+      CSV_STRING,
+      "a;b;c\n1;2;3\r\n4;5;6\r7;8;9\n\n10;11;12\n",
+      "a;b\n\"multi\nline\";\"with \"\"quotes\"\"\nand;separators\"\n5\" inch;\"\r\n\"\nlast;row",
+      "");
+    for (String csv : csvs) {
+      for (boolean header : List.of(false, true)) {
+        for (boolean skipFirstDataRow : List.of(false, true)) {
+          Map<String, Object> parameters = Map.of(
+            "columnSeparator", ";",
+            "lineSeparator", "\n",
+            "skipFirstDataRow", skipFirstDataRow,
+            "firstRowAsHeader", header);
+          Map<String, Object> parallelParameters = new HashMap<>(parameters);
+          parallelParameters.put("parallelism", 3);
+
+          assertEquals(interpretToString(interpreter, csv, parameters),
+            interpretToString(chunkedInterpreter, csv, parallelParameters));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void interpretInvalidCSVDataInParallelReportsLineOfData() {
+    Interpreter chunkedInterpreter = new CsvInterpreter(8);
+    String csv = "a;b\n1;2\n3;4\n5;6\n7;\"8\n";
+
+    Map<String, Object> parameters = Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", true);
+    Map<String, Object> parallelParameters = new HashMap<>(parameters);
+    parallelParameters.put("parallelism", 3);
+
+    JsonProcessingException expected = assertThrows(JsonProcessingException.class, () ->
+      interpret(interpreter, csv, parameters));
+    JsonProcessingException e = assertThrows(JsonProcessingException.class, () ->
+      interpret(chunkedInterpreter, csv, parallelParameters));
+    assertEquals(expected.getLocation().getLineNr(), e.getLocation().getLineNr());
+  }
+
+  @Test
+  public void interpretInvalidParallelism() {
+    assertThrows(InterpreterParameterException.class, () -> interpret(interpreter, CSV_STRING, Map.of(
+      "columnSeparator", ";",
+      "lineSeparator", "\n",
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false,
+      "parallelism", 0
+    )));
+  }
+
   @Test
   public void interpretMissingParameters() {
     assertThrows(InterpreterParameterException.class, () ->
-      interpreter.interpret("{\"this is\":\"no CSV\"", Map.of())
+      interpret(interpreter, "{\"this is\":\"no CSV\"", Map.of())
     );
   }
 
   @Test
   public void interpretWrongParameterType() {
     assertThrows(InterpreterParameterException.class, () ->
-      interpreter.interpret(CSV_STRING, Map.of(
+      interpret(interpreter, CSV_STRING, Map.of(
         "columnSeparator", ",",
         "lineSeparator", ";",
         "skipFirstDataRow", false,
@@ -140,7 +227,7 @@ public class CsvInterpreterTest {
   @Test
   public void interpretInvalidLineSeparator() {
     assertThrows(InterpreterParameterException.class, () ->
-      interpreter.interpret(CSV_STRING, Map.of(
+      interpret(interpreter, CSV_STRING, Map.of(
         "columnSeparator", ",",
         "lineSeparator", "&", // only \n, \r, or \r\n
         "skipFirstDataRow", false,
@@ -152,7 +239,7 @@ public class CsvInterpreterTest {
   @Test
   public void interpretInvalidColumnSeparator() {
     assertThrows(InterpreterParameterException.class, () ->
-      interpreter.interpret(CSV_STRING, Map.of(
+      interpret(interpreter, CSV_STRING, Map.of(
         "columnSeparator", ",asd",  // only one char
         "lineSeparator", "\n",
         "skipFirstDataRow", false,
@@ -169,10 +256,15 @@ public class CsvInterpreterTest {
         "type":"CSV",
         "description":"Interpret data as CSV data",
         "parameters":[
-          {"name":"columnSeparator","description":"Column delimiter character, only one character supported","type":"java.lang.String"},
-          {"name":"lineSeparator","description":"Line delimiter character, only \\\\r, \\\\r\\\\n, and \\\\n supported","type":"java.lang.String"},
-          {"name":"skipFirstDataRow","description":"Skip first data row (after header)","type":"java.lang.Boolean"},
-          {"name":"firstRowAsHeader","description":"Interpret first row as header for columns","type":"java.lang.Boolean"}
+          {"name":"columnSeparator","description":"Column delimiter character, only one character supported","required":true,"type":"java.lang.String"},
+          {"name":"lineSeparator","description":"Line delimiter character, only \\\\r, \\\\r\\\\n, and \\\\n supported","required":true,"type":"java.lang.String"},
+          {"name":"skipFirstDataRow","description":"Skip first data row (after header)","required":true,"type":"java.lang.Boolean"},
+          {"name":"firstRowAsHeader","description":"Interpret first row as header for columns","required":true,"type":"java.lang.Boolean"},
+          {"name":"parallelism","description":"Number of chunks of the data that are parsed in parallel, 1 (default) to parse the data sequentially","required":false,"type":"java.lang.Integer"},
+          {"name":"maxDepth","description":"Maximum nesting depth of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"maxRecords","description":"Maximum number of records of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"fields","description":"Fields to keep of each record, as field names or JSON pointers","required":false,"type":"java.util.List"},
+          {"name":"filter","description":"Conditions the records have to meet, e.g. [{\\"field\\": \\"year\\", \\"op\\": \\"ge\\", \\"value\\": 2020}]","required":false,"type":"java.util.List"}
         ]
       }""");
     JsonNode result = mapper.valueToTree(interpreter);
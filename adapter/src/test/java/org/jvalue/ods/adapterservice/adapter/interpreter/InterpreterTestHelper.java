@@ -0,0 +1,40 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class InterpreterTestHelper {
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  public static JsonNode interpret(Interpreter interpreter, String data, Map<String, Object> parameters)
+      throws IOException, InterpreterParameterException {
+    return mapper.readTree(interpretToString(interpreter, data, parameters));
+  }
+
+  public static JsonNode interpret(Interpreter interpreter, byte[] data, Map<String, Object> parameters)
+      throws IOException, InterpreterParameterException {
+    return mapper.readTree(interpretToString(interpreter, data, parameters));
+  }
+
+  public static String interpretToString(Interpreter interpreter, String data, Map<String, Object> parameters)
+      throws IOException, InterpreterParameterException {
+    return interpretToString(interpreter, data.getBytes(StandardCharsets.UTF_8), parameters);
+  }
+
+  public static String interpretToString(Interpreter interpreter, byte[] data, Map<String, Object> parameters)
+      throws IOException, InterpreterParameterException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+      interpreter.interpret(new ByteArrayInputStream(data), parameters, generator);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
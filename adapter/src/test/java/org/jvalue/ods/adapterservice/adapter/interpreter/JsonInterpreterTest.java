@@ -9,6 +9,8 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
 
 public class JsonInterpreterTest {
   private final Interpreter interpreter = new JsonInterpreter();
@@ -18,20 +20,74 @@ public class JsonInterpreterTest {
   public void interpretJsonData() throws IOException, InterpreterParameterException {
     var jsonString = "{\"attribute\":\"value\"}";
 
-    var result = interpreter.interpret(jsonString, Map.of());
+    var result = interpret(interpreter, jsonString, Map.of());
     assertEquals(jsonString, result.toString());
   }
 
   @Test
   public void interpretMalformedData() {
     assertThrows(IOException.class, () ->
-      interpreter.interpret("<this><is>no json</is></this>", Map.of())
+      interpret(interpreter, "<this><is>no json</is></this>", Map.of())
     );
   }
 
+  @Test
+  public void interpretJsonDataAtPointer() throws IOException, InterpreterParameterException {
+    var jsonString = "{\"meta\":{\"count\":1},\"result\":{\"records\":[{\"attribute\":\"value\"}]}}";
+
+    var result = interpret(interpreter, jsonString, Map.of("pointer", "/result/records"));
+    assertEquals("[{\"attribute\":\"value\"}]", result.toString());
+    result = interpret(interpreter, jsonString, Map.of("pointer", "/result/records/0/attribute"));
+    assertEquals("\"value\"", result.toString());
+  }
+
+  @Test
+  public void interpretJsonDataAtMissingPointer() {
+    assertThrows(IOException.class, () ->
+      interpret(interpreter, "{\"result\":{\"records\":[]}}", Map.of("pointer", "/result/records/0"))
+    );
+  }
+
+  @Test
+  public void interpretMalformedDataBehindPointer() {
+    assertThrows(IOException.class, () ->
+      interpret(interpreter, "{\"records\":[1],\"more\":}", Map.of("pointer", "/records"))
+    );
+  }
+
+  @Test
+  public void interpretInvalidPointer() {
+    assertThrows(InterpreterParameterException.class, () ->
+      interpret(interpreter, "{}", Map.of("pointer", "result"))
+    );
+    assertThrows(InterpreterParameterException.class, () ->
+      interpret(interpreter, "{}", Map.of("pointer", 1))
+    );
+  }
+
+  @Test
+  public void interpretUnknownParameter() {
+    InterpreterParameterException e = assertThrows(InterpreterParameterException.class, () ->
+      interpret(interpreter, "{}", Map.of("pointr", "/result"))
+    );
+    assertTrue(e.getMessage().contains("pointr is not needed by interpreter"));
+  }
+
   @Test
   public void testSerialization() throws IOException {
-    var expected = mapper.readTree("{\"type\":\"JSON\",\"description\":\"Interpret data as JSON data\",\"parameters\":[]}");
+    var expected = mapper.readTree("""
+      {
+        "type":"JSON",
+        "description":"Interpret data as JSON data",
+        "parameters":[
+          {"name":"passThrough","description":"Forward the raw data instead of parsing and serializing it again","required":false,"type":"java.lang.Boolean"},
+          {"name":"pointer","description":"JSON pointer of the value to import instead of the whole document, e.g. /result/records","required":false,"type":"java.lang.String"},
+          {"name":"maxDepth","description":"Maximum nesting depth of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"maxRecords","description":"Maximum number of records of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"fields","description":"Fields to keep of each record, as field names or JSON pointers","required":false,"type":"java.util.List"},
+          {"name":"filter","description":"Conditions the records have to meet, e.g. [{\\"field\\": \\"year\\", \\"op\\": \\"ge\\", \\"value\\": 2020}]","required":false,"type":"java.util.List"}
+        ]
+      }""");
     var result = mapper.valueToTree(interpreter);
 
     assertEquals(expected, result);
@@ -0,0 +1,84 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonPassThroughTest {
+
+  @Test
+  public void forwardExactBytes() throws IOException {
+    var json = "{\"a\" : [1, 2 ,3],\n \"b\":\"x\\u00e4\"}";
+
+    assertEquals(json, forward(new JsonPassThrough("", 100, 100), " " + json + "\n"));
+  }
+
+  @Test
+  public void forwardValueAtPointer() throws IOException {
+    var json = "{\"meta\":{\"records\":[9]},\"result\":{\"count\":2,\"records\":[{\"x\":1}, {\"y\":[2]}]}}";
+
+    assertEquals("[{\"x\":1}, {\"y\":[2]}]", forward(new JsonPassThrough("/result/records", 100, 100), json));
+    assertEquals("{\"y\":[2]}", forward(new JsonPassThrough("/result/records/1", 100, 100), json));
+    assertEquals("2", forward(new JsonPassThrough("/result/count", 100, 100), json));
+  }
+
+  @Test
+  public void forwardValueAcrossReads() throws IOException {
+    var value = "\"" + "x".repeat(200_000) + "\"";
+    var json = "{\"a\":" + value + ",\"b\":" + value + "}";
+
+    for (int readSize : new int[]{1, 7, 100_000}) {
+      assertEquals(value, forward(new JsonPassThrough("/b", 100, 100), slowly(json, readSize)));
+    }
+  }
+
+  @Test
+  public void forwardMissingPointer() {
+    assertThrows(IOException.class, () -> forward(new JsonPassThrough("/b", 100, 100), "{\"a\":1}"));
+  }
+
+  @Test
+  public void forwardMalformedData() {
+    var passThrough = new JsonPassThrough("", 100, 100);
+
+    assertThrows(IOException.class, () -> forward(passThrough, "{\"a\":1"));
+    assertThrows(IOException.class, () -> forward(passThrough, "{\"a\":1} {}"));
+    assertThrows(IOException.class, () -> forward(passThrough, "<no>json</no>"));
+    assertThrows(IOException.class, () -> forward(new JsonPassThrough("/a", 100, 100), "{\"a\":1,\"b\":}"));
+  }
+
+  @Test
+  public void forwardExceedingLimits() {
+    assertThrows(ImportLimitExceededException.class,
+      () -> forward(new JsonPassThrough("/a", 100, 2), "{\"a\":[1,[2],{\"3\":3}]}"));
+    assertThrows(ImportLimitExceededException.class,
+      () -> forward(new JsonPassThrough("", 2, 100), "[[[1]]]"));
+  }
+
+  private static String forward(JsonPassThrough passThrough, String data) throws IOException {
+    return forward(passThrough, new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String forward(JsonPassThrough passThrough, InputStream data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    passThrough.forward(data, out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private static InputStream slowly(String data, int readSize) {
+    return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, readSize));
+      }
+    };
+  }
+}
@@ -0,0 +1,85 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpretToString;
+
+public class NdjsonInterpreterTest {
+  private final Interpreter interpreter = new NdjsonInterpreter();
+  private static final String NDJSON_STRING = "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"tags\":[\"x\",\"y\"]}\n\n[3]\n";
+
+  @Test
+  public void interpretNdjsonData() throws IOException, InterpreterParameterException {
+    JsonNode result = interpret(interpreter, NDJSON_STRING, Map.of());
+
+    assertEquals(JsonNodeType.ARRAY, result.getNodeType());
+    assertEquals(3, result.size());
+    assertEquals(1, result.get(0).get("id").intValue());
+    assertEquals("a", result.get(0).get("name").textValue());
+    assertEquals("y", result.get(1).get("tags").get(1).textValue());
+    assertEquals(3, result.get(2).get(0).intValue());
+  }
+
+  @Test
+  public void interpretNdjsonDataAsLines() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, NDJSON_STRING, Map.of("output", "lines"));
+
+    assertEquals("{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"tags\":[\"x\",\"y\"]}\n[3]", result);
+  }
+
+  @Test
+  public void interpretEmptyNdjsonData() throws IOException, InterpreterParameterException {
+    assertEquals("[]", interpretToString(interpreter, "", Map.of()));
+    assertEquals("", interpretToString(interpreter, "\n", Map.of("output", "lines")));
+  }
+
+  @Test
+  public void interpretNdjsonDataInParallel() throws IOException, InterpreterParameterException {
+    Interpreter chunkedInterpreter = new NdjsonInterpreter(8);
+    List<String> ndjsons = List.of(
+      NDJSON_STRING,
+      "{\"text\":\"a long line\\nwith an escaped line break\"}\r\n\"b\"\r\n1\n\nnull\ntrue",
+      "");
+    for (String ndjson : ndjsons) {
+      for (String output : List.of("array", "lines")) {
+        assertEquals(interpretToString(interpreter, ndjson, Map.of("output", output)),
+          interpretToString(chunkedInterpreter, ndjson, Map.of("output", output, "parallelism", 3)));
+      }
+    }
+  }
+
+  @Test
+  public void interpretMalformedNdjsonData() {
+    assertThrows(IOException.class, () -> interpret(interpreter, "{\"id\":1}\n{\"id\":", Map.of()));
+  }
+
+  @Test
+  public void interpretNdjsonDataWithoutOneValuePerLine() {
+    Interpreter chunkedInterpreter = new NdjsonInterpreter(8);
+    List<String> ndjsons = List.of("{\"id\":1,\n\"name\":\"a\"}\n[2]", "[1,\n2]", "{\"id\":1} {\"id\":2}\n3", "1 2");
+    for (String ndjson : ndjsons) {
+      for (int parallelism : List.of(1, 2)) {
+        assertThrows(IOException.class, () -> interpret(chunkedInterpreter, ndjson, Map.of("parallelism", parallelism)),
+          ndjson + " with parallelism " + parallelism);
+      }
+    }
+  }
+
+  @Test
+  public void interpretInvalidParameters() {
+    assertThrows(InterpreterParameterException.class, () -> interpret(interpreter, NDJSON_STRING,
+      Map.of("output", "csv")));
+    assertThrows(InterpreterParameterException.class, () -> interpret(interpreter, NDJSON_STRING,
+      Map.of("parallelism", 0)));
+  }
+}
@@ -0,0 +1,142 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpretToString;
+
+public class ParquetInterpreterTest {
+  private final Interpreter interpreter = new ParquetInterpreter();
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message row {" +
+    " required int32 id;" +
+    " optional binary name (UTF8);" +
+    " optional int64 amount (DECIMAL(10,2));" +
+    " repeated boolean flags;" +
+    "}");
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void interpretParquetData() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, parquetData(), Map.of());
+
+    assertEquals("[{\"id\":1,\"name\":\"a\",\"amount\":12.34,\"flags\":[true,false]}," +
+      "{\"id\":2,\"name\":null,\"amount\":null,\"flags\":[]}]", result);
+  }
+
+  @Test
+  public void interpretCompressedParquetData() throws IOException, InterpreterParameterException {
+    for (CompressionCodecName codec : List.of(CompressionCodecName.SNAPPY, CompressionCodecName.GZIP)) {
+      String result = interpretToString(interpreter, parquetData(codec), Map.of("columns", List.of("id")));
+
+      assertEquals("[{\"id\":1},{\"id\":2}]", result, codec.name());
+    }
+  }
+
+  @Test
+  public void interpretParquetColumns() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, parquetData(), Map.of("columns", List.of("name", "id")));
+
+    assertEquals("[{\"name\":\"a\",\"id\":1},{\"name\":null,\"id\":2}]", result);
+  }
+
+  @Test
+  public void interpretParquetMissingColumn() {
+    assertThrows(IOException.class, () -> interpret(interpreter, parquetData(), Map.of("columns", List.of("other"))));
+  }
+
+  @Test
+  public void interpretInvalidParquetData() {
+    assertThrows(IOException.class, () -> interpret(interpreter, "id,name\n1,a", Map.of()));
+  }
+
+  private byte[] parquetData() throws IOException {
+    return parquetData(CompressionCodecName.UNCOMPRESSED);
+  }
+
+  private byte[] parquetData(CompressionCodecName codec) throws IOException {
+    Path file = directory.resolve("data.parquet");
+    SimpleGroupFactory groups = new SimpleGroupFactory(SCHEMA);
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file)).withType(SCHEMA)
+        .withCompressionCodec(codec).build()) {
+      writer.write(groups.newGroup().append("id", 1).append("name", "a").append("amount", 1234L)
+        .append("flags", true).append("flags", false));
+      writer.write(groups.newGroup().append("id", 2));
+    }
+    return Files.readAllBytes(file);
+  }
+
+  private static class LocalOutputFile implements OutputFile {
+    private final Path file;
+
+    LocalOutputFile(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+      return createOrOverwrite(blockSizeHint);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+      OutputStream stream = Files.newOutputStream(file);
+      return new PositionOutputStream() {
+        private long position;
+
+        @Override
+        public long getPos() {
+          return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+          stream.write(b);
+          position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          stream.write(b, off, len);
+          position += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+          stream.close();
+        }
+      };
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+      return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package org.jvalue.ods.adapterservice.adapter.interpreter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import org.junit.jupiter.api.Test;
+import org.jvalue.ods.adapterservice.adapter.importer.SizeLimitedInputStream;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportLimitExceededException;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.InterpreterParameterException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpretToString;
+
+public class XlsxInterpreterTest {
+  private final Interpreter interpreter = new XlsxInterpreter();
+  private static final String SHARED_STRINGS =
+    "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+      "<si><t>name</t></si>" +
+      "<si><t>value</t></si>" +
+      "<si><r><t>rich </t></r><r><t>text</t></r><rPh><t>hint</t></rPh></si>" +
+      "</sst>";
+  private static final String FIRST_SHEET =
+    "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+      "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c><c r=\"D1\"><v>2</v></c></row>" +
+      "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>2</v></c><c r=\"B2\"><v>1.5</v></c></row>" +
+      "<row r=\"4\"><c r=\"A4\" t=\"inlineStr\"><is><t>inline</t></is></c><c r=\"C4\" t=\"b\"><v>1</v></c>" +
+      "<c r=\"D4\" s=\"1\"/></row>" +
+      "</sheetData></worksheet>";
+  private static final String SECOND_SHEET =
+    "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+      "<row><c t=\"str\"><v>formula</v></c><c t=\"e\"><v>#DIV/0!</v></c></row>" +
+      "</sheetData></worksheet>";
+
+  @Test
+  public void interpretXlsxData() throws IOException, InterpreterParameterException {
+    JsonNode result = interpret(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false
+    ));
+
+    assertEquals(JsonNodeType.ARRAY, result.getNodeType());
+    assertEquals(3, result.size());
+    assertEquals("[\"name\",\"value\",null,2]", result.get(0).toString());
+    assertEquals("[\"rich text\",1.5]", result.get(1).toString());
+    assertEquals("[\"inline\",null,true]", result.get(2).toString());
+  }
+
+  @Test
+  public void interpretXlsxDataWithHeader() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", true
+    ));
+
+    assertEquals("[{\"name\":\"rich text\",\"value\":1.5,\"C\":null,\"2\":null}," +
+      "{\"name\":\"inline\",\"value\":null,\"C\":true,\"2\":null}]", result);
+  }
+
+  @Test
+  public void interpretXlsxDataSkipFirstDataRow() throws IOException, InterpreterParameterException {
+    JsonNode result = interpret(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", true,
+      "firstRowAsHeader", true
+    ));
+
+    assertEquals(1, result.size());
+    assertEquals("inline", result.get(0).get("name").textValue());
+  }
+
+  @Test
+  public void interpretXlsxDataOfSheet() throws IOException, InterpreterParameterException {
+    String result = interpretToString(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false,
+      "sheet", "Second"
+    ));
+
+    assertEquals("[[\"formula\",\"#DIV/0!\"]]", result);
+  }
+
+  @Test
+  public void interpretXlsxDataOfMissingSheet() {
+    assertThrows(IOException.class, () -> interpret(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false,
+      "sheet", "Third"
+    )));
+  }
+
+  @Test
+  public void interpretInvalidXlsxData() {
+    assertThrows(IOException.class, () -> interpret(interpreter, "a;b\n1;2", Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false
+    )));
+  }
+
+  @Test
+  public void interpretInvalidSheet() {
+    assertThrows(InterpreterParameterException.class, () -> interpret(interpreter, workbook(), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false,
+      "sheet", 1
+    )));
+  }
+
+  @Test
+  public void interpretXlsxDataWithPartExceedingBodyLimit() throws IOException {
+    // a sheet that is a thousand times larger than the compressed workbook
+    byte[] data = workbook(FIRST_SHEET.replace("<sheetData>", "<sheetData>" + " ".repeat(1_000_000)));
+    JsonGenerator out = new ObjectMapper().getFactory().createGenerator(new ByteArrayOutputStream());
+
+    assertThrows(ImportLimitExceededException.class, () -> interpreter.interpret(
+      new SizeLimitedInputStream(new ByteArrayInputStream(data), 100_000),
+      Map.of("skipFirstDataRow", false, "firstRowAsHeader", false), out));
+  }
+
+  @Test
+  public void interpretXlsxDataBeyondMaxColumns() {
+    String sheet = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+      "<row r=\"1\"><c r=\"XFD1048576\"><v>1</v></c></row>" +
+      "</sheetData></worksheet>";
+
+    IOException e = assertThrows(IOException.class, () -> interpret(interpreter, workbook(sheet), Map.of(
+      "skipFirstDataRow", false,
+      "firstRowAsHeader", false
+    )));
+    assertEquals("Failed to read XLSX data: cell XFD1048576 exceeds the maximum of 1024 columns", e.getMessage());
+  }
+
+  @Test
+  public void columnIndex() {
+    assertEquals(0, XlsxWorkbook.columnIndex("A1"));
+    assertEquals(27, XlsxWorkbook.columnIndex("AB12"));
+    assertEquals(-1, XlsxWorkbook.columnIndex("12"));
+    assertEquals(XlsxWorkbook.MAX_COLUMNS, XlsxWorkbook.columnIndex("ZZZZZZZZZZZZ1"));
+  }
+
+  private static byte[] workbook() throws IOException {
+    return workbook(FIRST_SHEET);
+  }
+
+  /**
+   * @return a workbook with two sheets, whose parts are stored in the order Excel writes them (shared strings last)
+   */
+  private static byte[] workbook(String firstSheet) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(out)) {
+      addPart(zip, "xl/workbook.xml",
+        "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+          "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>" +
+          "<sheet name=\"First\" sheetId=\"1\" r:id=\"rId1\"/><sheet name=\"Second\" sheetId=\"2\" r:id=\"rId2\"/>" +
+          "</sheets></workbook>");
+      addPart(zip, "xl/_rels/workbook.xml.rels",
+        "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+          "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+          "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"/xl/worksheets/sheet2.xml\"/>" +
+          "<Relationship Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>" +
+          "</Relationships>");
+      addPart(zip, "xl/worksheets/sheet1.xml", firstSheet);
+      addPart(zip, "xl/worksheets/sheet2.xml", SECOND_SHEET);
+      addPart(zip, "xl/sharedStrings.xml", SHARED_STRINGS);
+    }
+    return out.toByteArray();
+  }
+
+  private static void addPart(ZipOutputStream zip, String name, String content) throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(content.getBytes(StandardCharsets.UTF_8));
+    zip.closeEntry();
+  }
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jvalue.ods.adapterservice.adapter.interpreter.InterpreterTestHelper.interpret;
 
 public class XmlInterpreterTest {
   private final Interpreter interpreter = new XmlInterpreter();
@@ -19,7 +20,7 @@ public class XmlInterpreterTest {
   public void interpretXmlData() throws IOException, InterpreterParameterException {
     var xmlString = "<note><to>Walter Frosch</to><body>Nice game!</body></note>";
 
-    var result = interpreter.interpret(xmlString, Map.of());
+    var result = interpret(interpreter, xmlString, Map.of());
 
     assertThat(result.toString()).isEqualToIgnoringWhitespace("""
       {"to": "Walter Frosch", "body": "Nice game!"}
@@ -42,7 +43,7 @@ public class XmlInterpreterTest {
       </menuItems>
       """;
 
-    var result = interpreter.interpret(collectionString, Map.of());
+    var result = interpret(interpreter, collectionString, Map.of());
 
     assertThat(result.toString()).isEqualToIgnoringWhitespace("""
       {"pizza": [
@@ -70,7 +71,7 @@ public class XmlInterpreterTest {
       </menuItems>
       """;
 
-    var result = interpreter.interpret(collectionString, Map.of());
+    var result = interpret(interpreter, collectionString, Map.of());
 
     assertThat(result.toString()).isEqualToIgnoringWhitespace("""
       {"menu":
@@ -97,7 +98,7 @@ public class XmlInterpreterTest {
       </menuItems>
       """;
 
-    var result = interpreter.interpret(collectionString, Map.of());
+    var result = interpret(interpreter, collectionString, Map.of());
 
     assertThat(result.toString()).isEqualToIgnoringWhitespace("""
       {"pizza": [
@@ -108,16 +109,77 @@ public class XmlInterpreterTest {
     );
   }
 
+  @Test
+  public void interpretXmlRecords() throws IOException, InterpreterParameterException {
+    var collectionString = """
+      <menuItems>
+        <info>ignored</info>
+        <menu>
+          <pizza>
+            <price>2</price>
+            <topping>cheese</topping>
+            <topping>tomato</topping>
+          </pizza>
+          <drink>water</drink>
+          <pizza>
+            <price>12</price>
+          </pizza>
+        </menu>
+        <menu>
+          <pizza>
+            <price>7</price>
+          </pizza>
+        </menu>
+      </menuItems>
+      """;
+
+    var result = interpret(interpreter, collectionString, Map.of("recordPath", "/menuItems/menu/pizza"));
+
+    assertThat(result.toString()).isEqualToIgnoringWhitespace("""
+      [
+        {"price":"2","topping":["cheese","tomato"]},
+        {"price":"12"},
+        {"price":"7"}
+      ]
+      """
+    );
+  }
+
+  @Test
+  public void interpretXmlRecordsOfOtherRoot() throws IOException, InterpreterParameterException {
+    var result = interpret(interpreter, "<note><to>Walter Frosch</to></note>", Map.of("recordPath", "/other/to"));
+
+    assertEquals("[]", result.toString());
+  }
+
+  @Test
+  public void interpretInvalidRecordPath() {
+    assertThrows(InterpreterParameterException.class, () ->
+      interpret(interpreter, "<note><to>Walter Frosch</to></note>", Map.of("recordPath", "note/to"))
+    );
+  }
+
   @Test
   public void interpretMalformedData() {
     assertThrows(IOException.class, () ->
-      interpreter.interpret("{\"this is\":\"no xml\"", Map.of())
+      interpret(interpreter, "{\"this is\":\"no xml\"", Map.of())
     );
   }
 
   @Test
   public void testSerialization() throws IOException {
-    var expected = mapper.readTree("{\"type\":\"XML\",\"description\":\"Interpret data as XML data\",\"parameters\":[]}");
+    var expected = mapper.readTree("""
+      {
+        "type":"XML",
+        "description":"Interpret data as XML data",
+        "parameters":[
+          {"name":"recordPath","description":"Path of the elements to interpret as records, e.g. /root/items/item","required":false,"type":"java.lang.String"},
+          {"name":"maxDepth","description":"Maximum nesting depth of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"maxRecords","description":"Maximum number of records of the interpreted data, overrides the default of the adapter","required":false,"type":"java.lang.Integer"},
+          {"name":"fields","description":"Fields to keep of each record, as field names or JSON pointers","required":false,"type":"java.util.List"},
+          {"name":"filter","description":"Conditions the records have to meet, e.g. [{\\"field\\": \\"year\\", \\"op\\": \\"ge\\", \\"value\\": 2020}]","required":false,"type":"java.util.List"}
+        ]
+      }""");
     var result = mapper.valueToTree(interpreter);
 
     assertEquals(expected, result);
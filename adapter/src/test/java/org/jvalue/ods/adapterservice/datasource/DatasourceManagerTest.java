@@ -6,7 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.jvalue.ods.adapterservice.adapter.Adapter;
 import org.jvalue.ods.adapterservice.adapter.Format;
 import org.jvalue.ods.adapterservice.adapter.Protocol;
-import org.jvalue.ods.adapterservice.adapter.model.DataImportResponse;
+import org.jvalue.ods.adapterservice.adapter.PreparedImport;
+import org.jvalue.ods.adapterservice.adapter.importer.SourceVersion;
+import org.jvalue.ods.adapterservice.adapter.model.exceptions.ImportTimeoutException;
+import org.jvalue.ods.adapterservice.common.ImportExecutor;
+import org.jvalue.ods.adapterservice.config.AdapterProperties;
 import org.jvalue.ods.adapterservice.datasource.api.amqp.AmqpPublisher;
 import org.jvalue.ods.adapterservice.datasource.model.DataImport;
 import org.jvalue.ods.adapterservice.datasource.model.Datasource;
@@ -15,20 +19,32 @@ import org.jvalue.ods.adapterservice.datasource.model.exceptions.DataImportLates
 import org.jvalue.ods.adapterservice.datasource.model.exceptions.DataImportNotFoundException;
 import org.jvalue.ods.adapterservice.datasource.model.exceptions.DatasourceNotFoundException;
 import org.jvalue.ods.adapterservice.datasource.repository.DataImportRepository;
+import org.jvalue.ods.adapterservice.datasource.repository.DataImportSummary;
 import org.jvalue.ods.adapterservice.datasource.repository.DatasourceRepository;
+import org.jvalue.ods.adapterservice.datasource.validator.ValidationMetaData;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.jvalue.ods.adapterservice.adapter.Format.JSON;
@@ -56,6 +72,9 @@ public class DatasourceManagerTest {
   @Mock
   Adapter adapter;
 
+  @Mock
+  PlatformTransactionManager transactionManager;
+
   @InjectMocks
   private DatasourceManager manager;
 
@@ -113,6 +132,7 @@ public class DatasourceManagerTest {
     manager.updateDatasource(123L, updated);
 
     verify(datasourceRepository).save(updated);
+    verify(dataImportRepository).clearSourceVersions(123L);
     verify(amqpPublisher).publishUpdate(updated);
   }
 
@@ -167,8 +187,8 @@ public class DatasourceManagerTest {
     Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
     when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
     when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-    when(adapter.executeJob(datasource.toAdapterConfig(null)))
-        .thenReturn(new DataImportResponse("{\"hallo\":\"hello\"}"));
+    doAnswer(i -> writeData(i.getArgument(3), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeJob(any(), eq("location"), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
 
     DataImport.MetaData result = manager.trigger(1L, null);
 
@@ -187,8 +207,8 @@ public class DatasourceManagerTest {
 
     RuntimeParameters runtimeParameters = new RuntimeParameters(Map.of("userId", "42"));
 
-    when(adapter.executeJob(datasource.toAdapterConfig(runtimeParameters)))
-        .thenReturn(new DataImportResponse("{\"hallo\":\"hello\"}"));
+    doAnswer(i -> writeData(i.getArgument(3), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeJob(any(), eq("http://www.test-url.com/42/123"), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
     when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
     DataImport.MetaData result = manager.trigger(2L, runtimeParameters);
@@ -205,8 +225,8 @@ public class DatasourceManagerTest {
 
     when(datasourceRepository.findById(3L)).thenReturn(Optional.of(datasource));
 
-    when(adapter.executeJob(datasource.toAdapterConfig(null)))
-        .thenThrow(new RestClientException("Do not upset the elders of the internet!"));
+    doThrow(new RestClientException("Do not upset the elders of the internet!"))
+        .when(adapter).executeJob(any(), eq("location"), any(SourceVersion.class), any(OutputStream.class));
 
     assertThrows(RestClientException.class, () -> manager.trigger(3L, null));
 
@@ -290,4 +310,169 @@ public class DatasourceManagerTest {
     when(dataImportRepository.findTopByDatasourceIdOrderByTimestampDesc(123L)).thenReturn(Optional.empty());
     assertThrows(DataImportLatestNotFoundException.class, () -> manager.getLatestDataImportForDatasource(123L));
   }
+
+  @Test
+  public void testTriggerStoresSourceVersion() throws Exception {
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    SourceVersion version = new SourceVersion("location", "\"v1\"", null);
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    doAnswer(i -> writeData(i.getArgument(3), "{\"hallo\":\"hello\"}", version))
+        .when(adapter).executeJob(any(), eq("location"), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
+
+    manager.trigger(1L, null);
+
+    ArgumentCaptor<DataImport> savedImport = ArgumentCaptor.forClass(DataImport.class);
+    verify(dataImportRepository).save(savedImport.capture());
+    assertEquals(version, savedImport.getValue().getSourceVersion());
+  }
+
+  @Test
+  public void testTriggerSkipsUnchangedSource() throws Exception {
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    SourceVersion version = new SourceVersion("location", "\"v1\"", null);
+    DataImportSummary lastImport = mock(DataImportSummary.class);
+    when(lastImport.getId()).thenReturn(42L);
+    when(lastImport.getSourceVersion()).thenReturn(version);
+    when(lastImport.toMetaData(datasource)).thenCallRealMethod();
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(dataImportRepository.findTopByDatasourceIdAndHealthNotOrderByTimestampDesc(1L, ValidationMetaData.HealthStatus.FAILED))
+        .thenReturn(Optional.of(lastImport));
+    when(adapter.executeJob(any(), eq("location"), eq(version), any(OutputStream.class)))
+        .thenReturn(Optional.empty());
+
+    DataImport.MetaData result = manager.trigger(1L, null);
+
+    assertEquals(42L, result.getId());
+    verify(dataImportRepository, never()).save(any());
+    verifyNoInteractions(amqpPublisher);
+  }
+
+  @Test
+  public void testTriggerReusesImportPlan() throws Exception {
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    doAnswer(i -> writeData(i.getArgument(3), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeJob(any(), eq("location"), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
+
+    manager.trigger(1L, null);
+    manager.trigger(1L, null);
+    verify(adapter, times(1)).prepare(any());
+
+    manager.updateDatasource(1L, datasource);
+    manager.trigger(1L, null);
+    verify(adapter, times(2)).prepare(any());
+  }
+
+  @Test
+  public void testTriggerRebuildsImportPlanOfChangedDatasource() throws Exception {
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    Datasource changed = generateDatasource(Protocol.HTTP, Format.JSON, "other-location");
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource), Optional.of(changed));
+    when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    doAnswer(i -> writeData(i.getArgument(3), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeJob(any(), anyString(), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
+
+    manager.trigger(1L, null);
+    manager.trigger(1L, null);
+
+    verify(adapter, times(2)).prepare(any());
+    verify(adapter).executeJob(any(), eq("other-location"), eq(SourceVersion.UNKNOWN), any(OutputStream.class));
+  }
+
+  @Test
+  public void testTriggerAsync() throws Exception {
+    ImportExecutor executor = createExecutor(Duration.ofSeconds(5));
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    doAnswer(i -> writeData(i.getArgument(2), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeFormat(ArgumentMatchers.<PreparedImport>any(), any(), any(OutputStream.class));
+
+    try {
+      DataImport.MetaData result = createManager(executor).triggerAsync(1L, null).get(5, TimeUnit.SECONDS);
+
+      assertEquals("/datasources/null/imports/null/data", result.getLocation());
+      verify(adapter).fetch(any(), eq("location"), eq(SourceVersion.UNKNOWN));
+      verify(amqpPublisher).publishImportSuccess(1L, "{\"hallo\":\"hello\"}");
+      verify(transactionManager).commit(any());
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  @Test
+  public void testTriggerAsyncDoesNotStoreTimedOutImport() throws Exception {
+    ImportExecutor executor = createExecutor(Duration.ofSeconds(1));
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(adapter.fetch(any(), eq("location"), eq(SourceVersion.UNKNOWN))).thenAnswer(i -> {
+      Thread.sleep(10_000);
+      return null;
+    });
+
+    try {
+      CompletableFuture<DataImport.MetaData> result = createManager(executor).triggerAsync(1L, null);
+
+      ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof ImportTimeoutException);
+      verify(amqpPublisher, timeout(5000)).publishImportFailure(eq(1L), anyString());
+      verify(adapter, never()).executeFormat(ArgumentMatchers.<PreparedImport>any(), any(), any(OutputStream.class));
+      verify(amqpPublisher, never()).publishImportSuccess(anyLong(), any());
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  @Test
+  public void testTriggerAsyncDoesNotStoreImportWhosePublishFailed() throws Exception {
+    ImportExecutor executor = createExecutor(Duration.ofSeconds(5));
+    Datasource datasource = generateDatasource(Protocol.HTTP, Format.JSON, "location");
+    when(datasourceRepository.findById(1L)).thenReturn(Optional.of(datasource));
+    when(dataImportRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    doAnswer(i -> writeData(i.getArgument(2), "{\"hallo\":\"hello\"}"))
+        .when(adapter).executeFormat(ArgumentMatchers.<PreparedImport>any(), any(), any(OutputStream.class));
+    doThrow(new IllegalStateException("broker down")).when(amqpPublisher).publishImportSuccess(anyLong(), any());
+
+    try {
+      CompletableFuture<DataImport.MetaData> result = createManager(executor).triggerAsync(1L, null);
+
+      ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      verify(amqpPublisher, timeout(5000)).publishImportFailure(1L, "broker down");
+      verify(transactionManager).rollback(any());
+      ArgumentCaptor<DataImport> savedImports = ArgumentCaptor.forClass(DataImport.class);
+      verify(dataImportRepository, times(2)).save(savedImports.capture());
+      DataImport imported = savedImports.getAllValues().get(0);
+      DataImport failed = savedImports.getAllValues().get(1);
+      assertEquals("{\"hallo\":\"hello\"}", imported.getData());
+      assertEquals(0, imported.getErrorMessages().length);
+      assertEquals("", failed.getData());
+      assertEquals(ValidationMetaData.HealthStatus.FAILED, failed.getHealth());
+      assertArrayEquals(new String[] { "broker down" }, failed.getErrorMessages());
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  private DatasourceManager createManager(ImportExecutor executor) {
+    return new DatasourceManager(datasourceRepository, dataImportRepository, adapter, amqpPublisher, executor,
+        new TransactionTemplate(transactionManager));
+  }
+
+  private static ImportExecutor createExecutor(Duration timeout) {
+    AdapterProperties properties = new AdapterProperties();
+    properties.getImports().setTimeout(timeout);
+    return new ImportExecutor(properties);
+  }
+
+  private static Optional<SourceVersion> writeData(OutputStream out, String data) throws IOException {
+    return writeData(out, data, SourceVersion.UNKNOWN);
+  }
+
+  private static Optional<SourceVersion> writeData(OutputStream out, String data, SourceVersion version) throws IOException {
+    out.write(data.getBytes(StandardCharsets.UTF_8));
+    return Optional.of(version);
+  }
 }
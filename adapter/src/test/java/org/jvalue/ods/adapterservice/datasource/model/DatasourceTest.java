@@ -89,6 +89,49 @@ public class DatasourceTest {
     assertEquals("http://www.test-url.com/1/123", datasource.fillQueryParameters(null).get("location"));
   }
 
+  @Test
+  public void testFillQueryParametersWithIncrementalState() throws ParseException {
+    var datasource = generateParameterizableDatasource(HTTP, JSON,
+      "http://www.test-url.com/data?since={windowStart}&until={windowEnd}&after={maxId}&cursor={cursor}&last={lastImportTimestamp}",
+      Map.of("maxId", "100"));
+    var lastImport = new IncrementalState(new Date(2000), new Date(1000), "123", "abc");
+
+    assertEquals("http://www.test-url.com/data?since=1970-01-01T00:00:01Z&until=1970-01-01T00:00:03Z&after=123&cursor=abc"
+        + "&last=1970-01-01T00:00:02Z",
+      datasource.fillQueryParameters(null, lastImport, new Date(3000)).get("location"));
+  }
+
+  @Test
+  public void testFillQueryParametersEncodesIncrementalState() throws ParseException {
+    var datasource = generateParameterizableDatasource(HTTP, JSON,
+      "http://www.test-url.com/data?after={maxId}&cursor={cursor}", Map.of());
+    var lastImport = new IncrementalState(new Date(2000), new Date(1000), "1 0", "next page&limit=5#x+y");
+
+    assertEquals("http://www.test-url.com/data?after=1%200&cursor=next%20page%26limit%3D5%23x%2By",
+      datasource.fillQueryParameters(null, lastImport, new Date(3000)).get("location"));
+  }
+
+  @Test
+  public void testFillQueryParametersForFirstIncrementalImport() throws ParseException {
+    var datasource = generateParameterizableDatasource(HTTP, JSON,
+      "http://www.test-url.com/data?since={windowStart}&until={windowEnd}&after={maxId}&cursor={cursor}",
+      Map.of("maxId", "100"));
+
+    assertEquals("http://www.test-url.com/data?since=1970-01-01T00:00:00Z&until=1970-01-01T00:00:03Z&after=100&cursor=",
+      datasource.fillQueryParameters(null, IncrementalState.NONE, new Date(3000)).get("location"));
+  }
+
+  @Test
+  public void testFillQueryParametersRuntimeParametersOverrideIncrementalState() throws ParseException {
+    var datasource = generateParameterizableDatasource(HTTP, JSON, "http://www.test-url.com/data?since={windowStart}",
+      Map.of());
+    var lastImport = new IncrementalState(new Date(2000), new Date(1000), null, null);
+    var runtimeParameters = new RuntimeParameters(Map.of("windowStart", "2020-01-01T00:00:00Z"));
+
+    assertEquals("http://www.test-url.com/data?since=2020-01-01T00:00:00Z",
+      datasource.fillQueryParameters(runtimeParameters, lastImport, new Date(3000)).get("location"));
+  }
+
   @Test
   public void testToAdapterConfig() throws ParseException {
     Datasource datasource = generateDatasource(HTTP, JSON, "http://www.test-url.com/{userId}/{dataId}");
@@ -0,0 +1,62 @@
+package org.jvalue.ods.adapterservice.datasource.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IncrementalStateTest {
+
+  @Test
+  public void testAdvanceFindsMaxIdAndCursor() throws IOException {
+    IncrementalConfig config = new IncrementalConfig();
+    config.setIdPointer("/meta/id");
+    config.setCursorPointer("/0/next");
+    byte[] data = "[{\"meta\":{\"id\":9},\"next\":\"c1\"},{\"meta\":{\"id\":10}},{\"meta\":{}}]"
+      .getBytes(StandardCharsets.UTF_8);
+
+    IncrementalState state = IncrementalState.NONE.advance(new Date(1000), config, data);
+
+    assertEquals(new Date(1000), state.getWindowEnd());
+    assertEquals("10", state.getMaxId());
+    assertEquals("c1", state.getCursor());
+  }
+
+  @Test
+  public void testAdvanceKeepsPreviousValues() throws IOException {
+    IncrementalConfig config = new IncrementalConfig();
+    config.setIdPointer("/id");
+    config.setCursorPointer("/0/next");
+    IncrementalState previous = new IncrementalState(new Date(500), new Date(500), "42", "c0");
+
+    IncrementalState state = previous.advance(new Date(1000), config, "[{\"id\":7}]".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals("42", state.getMaxId());
+    assertEquals("c0", state.getCursor());
+  }
+
+  @Test
+  public void testAdvanceComparesTimestampIds() throws IOException {
+    IncrementalConfig config = new IncrementalConfig();
+    config.setIdPointer("/modified");
+    byte[] data = "[{\"modified\":\"2021-03-02T10:00:00Z\"},{\"modified\":\"2021-03-01T10:00:00Z\"}]"
+      .getBytes(StandardCharsets.UTF_8);
+
+    IncrementalState state = IncrementalState.NONE.advance(new Date(1000), config, data);
+
+    assertEquals("2021-03-02T10:00:00Z", state.getMaxId());
+  }
+
+  @Test
+  public void testAdvanceWithoutConfig() throws IOException {
+    IncrementalState state = IncrementalState.NONE.advance(new Date(1000), null, "[1]".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(new Date(1000), state.getWindowEnd());
+    assertNull(state.getMaxId());
+    assertNull(state.getCursor());
+  }
+}